@@ -1,5 +1,6 @@
 package fr.inventory;
 
+import fr.inventory.service.ApplicationContext;
 import fr.inventory.utils.DatabaseUtils;
 import javafx.application.Application;
 import javafx.application.Platform;
@@ -42,7 +43,8 @@ public class Main extends Application {
             
             // Set close request handler
             primaryStage.setOnCloseRequest(event -> {
-                // Cleanup database connection
+                // Cleanup services and database connection
+                ApplicationContext.shared().shutdown();
                 DatabaseUtils.closeConnection();
                 Platform.exit();
                 System.exit(0);
@@ -53,7 +55,7 @@ public class Main extends Application {
             
             System.out.println("✅ Application démarrée avec succès");
             System.out.println("📱 Interface utilisateur chargée");
-            System.out.println("🗄️ Base de données initialisée");
+            System.out.println("🗄️ Initialisation de la base de données en arrière-plan");
             System.out.println("⛓️ Prêt pour la connexion blockchain");
             
         } catch (IOException e) {
@@ -73,14 +75,7 @@ public class Main extends Application {
         System.out.println("☕ Java Version: " + System.getProperty("java.version"));
         System.out.println("🖥️ JavaFX Version: " + System.getProperty("javafx.version"));
         
-        // Initialize database
-        try {
-            // Database is initialized in DatabaseUtils static block
-            System.out.println("✅ Base de données H2 initialisée");
-        } catch (Exception e) {
-            System.err.println("❌ Erreur lors de l'initialisation de la base de données: " + e.getMessage());
-            throw e;
-        }
+        // The database is initialized in the background by StartupService once the window is shown
     }
     
     @Override
@@ -11,78 +11,252 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.math.BigInteger;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * JSON-RPC client for the local Ganache node.
+ * The connection is managed in the background: construction returns at once and a monitor
+ * thread runs the handshake, then checks the node every
+ * {@code inventory.blockchain.healthIntervalSeconds} (default 15). Failures move the service
+ * through {@link ConnectionState}s and are retried with exponential backoff; subscribe with
+ * {@link #addConnectionListener(ConnectionListener)} instead of probing the node.
+ * {@link #isConnected()} sends no request: it requires the READY state, and every RPC outcome,
+ * health checks included, keeps a reachability status that expires after
+ * {@code inventory.blockchain.statusTtlSeconds} (default three health intervals) without a
+ * successful call.
+ */
 public class BlockchainService {
     private static final String GANACHE_URL = "http://127.0.0.1:7545";
     private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
     private static final AtomicLong requestId = new AtomicLong(1);
     private static final Logger logger = LoggerFactory.getLogger(BlockchainService.class);
 
+    private static final long DEFAULT_HEALTH_INTERVAL_SECONDS = 15;
+    private static final long INITIAL_RECONNECT_DELAY_MILLIS = 1000;
+    private static final long MAX_RECONNECT_DELAY_MILLIS = 60000;
+    // Consecutive failed checks tolerated as DEGRADED before the node is considered DOWN
+    private static final int FAILURES_BEFORE_DOWN = 3;
+
+    /**
+     * Connection lifecycle, as seen by the background monitor
+     */
+    public enum ConnectionState {
+        /** First handshake still in progress */
+        CONNECTING,
+        /** Handshake done and the last check succeeded */
+        READY,
+        /** The node answers but is not usable yet (no account), or recent checks failed */
+        DEGRADED,
+        /** The node is unreachable; reconnecting with exponential backoff */
+        DOWN
+    }
+
+    @FunctionalInterface
+    public interface ConnectionListener {
+        /**
+         * Called on the monitor thread after each state change
+         */
+        void onConnectionStateChanged(ConnectionState previous, ConnectionState current);
+    }
+
     private final OkHttpClient client;
     private final Gson gson;
-    private String contractAddress;
-    private String accountAddress;
-    private boolean contractDeploymentInProgress = false;
+    private final ScheduledExecutorService monitor;
+    private final long healthIntervalMillis;
+    private final long statusTtlNanos;
+    private final List<ConnectionListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile String contractAddress;
+    private volatile String accountAddress;
+    private volatile boolean contractDeploymentInProgress = false;
+    // System.nanoTime() until which the node counts as reachable; pushed forward by each successful RPC
+    private volatile long reachableUntilNanos = System.nanoTime();
+
+    // Monitor state, only touched on the monitor thread
+    private volatile ConnectionState state = ConnectionState.CONNECTING;
+    private boolean handshakeNeeded = true;
+    private int consecutiveFailures = 0;
+    private long reconnectDelayMillis = INITIAL_RECONNECT_DELAY_MILLIS;
+    private ScheduledFuture<?> nextCheck;
 
     public BlockchainService() {
         this.client = new OkHttpClient();
         this.gson = new Gson();
-        initializeConnection();
+        long healthIntervalSeconds = Long.getLong("inventory.blockchain.healthIntervalSeconds",
+                DEFAULT_HEALTH_INTERVAL_SECONDS);
+        this.healthIntervalMillis = TimeUnit.SECONDS.toMillis(healthIntervalSeconds);
+        this.statusTtlNanos = TimeUnit.SECONDS.toNanos(
+                Long.getLong("inventory.blockchain.statusTtlSeconds", 3 * healthIntervalSeconds));
+        this.monitor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "blockchain-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.info("Connecting to Ganache at {} in the background", GANACHE_URL);
+        scheduleCheck(0);
+    }
+
+    public ConnectionState getConnectionState() {
+        return state;
     }
 
-    private void initializeConnection() {
-        logger.info("Attempting to connect to Ganache at {}", GANACHE_URL);
+    /**
+     * Be told of every connection state change; read {@link #getConnectionState()} for the current one
+     */
+    public void addConnectionListener(ConnectionListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeConnectionListener(ConnectionListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Check the node now instead of waiting for the next scheduled check or reconnect
+     */
+    public void reconnect() {
         try {
-            // Test connection by getting client version
-            Map<String, Object> request = new HashMap<>();
-            request.put("jsonrpc", "2.0");
-            request.put("method", "web3_clientVersion");
-            request.put("params", new Object[]{});
-            request.put("id", requestId.getAndIncrement());
+            monitor.execute(() -> {
+                if (nextCheck != null) {
+                    nextCheck.cancel(false);
+                }
+                reconnectDelayMillis = INITIAL_RECONNECT_DELAY_MILLIS;
+                check();
+            });
+        } catch (RejectedExecutionException e) {
+            // Shut down
+        }
+    }
 
-            String response = makeRequest(request);
-            JsonObject jsonResponse = gson.fromJson(response, JsonObject.class);
+    private void scheduleCheck(long delayMillis) {
+        try {
+            nextCheck = monitor.schedule(this::check, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shut down
+        }
+    }
 
-            if (jsonResponse.has("error") && !jsonResponse.get("error").isJsonNull()) {
-                String errorMessage = jsonResponse.get("error").getAsJsonObject().get("message").getAsString();
-                logger.error("Connection test failed: {}", errorMessage);
-                throw new RuntimeException("Failed to connect to Ganache: " + errorMessage);
+    /**
+     * One monitor step: handshake while not connected, health check once connected,
+     * then schedule the next step according to the resulting state.
+     */
+    private void check() {
+        ConnectionState next;
+        try {
+            next = handshakeNeeded ? handshake() : ping();
+        } catch (Exception e) {
+            // The node may answer the transport yet fail the check
+            reachableUntilNanos = System.nanoTime();
+            consecutiveFailures++;
+            boolean wasConnected = !handshakeNeeded;
+            next = wasConnected && consecutiveFailures < FAILURES_BEFORE_DOWN
+                    ? ConnectionState.DEGRADED : ConnectionState.DOWN;
+            if (next == ConnectionState.DOWN) {
+                // The node may come back as a fresh chain with new accounts and no contract:
+                // forget both so the next handshake picks the account and deploys again
+                handshakeNeeded = true;
+                accountAddress = null;
+                contractAddress = null;
             }
+            logger.debug("Blockchain check failed ({} in a row): {}", consecutiveFailures, e.getMessage());
+        }
 
-            String clientVersion = jsonResponse.get("result").getAsString();
-            System.out.println("Connected to Ethereum client: " + clientVersion);
-            logger.info("Successfully connected to Ethereum client.");
-
-            // Get first account from Ganache
-            this.accountAddress = getFirstAccount();
-            if (accountAddress != null) {
-                System.out.println("Using account: " + accountAddress);
-                logger.info("Using account: {}", accountAddress);
-                System.out.println("Account balance: " + getAccountBalance(accountAddress) + " ETH");
-
-                    // Auto-deploy contract on initialization
-                    if (contractAddress == null) {
-                        try {
-                            ensureContractDeployed();
-                        } catch (Exception e) {
-                            logger.warn("Could not auto-deploy contract: {}", e.getMessage());
-                        }
-                    }
-                
-                // Auto-deploy contract if not already deployed
-                ensureContractDeployed();
-            } else {
-                throw new RuntimeException("No accounts available in Ganache");
+        long delay;
+        if (next == ConnectionState.READY) {
+            consecutiveFailures = 0;
+            reconnectDelayMillis = INITIAL_RECONNECT_DELAY_MILLIS;
+            delay = healthIntervalMillis;
+        } else {
+            delay = reconnectDelayMillis;
+            reconnectDelayMillis = Math.min(reconnectDelayMillis * 2, MAX_RECONNECT_DELAY_MILLIS);
+        }
+        setState(next);
+        scheduleCheck(delay);
+    }
+
+    private void setState(ConnectionState next) {
+        ConnectionState previous = state;
+        if (previous == next) {
+            return;
+        }
+        state = next;
+        if (next == ConnectionState.DOWN) {
+            logger.warn("Ganache unreachable at {}, retrying in the background", GANACHE_URL);
+        } else {
+            logger.info("Blockchain connection {} -> {}", previous, next);
+        }
+        for (ConnectionListener listener : listeners) {
+            try {
+                listener.onConnectionStateChanged(previous, next);
+            } catch (RuntimeException e) {
+                logger.warn("Connection listener failed on {} -> {}", previous, next, e);
             }
+        }
+    }
 
-        } catch (Exception e) {
-            logger.error("Failed to connect to Ganache: {}", e.getMessage(), e);
-            System.err.println("Failed to connect to Ganache: " + e.getMessage());
-            System.err.println("Make sure Ganache is running on " + GANACHE_URL);
+    /**
+     * Identify the node and its first account, and deploy the contract if needed
+     * @return READY, or DEGRADED when the node has no account
+     * @throws IOException if the node cannot be reached or answers with an error
+     */
+    private ConnectionState handshake() throws IOException {
+        Map<String, Object> request = new HashMap<>();
+        request.put("jsonrpc", "2.0");
+        request.put("method", "web3_clientVersion");
+        request.put("params", new Object[]{});
+        request.put("id", requestId.getAndIncrement());
+
+        String response = makeRequest(request);
+        JsonObject jsonResponse = gson.fromJson(response, JsonObject.class);
+
+        if (jsonResponse.has("error") && !jsonResponse.get("error").isJsonNull()) {
+            String errorMessage = jsonResponse.get("error").getAsJsonObject().get("message").getAsString();
+            throw new IOException("Failed to connect to Ganache: " + errorMessage);
         }
+
+        String clientVersion = jsonResponse.get("result").getAsString();
+        logger.info("Connected to Ethereum client {}", clientVersion);
+
+        // Get first account from Ganache
+        String account = getFirstAccount();
+        if (account == null) {
+            logger.warn("No accounts available in Ganache");
+            return ConnectionState.DEGRADED;
+        }
+        this.accountAddress = account;
+        logger.info("Using account {} (balance {} ETH)", account, getAccountBalance(account));
+
+        // Auto-deploy contract if not already deployed
+        ensureContractDeployed();
+        handshakeNeeded = false;
+        return ConnectionState.READY;
+    }
+
+    /**
+     * @return READY if the node answers
+     * @throws IOException otherwise
+     */
+    private ConnectionState ping() throws IOException {
+        Map<String, Object> request = new HashMap<>();
+        request.put("jsonrpc", "2.0");
+        request.put("method", "eth_blockNumber");
+        request.put("params", new Object[]{});
+        request.put("id", requestId.getAndIncrement());
+
+        String response = makeRequest(request);
+        JsonObject jsonResponse = gson.fromJson(response, JsonObject.class);
+        if (!jsonResponse.has("result")) {
+            throw new IOException("Unexpected health check response: " + response);
+        }
+        return ConnectionState.READY;
     }
 
     private String getFirstAccount() {
@@ -146,25 +320,21 @@ public class BlockchainService {
             }
             String responseBody = response.body().string();
             logger.debug("Received RPC response: {}", responseBody);
+            reachableUntilNanos = System.nanoTime() + statusTtlNanos;
             return responseBody;
+        } catch (IOException e) {
+            reachableUntilNanos = System.nanoTime();
+            throw e;
         }
     }
 
+    /**
+     * Whether the handshake is done (state READY) and the last RPC to the node succeeded
+     * within the status TTL. A node that answers but is still DEGRADED, or whose handshake is
+     * pending, is not connected. Reads the cached status only; no request is sent.
+     */
     public boolean isConnected() {
-        try {
-            Map<String, Object> request = new HashMap<>();
-            request.put("jsonrpc", "2.0");
-            request.put("method", "eth_blockNumber");
-            request.put("params", new Object[]{});
-            request.put("id", requestId.getAndIncrement());
-
-            String response = makeRequest(request);
-            JsonObject jsonResponse = gson.fromJson(response, JsonObject.class);
-            return jsonResponse.has("result");
-        } catch (Exception e) {
-            logger.debug("Connection check failed: {}", e.getMessage());
-            return false;
-        }
+        return state == ConnectionState.READY && System.nanoTime() - reachableUntilNanos < 0;
     }
 
     public CompletableFuture<String> deployContract() {
@@ -510,6 +680,7 @@ public class BlockchainService {
     }
 
     public void shutdown() {
+        monitor.shutdownNow();
         client.dispatcher().executorService().shutdown();
         client.connectionPool().evictAll();
     }
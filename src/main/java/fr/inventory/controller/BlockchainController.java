@@ -65,6 +65,8 @@ public class BlockchainController implements Initializable {
     private ProductService productService;
     private TransactionService transactionService;
     private BlockchainService blockchainService;
+    private final BlockchainService.ConnectionListener connectionListener =
+        (previous, state) -> Platform.runLater(() -> onConnectionStateChanged(state));
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
@@ -85,6 +87,33 @@ public class BlockchainController implements Initializable {
         this.productService = productService;
         this.transactionService = transactionService;
         this.blockchainService = transactionService.getBlockchainService();
+        blockchainService.addConnectionListener(connectionListener);
+    }
+
+    /**
+     * Stop listening to connection changes once this view is replaced
+     */
+    public void dispose() {
+        if (blockchainService != null) {
+            blockchainService.removeConnectionListener(connectionListener);
+        }
+    }
+
+    private void onConnectionStateChanged(BlockchainService.ConnectionState state) {
+        switch (state) {
+            case READY:
+                addToSyncLog("✅ Connexion établie avec succès");
+                break;
+            case DEGRADED:
+                addToSyncLog("⚠️ Connexion instable - nouvelle tentative en arrière-plan");
+                break;
+            case DOWN:
+                addToSyncLog("❌ Échec de la connexion - Vérifiez que Ganache fonctionne sur http://127.0.0.1:7545");
+                break;
+            default:
+                break;
+        }
+        refreshBlockchainInfo();
     }
 
     public void refreshBlockchainInfo() {
@@ -99,30 +128,32 @@ public class BlockchainController implements Initializable {
     }
 
     private void updateConnectionStatus() {
-        try {
-            boolean connected = blockchainService.isConnected();
-            
-            if (connected) {
+        BlockchainService.ConnectionState state = blockchainService.getConnectionState();
+        boolean connected = state == BlockchainService.ConnectionState.READY;
+        
+        lblConnectionStatus.getStyleClass().removeAll("success", "warning", "error");
+        switch (state) {
+            case READY:
                 lblConnectionStatus.setText("🟢 Connecté à Ganache");
-                lblConnectionStatus.getStyleClass().removeAll("error", "warning");
                 lblConnectionStatus.getStyleClass().add("success");
-                btnConnect.setText("Rafraîchir");
-                btnDeployContract.setDisable(false);
-                btnSyncTransactions.setDisable(false);
-            } else {
+                break;
+            case DEGRADED:
+                lblConnectionStatus.setText("🟠 Connexion instable");
+                lblConnectionStatus.getStyleClass().add("warning");
+                break;
+            case DOWN:
                 lblConnectionStatus.setText("🔴 Déconnecté");
-                lblConnectionStatus.getStyleClass().removeAll("success", "warning");
                 lblConnectionStatus.getStyleClass().add("error");
-                btnConnect.setText("Se connecter");
-                btnDeployContract.setDisable(true);
-                btnSyncTransactions.setDisable(true);
-            }
-        } catch (Exception e) {
-            lblConnectionStatus.setText("❌ Erreur de connexion");
-            lblConnectionStatus.getStyleClass().removeAll("success", "warning");
-            lblConnectionStatus.getStyleClass().add("error");
-            addToSyncLog("Erreur lors de la vérification de la connexion: " + e.getMessage());
+                break;
+            case CONNECTING:
+            default:
+                lblConnectionStatus.setText("⏳ Connexion en cours...");
+                lblConnectionStatus.getStyleClass().add("warning");
+                break;
         }
+        btnConnect.setText(connected ? "Rafraîchir" : "Se connecter");
+        btnDeployContract.setDisable(!connected);
+        btnSyncTransactions.setDisable(!connected);
     }
 
     private void updateAccountInfo() {
@@ -202,26 +233,10 @@ public class BlockchainController implements Initializable {
 
     @FXML
     private void connectToBlockchain() {
-        progressIndicator.setVisible(true);
         addToSyncLog("Tentative de connexion à Ganache...");
-        
-        Platform.runLater(() -> {
-            try {
-                // The connection is handled in the BlockchainService constructor
-                // Here we just refresh the status
-                refreshBlockchainInfo();
-                
-                if (blockchainService.isConnected()) {
-                    addToSyncLog("✅ Connexion établie avec succès");
-                } else {
-                    addToSyncLog("❌ Échec de la connexion - Vérifiez que Ganache fonctionne sur http://127.0.0.1:7545");
-                }
-            } catch (Exception e) {
-                addToSyncLog("❌ Erreur de connexion: " + e.getMessage());
-            } finally {
-                progressIndicator.setVisible(false);
-            }
-        });
+        // The outcome is reported by the connection listener
+        blockchainService.reconnect();
+        refreshBlockchainInfo();
     }
 
     @FXML
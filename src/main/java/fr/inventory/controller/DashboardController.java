@@ -1,7 +1,10 @@
 package fr.inventory.controller;
 
-import fr.inventory.model.Product;
-import fr.inventory.model.Transaction;
+import fr.inventory.blockchain.BlockchainService;
+import fr.inventory.dao.LowStockMonitor;
+import fr.inventory.dao.StockLevel;
+import fr.inventory.model.ProductRow;
+import fr.inventory.model.TransactionRow;
 import fr.inventory.service.ProductService;
 import fr.inventory.service.TransactionService;
 import javafx.application.Platform;
@@ -15,6 +18,7 @@ import javafx.scene.control.cell.PropertyValueFactory;
 
 import java.net.URL;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.ResourceBundle;
 
@@ -39,31 +43,31 @@ public class DashboardController implements Initializable {
     private Label lblSyncedTransactions;
     
     @FXML
-    private TableView<Product> tableLowStock;
+    private TableView<ProductRow> tableLowStock;
     
     @FXML
-    private TableColumn<Product, String> colProductName;
+    private TableColumn<ProductRow, String> colProductName;
     
     @FXML
-    private TableColumn<Product, Long> colCurrentStock;
+    private TableColumn<ProductRow, Long> colCurrentStock;
     
     @FXML
-    private TableColumn<Product, Long> colMinStock;
+    private TableColumn<ProductRow, Long> colMinStock;
     
     @FXML
-    private TableView<Transaction> tableRecentTransactions;
+    private TableView<TransactionRow> tableRecentTransactions;
     
     @FXML
-    private TableColumn<Transaction, String> colTransactionProduct;
+    private TableColumn<TransactionRow, String> colTransactionProduct;
     
     @FXML
-    private TableColumn<Transaction, String> colTransactionType;
+    private TableColumn<TransactionRow, String> colTransactionType;
     
     @FXML
-    private TableColumn<Transaction, Long> colTransactionQuantity;
+    private TableColumn<TransactionRow, Long> colTransactionQuantity;
     
     @FXML
-    private TableColumn<Transaction, String> colTransactionDate;
+    private TableColumn<TransactionRow, String> colTransactionDate;
     
     @FXML
     private ListView<String> listAlerts;
@@ -72,6 +76,13 @@ public class DashboardController implements Initializable {
     private TransactionService transactionService;
     
     private final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    
+    // Pending transactions and blockchain status, kept between low stock updates
+    private List<String> statusAlerts = new ArrayList<>();
+    private final LowStockMonitor.Listener lowStockListener =
+        (crossing, level) -> Platform.runLater(this::onLowStockChanged);
+    private final BlockchainService.ConnectionListener connectionListener =
+        (previous, state) -> Platform.runLater(this::refreshAlerts);
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
@@ -97,6 +108,20 @@ public class DashboardController implements Initializable {
     public void setServices(ProductService productService, TransactionService transactionService) {
         this.productService = productService;
         this.transactionService = transactionService;
+        productService.addLowStockListener(lowStockListener);
+        transactionService.getBlockchainService().addConnectionListener(connectionListener);
+    }
+
+    /**
+     * Stop listening to low stock and connection changes once this view is replaced
+     */
+    public void dispose() {
+        if (productService != null) {
+            productService.removeLowStockListener(lowStockListener);
+        }
+        if (transactionService != null) {
+            transactionService.getBlockchainService().removeConnectionListener(connectionListener);
+        }
     }
 
     public void refreshData() {
@@ -139,7 +164,7 @@ public class DashboardController implements Initializable {
 
     private void refreshLowStockProducts() {
         try {
-            List<Product> lowStockProducts = productService.getLowStockProducts();
+            List<ProductRow> lowStockProducts = productService.getLowStockProductRows();
             Platform.runLater(() -> {
                 tableLowStock.getItems().clear();
                 tableLowStock.getItems().addAll(lowStockProducts);
@@ -151,7 +176,7 @@ public class DashboardController implements Initializable {
 
     private void refreshRecentTransactions() {
         try {
-            List<Transaction> recentTransactions = transactionService.getRecentTransactions(10);
+            List<TransactionRow> recentTransactions = transactionService.getRecentTransactionRows(10);
             Platform.runLater(() -> {
                 tableRecentTransactions.getItems().clear();
                 tableRecentTransactions.getItems().addAll(recentTransactions);
@@ -164,40 +189,69 @@ public class DashboardController implements Initializable {
     private void refreshAlerts() {
         try {
             Platform.runLater(() -> {
-                listAlerts.getItems().clear();
-                
-                // Low stock alerts
-                List<Product> lowStockProducts = productService.getLowStockProducts();
-                for (Product product : lowStockProducts) {
-                    listAlerts.getItems().add("⚠️ Stock faible: " + product.getName() + 
-                        " (" + product.getCurrentStock() + "/" + product.getMinStock() + ")");
-                }
+                List<String> alerts = new ArrayList<>();
                 
                 // Pending transactions alerts
                 TransactionService.TransactionStats stats = transactionService.getTransactionStats();
                 if (stats.getPendingTransactions() > 0) {
-                    listAlerts.getItems().add("🔄 " + stats.getPendingTransactions() + 
+                    alerts.add("🔄 " + stats.getPendingTransactions() + 
                         " transaction(s) en attente de synchronisation blockchain");
                 }
                 
-                // Blockchain connection status
-                boolean blockchainConnected = transactionService.getBlockchainService().isConnected();
-                if (!blockchainConnected) {
-                    listAlerts.getItems().add("🔴 Connexion blockchain indisponible");
-                } else {
-                    listAlerts.getItems().add("🟢 Blockchain connectée");
+                // Blockchain connection status, kept up to date by the background monitor
+                switch (transactionService.getBlockchainService().getConnectionState()) {
+                    case READY:
+                        alerts.add("🟢 Blockchain connectée");
+                        break;
+                    case DEGRADED:
+                        alerts.add("🟠 Connexion blockchain instable");
+                        break;
+                    case DOWN:
+                        alerts.add("🔴 Connexion blockchain indisponible");
+                        break;
+                    case CONNECTING:
+                    default:
+                        alerts.add("⏳ Connexion blockchain en cours");
+                        break;
                 }
                 
-                // Add generic info if no alerts
-                if (listAlerts.getItems().isEmpty()) {
-                    listAlerts.getItems().add("✅ Aucune alerte - Système opérationnel");
-                }
+                statusAlerts = alerts;
+                showAlerts();
             });
         } catch (Exception e) {
             System.err.println("Error refreshing alerts: " + e.getMessage());
         }
     }
 
+    /**
+     * Rebuild the alert list; low stock alerts come from memory, without any query
+     */
+    private void showAlerts() {
+        listAlerts.getItems().clear();
+        
+        // Low stock alerts
+        for (StockLevel level : productService.getLowStockLevels()) {
+            listAlerts.getItems().add("⚠️ Stock faible: " + level.getProductName() + 
+                " (" + level.getCurrentStock() + "/" + level.getMinStock() + ")");
+        }
+        
+        listAlerts.getItems().addAll(statusAlerts);
+        
+        // Add generic info if no alerts
+        if (listAlerts.getItems().isEmpty()) {
+            listAlerts.getItems().add("✅ Aucune alerte - Système opérationnel");
+        }
+    }
+
+    private void onLowStockChanged() {
+        try {
+            lblLowStockProducts.setText(String.valueOf(productService.getLowStockLevels().size()));
+            showAlerts();
+        } catch (Exception e) {
+            System.err.println("Error updating low stock alerts: " + e.getMessage());
+        }
+    }
+
     @FXML
     private void refreshDashboard() {
         refreshData();
@@ -0,0 +1,102 @@
+package fr.inventory.controller;
+
+import javafx.application.Platform;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.scene.control.TableColumn;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Fills a table's description column for the rows actually displayed.
+ * Table rows are loaded without their description; each cell shown for a row whose description
+ * is unknown queues the row's ID, and the queued IDs are loaded in one background query once the
+ * current layout pass is over. The table is refreshed when the descriptions arrive.
+ */
+class DescriptionColumn<R> {
+    private final TableColumn<R, String> column;
+    private final Function<R, Long> idOf;
+    private final Function<R, String> descriptionOf;
+    private final Function<List<Long>, Map<Long, String>> loader;
+
+    // Only touched on the FX thread
+    private final Map<Long, String> loaded = new HashMap<>();
+    private final Set<Long> requested = new HashSet<>();
+    private final List<Long> pending = new ArrayList<>();
+    private long generation = 0;
+
+    /**
+     * @param descriptionOf description already carried by the row, or null
+     * @param loader loads description previews by ID; runs off the FX thread
+     */
+    DescriptionColumn(TableColumn<R, String> column, Function<R, Long> idOf, Function<R, String> descriptionOf,
+                      Function<List<Long>, Map<Long, String>> loader) {
+        this.column = column;
+        this.idOf = idOf;
+        this.descriptionOf = descriptionOf;
+        this.loader = loader;
+        column.setCellValueFactory(cellData -> new SimpleStringProperty(describe(cellData.getValue())));
+    }
+
+    /**
+     * Forget the loaded descriptions, for example after the rows were reloaded
+     */
+    void reset() {
+        loaded.clear();
+        requested.clear();
+        pending.clear();
+        generation++;
+    }
+
+    private String describe(R row) {
+        String description = descriptionOf.apply(row);
+        if (description != null) {
+            return description;
+        }
+        Long id = idOf.apply(row);
+        if (id == null) {
+            return null;
+        }
+        if (loaded.containsKey(id)) {
+            return loaded.get(id);
+        }
+        if (requested.add(id)) {
+            if (pending.isEmpty()) {
+                Platform.runLater(this::loadPending);
+            }
+            pending.add(id);
+        }
+        return "…";
+    }
+
+    private void loadPending() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(pending);
+        pending.clear();
+        long requestGeneration = generation;
+
+        CompletableFuture.supplyAsync(() -> loader.apply(ids))
+            .whenComplete((descriptions, error) -> Platform.runLater(() -> {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                if (error != null) {
+                    System.err.println("Error loading descriptions: " + error.getMessage());
+                }
+                for (Long id : ids) {
+                    loaded.put(id, descriptions != null ? descriptions.get(id) : null);
+                }
+                if (column.getTableView() != null) {
+                    column.getTableView().refresh();
+                }
+            }));
+    }
+}
@@ -1,11 +1,15 @@
 package fr.inventory.controller;
 
+import fr.inventory.blockchain.BlockchainService;
+import fr.inventory.service.ApplicationContext;
 import fr.inventory.service.ProductService;
+import fr.inventory.service.StartupService;
 import fr.inventory.service.TransactionService;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
+import javafx.geometry.Pos;
 import javafx.scene.Parent;
 import javafx.scene.control.*;
 import javafx.scene.layout.BorderPane;
@@ -47,6 +51,9 @@ public class MainController implements Initializable {
     private ProductService productService;
     private TransactionService transactionService;
     
+    private final StartupService startupService = new StartupService();
+    private final ApplicationContext context = ApplicationContext.shared();
+    
     // Controllers for different views
     private DashboardController dashboardController;
     private ProductController productController;
@@ -58,20 +65,76 @@ public class MainController implements Initializable {
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
+        // Render immediately; the database is initialized in the background
+        setNavigationDisabled(true);
+        showStartupProgress();
+        
+        startupService.setOnSucceeded(e -> onDatabaseReady());
+        startupService.setOnFailed(e -> onDatabaseFailed(startupService.getException()));
+        startupService.start();
+    }
+
+    private void onDatabaseReady() {
         // Initialize services
-        productService = new ProductService();
-        transactionService = new TransactionService();
+        productService = context.getProductService();
+        transactionService = context.getTransactionService();
+        context.getStatsVerificationService().start();
+        context.getLowStockResyncService().start();
         
         // Set up sidebar button actions
         setupSidebarActions();
+        setNavigationDisabled(false);
         
-        // Check blockchain connection status
-        updateConnectionStatus();
+        // Follow the blockchain connection, established in the background
+        BlockchainService blockchainService = context.getBlockchainService();
+        blockchainService.addConnectionListener((previous, state) -> Platform.runLater(() -> showConnectionState(state)));
+        showConnectionState(blockchainService.getConnectionState());
         
         // Load dashboard by default
         showDashboard();
     }
 
+    private void onDatabaseFailed(Throwable error) {
+        Label lblError = new Label("❌ Base de données indisponible : " + 
+            (error != null ? error.getMessage() : "erreur inconnue"));
+        lblError.getStyleClass().add("error");
+        
+        Button btnRetry = new Button("Réessayer");
+        btnRetry.setOnAction(e -> retryStartup());
+        
+        VBox errorBox = new VBox(10, lblError, btnRetry);
+        errorBox.setAlignment(Pos.CENTER);
+        mainPane.setCenter(errorBox);
+        
+        Exception cause = error instanceof Exception ? (Exception) error : null;
+        showError("Impossible d'initialiser la base de données", cause);
+    }
+
+    private void retryStartup() {
+        showStartupProgress();
+        startupService.restart();
+    }
+
+    private void showStartupProgress() {
+        ProgressBar progressBar = new ProgressBar();
+        progressBar.progressProperty().bind(startupService.progressProperty());
+        progressBar.setPrefWidth(300);
+        
+        Label lblMessage = new Label();
+        lblMessage.textProperty().bind(startupService.messageProperty());
+        
+        VBox loadingBox = new VBox(10, lblMessage, progressBar);
+        loadingBox.setAlignment(Pos.CENTER);
+        mainPane.setCenter(loadingBox);
+    }
+
+    private void setNavigationDisabled(boolean disabled) {
+        btnDashboard.setDisable(disabled);
+        btnProducts.setDisable(disabled);
+        btnTransactions.setDisable(disabled);
+        btnBlockchain.setDisable(disabled);
+    }
+
     private void setupSidebarActions() {
         btnDashboard.setOnAction(e -> showDashboard());
         btnProducts.setOnAction(e -> showProducts());
@@ -87,6 +150,9 @@ public class MainController implements Initializable {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/dashboard.fxml"));
             Parent view = loader.load();
             
+            if (dashboardController != null) {
+                dashboardController.dispose();
+            }
             dashboardController = loader.getController();
             dashboardController.setServices(productService, transactionService);
             dashboardController.refreshData();
@@ -147,6 +213,9 @@ public class MainController implements Initializable {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/blockchain.fxml"));
             Parent view = loader.load();
             
+            if (blockchainController != null) {
+                blockchainController.dispose();
+            }
             blockchainController = loader.getController();
             blockchainController.setServices(productService, transactionService);
             blockchainController.refreshBlockchainInfo();
@@ -173,40 +242,37 @@ public class MainController implements Initializable {
         activeButton.getStyleClass().add("active");
     }
 
-    private void updateConnectionStatus() {
-        progressIndicator.setVisible(true);
-        
-        // Check blockchain connection in background
-        Platform.runLater(() -> {
-            try {
-                boolean connected = transactionService.getBlockchainService().isConnected();
-                
-                Platform.runLater(() -> {
-                    progressIndicator.setVisible(false);
-                    if (connected) {
-                        lblConnectionStatus.setText("Connecté à Ganache");
-                        lblConnectionStatus.getStyleClass().removeAll("error", "warning");
-                        lblConnectionStatus.getStyleClass().add("success");
-                    } else {
-                        lblConnectionStatus.setText("Déconnecté de Ganache");
-                        lblConnectionStatus.getStyleClass().removeAll("success", "warning");
-                        lblConnectionStatus.getStyleClass().add("error");
-                    }
-                });
-            } catch (Exception e) {
-                Platform.runLater(() -> {
-                    progressIndicator.setVisible(false);
-                    lblConnectionStatus.setText("Erreur de connexion");
-                    lblConnectionStatus.getStyleClass().removeAll("success", "warning");
-                    lblConnectionStatus.getStyleClass().add("error");
-                });
-            }
-        });
+    private void showConnectionState(BlockchainService.ConnectionState state) {
+        progressIndicator.setVisible(state == BlockchainService.ConnectionState.CONNECTING);
+        lblConnectionStatus.getStyleClass().removeAll("success", "warning", "error");
+        switch (state) {
+            case READY:
+                lblConnectionStatus.setText("Connecté à Ganache");
+                lblConnectionStatus.getStyleClass().add("success");
+                break;
+            case DEGRADED:
+                lblConnectionStatus.setText("Connexion à Ganache instable");
+                lblConnectionStatus.getStyleClass().add("warning");
+                break;
+            case DOWN:
+                lblConnectionStatus.setText("Déconnecté de Ganache");
+                lblConnectionStatus.getStyleClass().add("error");
+                break;
+            case CONNECTING:
+            default:
+                lblConnectionStatus.setText("Connexion à Ganache...");
+                lblConnectionStatus.getStyleClass().add("warning");
+                break;
+        }
     }
 
     @FXML
     private void refreshConnectionStatus() {
-        updateConnectionStatus();
+        if (transactionService == null) {
+            return; // Still starting up
+        }
+        // The new state arrives through the connection listener
+        context.getBlockchainService().reconnect();
         
         // Also refresh current view if it's blockchain-related
         if ("blockchain".equals(currentView) && blockchainController != null) {
@@ -238,10 +304,8 @@ public class MainController implements Initializable {
         
         alert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                // Cleanup blockchain service
-                if (transactionService != null) {
-                    transactionService.getBlockchainService().shutdown();
-                }
+                // Stop background work and the blockchain client
+                context.shutdown();
                 Platform.exit();
                 System.exit(0);
             }
@@ -1,8 +1,10 @@
 package fr.inventory.controller;
 
 import fr.inventory.model.Product;
+import fr.inventory.model.ProductRow;
 import fr.inventory.service.ProductService;
 import javafx.application.Platform;
+import javafx.collections.ListChangeListener;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.*;
@@ -10,9 +12,12 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.GridPane;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.net.URL;
 import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.ResourceBundle;
 
@@ -22,31 +27,31 @@ public class ProductController implements Initializable {
     private TextField txtSearch;
     
     @FXML
-    private TableView<Product> tableProducts;
+    private TableView<ProductRow> tableProducts;
     
     @FXML
-    private TableColumn<Product, Long> colId;
+    private TableColumn<ProductRow, Long> colId;
     
     @FXML
-    private TableColumn<Product, String> colName;
+    private TableColumn<ProductRow, String> colName;
     
     @FXML
-    private TableColumn<Product, String> colDescription;
+    private TableColumn<ProductRow, String> colDescription;
     
     @FXML
-    private TableColumn<Product, Long> colCurrentStock;
+    private TableColumn<ProductRow, Long> colCurrentStock;
     
     @FXML
-    private TableColumn<Product, Long> colMinStock;
+    private TableColumn<ProductRow, Long> colMinStock;
     
     @FXML
-    private TableColumn<Product, BigDecimal> colPrice;
+    private TableColumn<ProductRow, BigDecimal> colPrice;
     
     @FXML
-    private TableColumn<Product, Boolean> colActive;
+    private TableColumn<ProductRow, Boolean> colActive;
     
     @FXML
-    private TableColumn<Product, String> colCreatedAt;
+    private TableColumn<ProductRow, String> colCreatedAt;
     
     @FXML
     private Button btnAdd;
@@ -63,10 +68,14 @@ public class ProductController implements Initializable {
     @FXML
     private Button btnActivate;
     
+    @FXML
+    private Button btnBulkPrice;
+    
     @FXML
     private CheckBox chkShowInactive;
 
     private ProductService productService;
+    private DescriptionColumn<ProductRow> descriptions;
     private final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
 
     @Override
@@ -79,7 +88,9 @@ public class ProductController implements Initializable {
     private void setupTable() {
         colId.setCellValueFactory(new PropertyValueFactory<>("id"));
         colName.setCellValueFactory(new PropertyValueFactory<>("name"));
-        colDescription.setCellValueFactory(new PropertyValueFactory<>("description"));
+        // Rows come without descriptions; only the displayed ones are loaded
+        descriptions = new DescriptionColumn<>(colDescription, ProductRow::getId, ProductRow::getDescription,
+            ids -> productService.getDescriptionPreviews(ids));
         colCurrentStock.setCellValueFactory(new PropertyValueFactory<>("currentStock"));
         colMinStock.setCellValueFactory(new PropertyValueFactory<>("minStock"));
         colPrice.setCellValueFactory(new PropertyValueFactory<>("price"));
@@ -90,7 +101,7 @@ public class ProductController implements Initializable {
                 cellData.getValue().getCreatedAt().format(dateFormatter) : ""));
 
         // Custom cell factory for stock column to highlight low stock
-        colCurrentStock.setCellFactory(column -> new TableCell<Product, Long>() {
+        colCurrentStock.setCellFactory(column -> new TableCell<ProductRow, Long>() {
             @Override
             protected void updateItem(Long stock, boolean empty) {
                 super.updateItem(stock, empty);
@@ -99,7 +110,7 @@ public class ProductController implements Initializable {
                     setStyle("");
                 } else {
                     setText(stock.toString());
-                    Product product = getTableRow().getItem();
+                    ProductRow product = getTableRow().getItem();
                     if (product != null && product.isStockLow()) {
                         setStyle("-fx-background-color: #ffebee; -fx-text-fill: #c62828;");
                     } else {
@@ -110,7 +121,7 @@ public class ProductController implements Initializable {
         });
 
         // Custom cell factory for active status
-        colActive.setCellFactory(column -> new TableCell<Product, Boolean>() {
+        colActive.setCellFactory(column -> new TableCell<ProductRow, Boolean>() {
             @Override
             protected void updateItem(Boolean active, boolean empty) {
                 super.updateItem(active, empty);
@@ -123,9 +134,12 @@ public class ProductController implements Initializable {
             }
         });
 
+        // Multi-selection enables bulk activation, deactivation and price changes
+        tableProducts.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+
         // Selection listener for buttons
-        tableProducts.getSelectionModel().selectedItemProperty().addListener(
-            (observable, oldValue, newValue) -> updateButtonStates(newValue));
+        tableProducts.getSelectionModel().getSelectedItems().addListener(
+            (ListChangeListener<ProductRow>) change -> updateButtonStates());
     }
 
     private void setupSearchListener() {
@@ -139,6 +153,7 @@ public class ProductController implements Initializable {
         btnDelete.setDisable(true);
         btnDeactivate.setDisable(true);
         btnActivate.setDisable(true);
+        btnBulkPrice.setDisable(true);
     }
 
     public void setProductService(ProductService productService) {
@@ -150,13 +165,14 @@ public class ProductController implements Initializable {
         
         Platform.runLater(() -> {
             try {
-                List<Product> products;
+                List<ProductRow> products;
                 if (chkShowInactive.isSelected()) {
-                    products = productService.getAllProducts();
+                    products = productService.getAllProductRows();
                 } else {
-                    products = productService.getActiveProducts();
+                    products = productService.getActiveProductRows();
                 }
                 
+                descriptions.reset();
                 tableProducts.getItems().clear();
                 tableProducts.getItems().addAll(products);
             } catch (Exception e) {
@@ -171,21 +187,22 @@ public class ProductController implements Initializable {
         
         Platform.runLater(() -> {
             try {
-                List<Product> products;
+                List<ProductRow> products;
                 if (searchText == null || searchText.trim().isEmpty()) {
                     if (chkShowInactive.isSelected()) {
-                        products = productService.getAllProducts();
+                        products = productService.getAllProductRows();
                     } else {
-                        products = productService.getActiveProducts();
+                        products = productService.getActiveProductRows();
                     }
                 } else {
-                    products = productService.searchProducts(searchText);
+                    products = productService.searchProductRows(searchText);
                     if (!chkShowInactive.isSelected()) {
                         products = products.stream()
-                            .filter(Product::isActive).toList();
+                            .filter(ProductRow::isActive).toList();
                     }
                 }
                 
+                descriptions.reset();
                 tableProducts.getItems().clear();
                 tableProducts.getItems().addAll(products);
             } catch (Exception e) {
@@ -201,15 +218,22 @@ public class ProductController implements Initializable {
 
     @FXML
     private void editProduct() {
-        Product selectedProduct = tableProducts.getSelectionModel().getSelectedItem();
-        if (selectedProduct != null) {
-            showProductDialog(selectedProduct);
+        ProductRow selectedProduct = tableProducts.getSelectionModel().getSelectedItem();
+        if (selectedProduct == null) return;
+
+        // The table only holds a projection; load the full product for editing
+        Optional<Product> product = productService.findById(selectedProduct.getId());
+        if (product.isPresent()) {
+            showProductDialog(product.get());
+        } else {
+            showError("Produit introuvable", null);
+            refreshProducts();
         }
     }
 
     @FXML
     private void deleteProduct() {
-        Product selectedProduct = tableProducts.getSelectionModel().getSelectedItem();
+        ProductRow selectedProduct = tableProducts.getSelectionModel().getSelectedItem();
         if (selectedProduct == null) return;
 
         Alert confirmAlert = new Alert(Alert.AlertType.CONFIRMATION);
@@ -237,16 +261,22 @@ public class ProductController implements Initializable {
 
     @FXML
     private void deactivateProduct() {
-        Product selectedProduct = tableProducts.getSelectionModel().getSelectedItem();
-        if (selectedProduct == null) return;
+        List<ProductRow> selectedProducts = List.copyOf(tableProducts.getSelectionModel().getSelectedItems());
+        if (selectedProducts.isEmpty()) return;
 
         try {
-            boolean success = productService.deactivateProduct(selectedProduct.getId());
-            if (success) {
-                refreshProducts();
-                showInfo("Produit désactivé avec succès");
+            if (selectedProducts.size() == 1) {
+                boolean success = productService.deactivateProduct(selectedProducts.get(0).getId());
+                if (success) {
+                    refreshProducts();
+                    showInfo("Produit désactivé avec succès");
+                } else {
+                    showError("Erreur lors de la désactivation du produit", null);
+                }
             } else {
-                showError("Erreur lors de la désactivation du produit", null);
+                int count = productService.deactivateProducts(selectedProducts.stream().map(ProductRow::getId).toList());
+                refreshProducts();
+                showInfo(count + " produit(s) désactivé(s) avec succès");
             }
         } catch (Exception e) {
             showError("Erreur lors de la désactivation", e);
@@ -255,35 +285,89 @@ public class ProductController implements Initializable {
 
     @FXML
     private void activateProduct() {
-        Product selectedProduct = tableProducts.getSelectionModel().getSelectedItem();
-        if (selectedProduct == null) return;
+        List<ProductRow> selectedProducts = List.copyOf(tableProducts.getSelectionModel().getSelectedItems());
+        if (selectedProducts.isEmpty()) return;
 
         try {
-            boolean success = productService.activateProduct(selectedProduct.getId());
-            if (success) {
-                refreshProducts();
-                showInfo("Produit activé avec succès");
+            if (selectedProducts.size() == 1) {
+                boolean success = productService.activateProduct(selectedProducts.get(0).getId());
+                if (success) {
+                    refreshProducts();
+                    showInfo("Produit activé avec succès");
+                } else {
+                    showError("Erreur lors de l'activation du produit", null);
+                }
             } else {
-                showError("Erreur lors de l'activation du produit", null);
+                int count = productService.activateProducts(selectedProducts.stream().map(ProductRow::getId).toList());
+                refreshProducts();
+                showInfo(count + " produit(s) activé(s) avec succès");
             }
         } catch (Exception e) {
             showError("Erreur lors de l'activation", e);
         }
     }
 
+    @FXML
+    private void bulkEditPrice() {
+        List<ProductRow> selectedProducts = List.copyOf(tableProducts.getSelectionModel().getSelectedItems());
+        if (selectedProducts.isEmpty()) return;
+
+        TextInputDialog dialog = new TextInputDialog();
+        dialog.setTitle("Modifier les prix");
+        dialog.setHeaderText("Modifier le prix de " + selectedProducts.size() + " produit(s)");
+        dialog.setContentText("Nouveau prix ou variation (ex: 12.50, +10%, -5%):");
+
+        dialog.showAndWait().ifPresent(input -> {
+            Map<Long, BigDecimal> newPrices = new LinkedHashMap<>();
+            try {
+                for (ProductRow product : selectedProducts) {
+                    newPrices.put(product.getId(), computeNewPrice(product.getPrice(), input.trim()));
+                }
+            } catch (NumberFormatException e) {
+                showError("Format de prix invalide", e);
+                return;
+            }
+
+            productService.updatePrices(newPrices)
+                .thenAccept(count -> {
+                    Platform.runLater(() -> {
+                        refreshProducts();
+                        showInfo(count + " prix modifié(s) avec succès");
+                    });
+                }).exceptionally(throwable -> {
+                    Platform.runLater(() -> showError("Erreur lors de la modification des prix", (Exception) throwable));
+                    return null;
+                });
+        });
+    }
+
+    // Accepts an absolute price ("12.50") or a relative change ("+10%", "-5%")
+    private BigDecimal computeNewPrice(BigDecimal currentPrice, String input) {
+        if (input.endsWith("%")) {
+            BigDecimal percent = new BigDecimal(input.substring(0, input.length() - 1).trim());
+            BigDecimal base = currentPrice != null ? currentPrice : BigDecimal.ZERO;
+            return base.add(base.multiply(percent).divide(BigDecimal.valueOf(100)))
+                       .setScale(2, RoundingMode.HALF_UP);
+        }
+        return new BigDecimal(input).setScale(2, RoundingMode.HALF_UP);
+    }
+
     @FXML
     private void toggleShowInactive() {
         refreshProducts();
     }
 
-    private void updateButtonStates(Product selectedProduct) {
-        boolean hasSelection = selectedProduct != null;
-        btnEdit.setDisable(!hasSelection);
-        btnDelete.setDisable(!hasSelection);
+    private void updateButtonStates() {
+        List<ProductRow> selectedProducts = tableProducts.getSelectionModel().getSelectedItems();
+        boolean hasSelection = !selectedProducts.isEmpty();
+        boolean singleSelection = selectedProducts.size() == 1;
+        btnEdit.setDisable(!singleSelection);
+        btnDelete.setDisable(!singleSelection);
+        btnBulkPrice.setDisable(!hasSelection);
         
         if (hasSelection) {
-            btnDeactivate.setDisable(!selectedProduct.isActive());
-            btnActivate.setDisable(selectedProduct.isActive());
+            btnDeactivate.setDisable(selectedProducts.stream().noneMatch(ProductRow::isActive));
+            btnActivate.setDisable(selectedProducts.stream().allMatch(ProductRow::isActive));
         } else {
             btnDeactivate.setDisable(true);
             btnActivate.setDisable(true);
@@ -1,7 +1,8 @@
 package fr.inventory.controller;
 
-import fr.inventory.model.Product;
+import fr.inventory.dao.StockLevel;
 import fr.inventory.model.Transaction;
+import fr.inventory.model.TransactionRow;
 import fr.inventory.model.TransactionType;
 import fr.inventory.service.ProductService;
 import fr.inventory.service.TransactionService;
@@ -11,6 +12,7 @@ import javafx.fxml.Initializable;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.GridPane;
+import javafx.util.StringConverter;
 
 import java.net.URL;
 import java.time.format.DateTimeFormatter;
@@ -19,6 +21,7 @@ import java.util.Optional;
 import java.util.ResourceBundle;
 
 public class TransactionController implements Initializable {
+    private static final int PRODUCT_COMPLETION_LIMIT = 20;
 
     @FXML
     private ComboBox<TransactionType> cmbTypeFilter;
@@ -30,31 +33,31 @@ public class TransactionController implements Initializable {
     private CheckBox chkShowPendingOnly;
     
     @FXML
-    private TableView<Transaction> tableTransactions;
+    private TableView<TransactionRow> tableTransactions;
     
     @FXML
-    private TableColumn<Transaction, Long> colId;
+    private TableColumn<TransactionRow, Long> colId;
     
     @FXML
-    private TableColumn<Transaction, String> colProductName;
+    private TableColumn<TransactionRow, String> colProductName;
     
     @FXML
-    private TableColumn<Transaction, Long> colQuantity;
+    private TableColumn<TransactionRow, Long> colQuantity;
     
     @FXML
-    private TableColumn<Transaction, String> colType;
+    private TableColumn<TransactionRow, String> colType;
     
     @FXML
-    private TableColumn<Transaction, String> colDescription;
+    private TableColumn<TransactionRow, String> colDescription;
     
     @FXML
-    private TableColumn<Transaction, String> colUser;
+    private TableColumn<TransactionRow, String> colUser;
     
     @FXML
-    private TableColumn<Transaction, String> colTimestamp;
+    private TableColumn<TransactionRow, String> colTimestamp;
     
     @FXML
-    private TableColumn<Transaction, String> colBlockchainStatus;
+    private TableColumn<TransactionRow, String> colBlockchainStatus;
     
     @FXML
     private Button btnAddTransaction;
@@ -67,6 +70,7 @@ public class TransactionController implements Initializable {
 
     private ProductService productService;
     private TransactionService transactionService;
+    private DescriptionColumn<TransactionRow> descriptions;
     private final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
 
     @Override
@@ -82,7 +86,9 @@ public class TransactionController implements Initializable {
         colQuantity.setCellValueFactory(new PropertyValueFactory<>("quantity"));
         colType.setCellValueFactory(cellData -> 
             new javafx.beans.property.SimpleStringProperty(cellData.getValue().getFormattedType()));
-        colDescription.setCellValueFactory(new PropertyValueFactory<>("description"));
+        // Rows come without descriptions; only the displayed ones are loaded
+        descriptions = new DescriptionColumn<>(colDescription, TransactionRow::getId, TransactionRow::getDescription,
+            ids -> transactionService.getDescriptionPreviews(ids));
         colUser.setCellValueFactory(new PropertyValueFactory<>("user"));
         colTimestamp.setCellValueFactory(cellData -> 
             new javafx.beans.property.SimpleStringProperty(
@@ -90,7 +96,7 @@ public class TransactionController implements Initializable {
 
         // Custom cell factory for blockchain status
         colBlockchainStatus.setCellValueFactory(cellData -> {
-            Transaction transaction = cellData.getValue();
+            TransactionRow transaction = cellData.getValue();
             String status;
             if (transaction.isSyncedToBlockchain()) {
                 status = "✅ Synchronisé";
@@ -100,7 +106,7 @@ public class TransactionController implements Initializable {
             return new javafx.beans.property.SimpleStringProperty(status);
         });
 
-        colBlockchainStatus.setCellFactory(column -> new TableCell<Transaction, String>() {
+        colBlockchainStatus.setCellFactory(column -> new TableCell<TransactionRow, String>() {
             @Override
             protected void updateItem(String status, boolean empty) {
                 super.updateItem(status, empty);
@@ -153,7 +159,8 @@ public class TransactionController implements Initializable {
         
         Platform.runLater(() -> {
             try {
-                List<Transaction> transactions = transactionService.getAllTransactions();
+                List<TransactionRow> transactions = transactionService.getAllTransactionRows();
+                descriptions.reset();
                 tableTransactions.getItems().clear();
                 tableTransactions.getItems().addAll(transactions);
                 
@@ -168,12 +175,12 @@ public class TransactionController implements Initializable {
         });
     }
 
-    private void updateUserFilter(List<Transaction> transactions) {
+    private void updateUserFilter(List<TransactionRow> transactions) {
         cmbUserFilter.getItems().clear();
         cmbUserFilter.getItems().add(null); // All users
         
         transactions.stream()
-            .map(Transaction::getUser)
+            .map(TransactionRow::getUser)
             .filter(user -> user != null && !user.trim().isEmpty())
             .distinct()
             .sorted()
@@ -184,8 +191,8 @@ public class TransactionController implements Initializable {
         if (transactionService == null) return;
         
         try {
-            List<Transaction> allTransactions = transactionService.getAllTransactions();
-            List<Transaction> filteredTransactions = allTransactions.stream()
+            List<TransactionRow> allTransactions = transactionService.getAllTransactionRows();
+            List<TransactionRow> filteredTransactions = allTransactions.stream()
                 .filter(transaction -> {
                     // Type filter
                     TransactionType selectedType = cmbTypeFilter.getSelectionModel().getSelectedItem();
@@ -247,7 +254,7 @@ public class TransactionController implements Initializable {
 
     @FXML
     private void verifyTransaction() {
-        Transaction selectedTransaction = tableTransactions.getSelectionModel().getSelectedItem();
+        TransactionRow selectedTransaction = tableTransactions.getSelectionModel().getSelectedItem();
         if (selectedTransaction == null || !selectedTransaction.isSyncedToBlockchain()) {
             return;
         }
@@ -278,7 +285,7 @@ public class TransactionController implements Initializable {
         refreshTransactions();
     }
 
-    private void updateButtonStates(Transaction selectedTransaction) {
+    private void updateButtonStates(TransactionRow selectedTransaction) {
         btnVerifyTransaction.setDisable(selectedTransaction == null || 
             !selectedTransaction.isSyncedToBlockchain());
     }
@@ -297,42 +304,61 @@ public class TransactionController implements Initializable {
         grid.setHgap(10);
         grid.setVgap(10);
 
-        ComboBox<Product> productCombo = new ComboBox<>();
+        ComboBox<StockLevel> productCombo = new ComboBox<>();
         ComboBox<TransactionType> typeCombo = new ComboBox<>();
         TextField quantityField = new TextField();
         TextField descriptionField = new TextField();
         TextField userField = new TextField();
 
-        // Load products
-        try {
-            List<Product> activeProducts = productService.getActiveProducts();
-            productCombo.getItems().addAll(activeProducts);
-            productCombo.setCellFactory(listView -> new ListCell<Product>() {
-                @Override
-                protected void updateItem(Product product, boolean empty) {
-                    super.updateItem(product, empty);
-                    if (empty || product == null) {
-                        setText(null);
-                    } else {
-                        setText(product.getName() + " (Stock: " + product.getCurrentStock() + ")");
+        // Products are suggested from the typed prefix, most used first, from memory
+        productCombo.setEditable(true);
+        productCombo.setConverter(new StringConverter<StockLevel>() {
+            @Override
+            public String toString(StockLevel product) {
+                return product != null ? product.getProductName() : "";
+            }
+
+            @Override
+            public StockLevel fromString(String text) {
+                for (StockLevel product : productCombo.getItems()) {
+                    if (text != null && product.getProductName().equalsIgnoreCase(text.trim())) {
+                        return product;
                     }
                 }
-            });
-            productCombo.setButtonCell(new ListCell<Product>() {
-                @Override
-                protected void updateItem(Product product, boolean empty) {
-                    super.updateItem(product, empty);
-                    if (empty || product == null) {
-                        setText(null);
-                    } else {
-                        setText(product.getName() + " (Stock: " + product.getCurrentStock() + ")");
-                    }
+                return null;
+            }
+        });
+        productCombo.setCellFactory(listView -> new ListCell<StockLevel>() {
+            @Override
+            protected void updateItem(StockLevel product, boolean empty) {
+                super.updateItem(product, empty);
+                if (empty || product == null) {
+                    setText(null);
+                } else {
+                    setText(product.getProductName() + " (Stock: " + product.getCurrentStock() + ")");
                 }
-            });
+            }
+        });
+        try {
+            productCombo.getItems().setAll(productService.completeActiveProducts("", PRODUCT_COMPLETION_LIMIT));
         } catch (Exception e) {
             showError("Erreur lors du chargement des produits", e);
             return;
         }
+        productCombo.getEditor().textProperty().addListener((obs, oldValue, newValue) -> {
+            StockLevel selected = productCombo.getValue();
+            if (selected != null && selected.getProductName().equals(newValue)) {
+                return;
+            }
+            try {
+                productCombo.getItems().setAll(productService.completeActiveProducts(newValue, PRODUCT_COMPLETION_LIMIT));
+                if (productCombo.getEditor().isFocused() && !productCombo.getItems().isEmpty()) {
+                    productCombo.show();
+                }
+            } catch (Exception e) {
+                showError("Erreur lors de la recherche des produits", e);
+            }
+        });
 
         typeCombo.getItems().addAll(TransactionType.values());
         userField.setText(System.getProperty("user.name"));
@@ -353,7 +379,7 @@ public class TransactionController implements Initializable {
         dialog.setResultConverter(dialogButton -> {
             if (dialogButton == saveButtonType) {
                 try {
-                    Product selectedProduct = productCombo.getSelectionModel().getSelectedItem();
+                    StockLevel selectedProduct = productCombo.getConverter().fromString(productCombo.getEditor().getText());
                     TransactionType selectedType = typeCombo.getSelectionModel().getSelectedItem();
                     Long quantity = Long.parseLong(quantityField.getText().trim());
                     String description = descriptionField.getText().trim();
@@ -376,7 +402,7 @@ public class TransactionController implements Initializable {
                         return null;
                     }
 
-                    return new Transaction(selectedProduct.getId(), quantity, selectedType, description, user);
+                    return new Transaction(selectedProduct.getProductId(), quantity, selectedType, description, user);
                 } catch (NumberFormatException e) {
                     showError("Format de quantité invalide", e);
                     return null;
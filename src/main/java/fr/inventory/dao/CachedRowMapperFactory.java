@@ -0,0 +1,64 @@
+package fr.inventory.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@link RowMapperFactory} that keeps the mapper bound for each SQL statement.
+ * Bound mappers only hold column indexes, so one instance can serve any number of result sets.
+ * Statements built with IN lists differ by their number of placeholders, so the mappers are
+ * kept in a bounded LRU map; an evicted statement is simply bound again.
+ */
+final class CachedRowMapperFactory<T> implements RowMapperFactory<T> {
+    static final int DEFAULT_MAX_STATEMENTS = 256;
+
+    private final RowMapperFactory<T> factory;
+    private final int maxStatements;
+    private final LinkedHashMap<String, RowMapper<T>> bySql = new LinkedHashMap<>(16, 0.75f, true);
+
+    CachedRowMapperFactory(RowMapperFactory<T> factory) {
+        this(factory, DEFAULT_MAX_STATEMENTS);
+    }
+
+    CachedRowMapperFactory(RowMapperFactory<T> factory, int maxStatements) {
+        if (maxStatements <= 0) {
+            throw new IllegalArgumentException("maxStatements must be positive");
+        }
+        this.factory = factory;
+        this.maxStatements = maxStatements;
+    }
+
+    @Override
+    public RowMapper<T> create(ColumnIndex columns) throws SQLException {
+        return factory.create(columns);
+    }
+
+    @Override
+    public RowMapper<T> bind(String sql, ResultSet rs) throws SQLException {
+        synchronized (bySql) {
+            RowMapper<T> mapper = bySql.get(sql);
+            if (mapper != null) {
+                return mapper;
+            }
+        }
+
+        // Bound outside the lock; a concurrent binding of the same statement is equivalent
+        RowMapper<T> mapper = bind(rs);
+        synchronized (bySql) {
+            bySql.put(sql, mapper);
+            if (bySql.size() > maxStatements) {
+                Map.Entry<String, RowMapper<T>> eldest = bySql.entrySet().iterator().next();
+                bySql.remove(eldest.getKey());
+            }
+        }
+        return mapper;
+    }
+
+    int size() {
+        synchronized (bySql) {
+            return bySql.size();
+        }
+    }
+}
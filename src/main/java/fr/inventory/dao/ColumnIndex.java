@@ -0,0 +1,43 @@
+package fr.inventory.dao;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Column label to index lookup for one result set, built once from its metadata.
+ * Labels are matched case-insensitively, as JDBC drivers differ in the case they report.
+ */
+public final class ColumnIndex {
+    private final Map<String, Integer> indexes;
+
+    private ColumnIndex(Map<String, Integer> indexes) {
+        this.indexes = indexes;
+    }
+
+    public static ColumnIndex of(ResultSet rs) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        int count = metaData.getColumnCount();
+        Map<String, Integer> indexes = new HashMap<>(count * 2);
+        for (int i = 1; i <= count; i++) {
+            // First occurrence wins, like ResultSet.findColumn
+            indexes.putIfAbsent(metaData.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+        }
+        return new ColumnIndex(indexes);
+    }
+
+    /**
+     * @return the 1-based index of the column
+     * @throws SQLException if the result set has no such column
+     */
+    public int require(String label) throws SQLException {
+        Integer index = indexes.get(label.toLowerCase(Locale.ROOT));
+        if (index == null) {
+            throw new SQLException("Column not found in result set: " + label);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,56 @@
+package fr.inventory.dao;
+
+import fr.inventory.utils.DatabaseUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads truncated descriptions for a handful of rows.
+ * Row projections leave the TEXT description out, since reading it (even through SUBSTRING)
+ * fetches the off-page value of every row listed; views ask for the rows they display instead.
+ */
+final class DescriptionPreviews {
+
+    private DescriptionPreviews() {
+    }
+
+    /**
+     * @param table products or transactions
+     * @return description preview by ID; IDs of deleted rows are absent, empty descriptions map to null
+     */
+    static Map<Long, String> load(String table, List<Long> ids, int length) {
+        Map<Long, String> previews = new HashMap<>(ids.size() * 2);
+        if (ids.isEmpty()) {
+            return previews;
+        }
+
+        try (Connection conn = DatabaseUtils.getConnection()) {
+            for (int start = 0; start < ids.size(); start += ProductDAOImpl.MAX_IN_LIST_SIZE) {
+                List<Long> chunk = ids.subList(start, Math.min(start + ProductDAOImpl.MAX_IN_LIST_SIZE, ids.size()));
+                String sql = "SELECT id, SUBSTRING(description, 1, " + length + ") FROM " + table + " WHERE id IN ("
+                        + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        stmt.setLong(i + 1, chunk.get(i));
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            previews.put(rs.getLong(1), rs.getString(2));
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error loading " + table + " descriptions: " + e.getMessage(), e);
+        }
+        return previews;
+    }
+}
@@ -0,0 +1,325 @@
+package fr.inventory.dao;
+
+import fr.inventory.utils.DatabaseUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-memory view of which active products are at or below their minimum stock.
+ * Active products are kept ordered by stock minus minimum, so the low-stock ones are the head
+ * of that order and are listed and counted without querying the table.
+ * {@link ProductDAOImpl} reports every committed change of stock, minimum, name or active
+ * flag with the values it wrote; a stock change keeps the tracked minimum. Each change carries
+ * a ticket from {@link #nextSequence()}, taken while the write still holds the row lock, so the
+ * tickets of one product follow its commit order and a change reported after a later one is
+ * ignored. {@link #resync()} re-reads every product, for rows written by other tools.
+ * Listeners are told when a product enters or leaves the low-stock set, or changes while
+ * staying in it; they run on the committing thread, after the monitor is updated.
+ * The products are loaded on first use. Changes reported before that are simply dropped:
+ * the load reads them from the table.
+ */
+public class LowStockMonitor {
+    private static final Logger logger = LoggerFactory.getLogger(LowStockMonitor.class);
+    private static final String SELECT_SQL = "SELECT id, name, current_stock, min_stock, is_active FROM products";
+
+    private static final Comparator<StockLevel> BY_MARGIN = Comparator.comparingLong(StockLevel::getMargin)
+            .thenComparing(StockLevel::getProductName, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(StockLevel::getProductId);
+
+    private static final LowStockMonitor shared = new LowStockMonitor();
+
+    /**
+     * How a change moved a product relative to the low-stock set
+     */
+    public enum Crossing {
+        /** The product dropped to or below its minimum */
+        ENTERED,
+        /** The product went back above its minimum, was deactivated or deleted */
+        LEFT,
+        /** The product stays low, its stock, minimum or name changed */
+        CHANGED
+    }
+
+    @FunctionalInterface
+    public interface Listener {
+        void onLowStock(Crossing crossing, StockLevel level);
+    }
+
+    private final Map<Long, Tracked> byId = new HashMap<>();
+    private final TreeSet<StockLevel> activeByMargin = new TreeSet<>(BY_MARGIN);
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private int lowCount = 0;
+    private boolean loaded = false;
+
+    /**
+     * Monitor shared by the DAOs of this application.
+     */
+    public static LowStockMonitor shared() {
+        return shared;
+    }
+
+    /**
+     * Active products at or below their minimum stock, most urgent (lowest margin) first
+     */
+    public synchronized List<StockLevel> lowStock() {
+        ensureLoaded();
+        List<StockLevel> levels = new ArrayList<>(lowCount);
+        for (StockLevel level : activeByMargin) {
+            if (!level.isLow()) {
+                break;
+            }
+            levels.add(level);
+        }
+        return levels;
+    }
+
+    public List<Long> lowStockIds() {
+        List<Long> ids = new ArrayList<>();
+        for (StockLevel level : lowStock()) {
+            ids.add(level.getProductId());
+        }
+        return ids;
+    }
+
+    /**
+     * Stock levels of the given products from memory, in the given order.
+     * Unknown products (deleted, or created by another application) are skipped.
+     */
+    public synchronized List<StockLevel> levels(List<Long> productIds) {
+        ensureLoaded();
+        List<StockLevel> levels = new ArrayList<>(productIds.size());
+        for (Long productId : productIds) {
+            Tracked tracked = byId.get(productId);
+            if (tracked != null) {
+                levels.add(tracked.level);
+            }
+        }
+        return levels;
+    }
+
+    public synchronized long lowStockCount() {
+        ensureLoaded();
+        return lowCount;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Load the products if that has not been done yet.
+     */
+    public synchronized void ensureLoaded() {
+        if (!loaded) {
+            for (Tracked tracked : read(0).values()) {
+                track(tracked);
+            }
+            loaded = true;
+        }
+    }
+
+    /**
+     * Re-read every product and correct the ones that drifted.
+     * A write committing while the products are read may be undone until its product's next
+     * change or the next resync.
+     * @return number of products corrected
+     */
+    public int resync() {
+        if (!isLoaded()) {
+            ensureLoaded();
+            return 0;
+        }
+        long ticket = nextSequence();
+        Map<Long, Tracked> rows = read(ticket);
+        Set<Long> productIds = new HashSet<>(rows.keySet());
+        synchronized (this) {
+            productIds.addAll(byId.keySet());
+        }
+        int corrected = 0;
+        for (Long productId : productIds) {
+            Tracked row = rows.get(productId);
+            if (apply(productId, ticket, current -> row)) {
+                corrected++;
+            }
+        }
+        return corrected;
+    }
+
+    /**
+     * Ticket ordering the changes of a product. Take it after the write's statement and
+     * before its commit, while the row is locked.
+     */
+    long nextSequence() {
+        return sequence.incrementAndGet();
+    }
+
+    void put(Long productId, String name, long currentStock, long minStock, boolean active, long ticket) {
+        if (productId != null) {
+            apply(productId, ticket, current -> new Tracked(new StockLevel(productId, name, currentStock, minStock), active, ticket));
+        }
+    }
+
+    void updateStock(Long productId, long currentStock, long ticket) {
+        apply(productId, ticket, current -> current == null ? null : new Tracked(new StockLevel(productId,
+                current.level.getProductName(), currentStock, current.level.getMinStock()), current.active, ticket));
+    }
+
+    void setActive(Long productId, boolean active, long ticket) {
+        apply(productId, ticket, current -> current == null ? null : new Tracked(current.level, active, ticket));
+    }
+
+    void setActive(Collection<Long> productIds, boolean active, long ticket) {
+        for (Long productId : productIds) {
+            setActive(productId, active, ticket);
+        }
+    }
+
+    void remove(Long productId, long ticket) {
+        apply(productId, ticket, current -> null);
+    }
+
+    private synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Replace the tracked state of a product and notify the listeners of any crossing.
+     * Ignored until the monitor is loaded, when the product's last applied change has a later
+     * ticket, and for stock and flag changes of unknown products.
+     * @return true if the tracked stock, minimum, name or flag changed
+     */
+    private boolean apply(Long productId, long ticket, UnaryOperator<Tracked> change) {
+        Crossing crossing;
+        StockLevel level;
+        synchronized (this) {
+            if (!loaded || productId == null) {
+                return false;
+            }
+            Tracked previous = byId.get(productId);
+            if (previous != null && ticket < previous.ticket) {
+                return false;
+            }
+            Tracked next = change.apply(previous);
+            if (previous == null && next == null) {
+                return false;
+            }
+            untrack(previous);
+            track(next);
+            if (previous != null && previous.sameAs(next)) {
+                return false;
+            }
+
+            boolean wasLow = previous != null && previous.isLow();
+            boolean isLow = next != null && next.isLow();
+            if (!wasLow && isLow) {
+                crossing = Crossing.ENTERED;
+                level = next.level;
+            } else if (wasLow && !isLow) {
+                crossing = Crossing.LEFT;
+                level = next != null ? next.level : previous.level;
+            } else if (wasLow) {
+                crossing = Crossing.CHANGED;
+                level = next.level;
+            } else {
+                return true;
+            }
+        }
+        notifyListeners(crossing, level);
+        return true;
+    }
+
+    private void track(Tracked tracked) {
+        if (tracked == null) {
+            return;
+        }
+        byId.put(tracked.level.getProductId(), tracked);
+        if (tracked.active) {
+            activeByMargin.add(tracked.level);
+        }
+        if (tracked.isLow()) {
+            lowCount++;
+        }
+    }
+
+    private void untrack(Tracked tracked) {
+        if (tracked == null) {
+            return;
+        }
+        byId.remove(tracked.level.getProductId());
+        if (tracked.active) {
+            activeByMargin.remove(tracked.level);
+        }
+        if (tracked.isLow()) {
+            lowCount--;
+        }
+    }
+
+    private void notifyListeners(Crossing crossing, StockLevel level) {
+        for (Listener listener : listeners) {
+            try {
+                listener.onLowStock(crossing, level);
+            } catch (RuntimeException e) {
+                logger.warn("Low stock listener failed on {} of product {}", crossing, level.getProductId(), e);
+            }
+        }
+    }
+
+    private Map<Long, Tracked> read(long ticket) {
+        Map<Long, Tracked> rows = new HashMap<>();
+
+        try (Connection conn = DatabaseUtils.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_SQL);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                long id = rs.getLong(1);
+                rows.put(id, new Tracked(new StockLevel(id, rs.getString(2), rs.getLong(3), rs.getLong(4)),
+                        rs.getBoolean(5), ticket));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error loading product stock levels: " + e.getMessage(), e);
+        }
+        return rows;
+    }
+
+    private static final class Tracked {
+        private final StockLevel level;
+        private final boolean active;
+        private final long ticket;
+
+        private Tracked(StockLevel level, boolean active, long ticket) {
+            this.level = level;
+            this.active = active;
+            this.ticket = ticket;
+        }
+
+        private boolean isLow() {
+            return active && level.isLow();
+        }
+
+        private boolean sameAs(Tracked other) {
+            return other != null && active == other.active && level.sameAs(other.level);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package fr.inventory.dao;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Position in a list ordered by timestamp DESC, id DESC.
+ * The next page starts strictly after the row identified by (timestamp, id).
+ */
+public final class PageCursor {
+    private final LocalDateTime timestamp;
+    private final Long id;
+
+    public PageCursor(LocalDateTime timestamp, Long id) {
+        this.timestamp = Objects.requireNonNull(timestamp, "timestamp");
+        this.id = Objects.requireNonNull(id, "id");
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PageCursor{timestamp=%s, id=%d}", timestamp, id);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PageCursor that = (PageCursor) o;
+        return timestamp.equals(that.timestamp) && id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(timestamp, id);
+    }
+}
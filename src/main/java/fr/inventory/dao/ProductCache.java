@@ -0,0 +1,431 @@
+package fr.inventory.dao;
+
+import fr.inventory.model.Product;
+import fr.inventory.model.ProductRow;
+import fr.inventory.utils.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache in front of a {@link ProductDAO}.
+ * Products read by ID (and rows returned by list queries) are kept in a bounded LRU map
+ * for a limited time; every write invalidates the affected IDs, once immediately and
+ * again after the surrounding unit of work commits. Reads made inside a unit of work go
+ * straight to the delegate and are not kept, so they see that unit's own uncommitted writes
+ * and never cache them. Callers receive copies, so mutating a returned product never alters
+ * the cached one.
+ * Size and TTL can be overridden with {@code -Dinventory.cache.product.maxSize} and
+ * {@code -Dinventory.cache.product.ttlMillis}.
+ */
+public class ProductCache implements ProductDAO {
+    private static final int DEFAULT_MAX_SIZE = 1_000;
+    private static final long DEFAULT_TTL_MILLIS = 300_000;
+
+    private static volatile ProductCache shared;
+
+    private final ProductDAO delegate;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Bumped on every invalidation; a load only populates the cache if no write raced with it
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong totalLoadNanos = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ProductCache(ProductDAO delegate) {
+        this(delegate,
+             Integer.getInteger("inventory.cache.product.maxSize", DEFAULT_MAX_SIZE),
+             Long.getLong("inventory.cache.product.ttlMillis", DEFAULT_TTL_MILLIS));
+    }
+
+    public ProductCache(ProductDAO delegate, int maxSize, long ttlMillis) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache maxSize must be positive");
+        }
+        if (ttlMillis <= 0) {
+            throw new IllegalArgumentException("Cache ttlMillis must be positive");
+        }
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    /**
+     * Cache over {@link ProductDAOImpl} shared by the services, so that a write made
+     * through one service invalidates the entries read by the others.
+     */
+    public static ProductCache shared() {
+        ProductCache cache = shared;
+        if (cache == null) {
+            synchronized (ProductCache.class) {
+                cache = shared;
+                if (cache == null) {
+                    cache = new ProductCache(new ProductDAOImpl());
+                    shared = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    @Override
+    public Product create(Product product) {
+        return delegate.create(product);
+    }
+
+    @Override
+    public Optional<Product> findById(Long id) {
+        if (id == null || TransactionTemplate.isActive()) {
+            return delegate.findById(id);
+        }
+
+        Product cached = lookup(id);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return Optional.of(copyOf(cached));
+        }
+        misses.incrementAndGet();
+
+        long startGeneration = generation.get();
+        long start = System.nanoTime();
+        Optional<Product> product = delegate.findById(id);
+        loads.incrementAndGet();
+        totalLoadNanos.addAndGet(System.nanoTime() - start);
+
+        product.ifPresent(p -> store(p, startGeneration));
+        return product.map(ProductCache::copyOf);
+    }
+
+    @Override
+    public List<Product> findAll() {
+        return storeAll(delegate::findAll);
+    }
+
+    @Override
+    public List<Product> findAllActive() {
+        return storeAll(delegate::findAllActive);
+    }
+
+    @Override
+    public List<Product> findLowStockProducts() {
+        return storeAll(delegate::findLowStockProducts);
+    }
+
+    @Override
+    public List<Product> findByNameContaining(String name) {
+        return storeAll(() -> delegate.findByNameContaining(name));
+    }
+
+    @Override
+    public List<ProductRow> findAllRows() {
+        return delegate.findAllRows();
+    }
+
+    @Override
+    public List<ProductRow> findActiveRows() {
+        return delegate.findActiveRows();
+    }
+
+    @Override
+    public List<ProductRow> findLowStockRows() {
+        return delegate.findLowStockRows();
+    }
+
+    @Override
+    public List<ProductRow> findRowsByNameContaining(String name) {
+        return delegate.findRowsByNameContaining(name);
+    }
+
+    @Override
+    public List<ProductRow> findRowsByIds(List<Long> ids) {
+        return delegate.findRowsByIds(ids);
+    }
+
+    @Override
+    public Map<Long, String> findDescriptionPreviews(List<Long> ids) {
+        return delegate.findDescriptionPreviews(ids);
+    }
+
+    @Override
+    public Product update(Product product) {
+        invalidate(product.getId());
+        Product updated = delegate.update(product);
+        invalidateAfterCommit(product.getId());
+        return updated;
+    }
+
+    @Override
+    public boolean updateStock(Long productId, Long newStock) {
+        invalidate(productId);
+        boolean updated = delegate.updateStock(productId, newStock);
+        invalidateAfterCommit(productId);
+        return updated;
+    }
+
+    @Override
+    public Optional<Long> adjustStock(Long productId, long delta) {
+        invalidate(productId);
+        Optional<Long> newStock = delegate.adjustStock(productId, delta);
+        invalidateAfterCommit(productId);
+        return newStock;
+    }
+
+    @Override
+    public int updateStocks(Map<Long, Long> newStockByProduct) {
+        invalidateAll(newStockByProduct.keySet());
+        int updated = delegate.updateStocks(newStockByProduct);
+        invalidateAfterCommit(newStockByProduct.keySet());
+        return updated;
+    }
+
+    @Override
+    public int updatePrices(Map<Long, BigDecimal> newPriceByProduct) {
+        invalidateAll(newPriceByProduct.keySet());
+        int updated = delegate.updatePrices(newPriceByProduct);
+        invalidateAfterCommit(newPriceByProduct.keySet());
+        return updated;
+    }
+
+    @Override
+    public boolean deactivate(Long id) {
+        invalidate(id);
+        boolean deactivated = delegate.deactivate(id);
+        invalidateAfterCommit(id);
+        return deactivated;
+    }
+
+    @Override
+    public boolean activate(Long id) {
+        invalidate(id);
+        boolean activated = delegate.activate(id);
+        invalidateAfterCommit(id);
+        return activated;
+    }
+
+    @Override
+    public int deactivateAll(Collection<Long> ids) {
+        invalidateAll(ids);
+        int deactivated = delegate.deactivateAll(ids);
+        invalidateAfterCommit(ids);
+        return deactivated;
+    }
+
+    @Override
+    public int activateAll(Collection<Long> ids) {
+        invalidateAll(ids);
+        int activated = delegate.activateAll(ids);
+        invalidateAfterCommit(ids);
+        return activated;
+    }
+
+    @Override
+    public boolean delete(Long id) {
+        invalidate(id);
+        boolean deleted = delegate.delete(id);
+        invalidateAfterCommit(id);
+        return deleted;
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    @Override
+    public long countActive() {
+        return delegate.countActive();
+    }
+
+    @Override
+    public ProductCounts getCounts() {
+        return delegate.getCounts();
+    }
+
+    /**
+     * Drop a product from the cache
+     * @param id the product ID
+     */
+    public void invalidate(Long id) {
+        generation.incrementAndGet();
+        if (id == null) {
+            return;
+        }
+        synchronized (entries) {
+            if (entries.remove(id) != null) {
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Drop every cached product
+     */
+    public void clear() {
+        generation.incrementAndGet();
+        synchronized (entries) {
+            invalidations.addAndGet(entries.size());
+            entries.clear();
+        }
+    }
+
+    public CacheStats getStats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new CacheStats(size, maxSize, hits.get(), misses.get(), loads.get(), totalLoadNanos.get(),
+                              evictions.get(), expirations.get(), invalidations.get());
+    }
+
+    private Product lookup(Long id) {
+        synchronized (entries) {
+            Entry entry = entries.get(id);
+            if (entry == null) {
+                return null;
+            }
+            if (System.nanoTime() - entry.loadedAt > ttlNanos) {
+                entries.remove(id);
+                expirations.incrementAndGet();
+                return null;
+            }
+            return entry.product;
+        }
+    }
+
+    private void store(Product product, long startGeneration) {
+        if (product.getId() == null) {
+            return;
+        }
+        Product copy = copyOf(product);
+        synchronized (entries) {
+            // Checked under the lock: invalidate() bumps the generation before taking it
+            if (generation.get() != startGeneration) {
+                return;
+            }
+            entries.put(copy.getId(), new Entry(copy, System.nanoTime()));
+            while (entries.size() > maxSize) {
+                Long eldest = entries.keySet().iterator().next();
+                entries.remove(eldest);
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private List<Product> storeAll(Supplier<List<Product>> query) {
+        if (TransactionTemplate.isActive()) {
+            return query.get();
+        }
+        long startGeneration = generation.get();
+        List<Product> products = query.get();
+        for (Product product : products) {
+            store(product, startGeneration);
+        }
+        return products;
+    }
+
+    private void invalidateAll(Collection<Long> ids) {
+        generation.incrementAndGet();
+        synchronized (entries) {
+            for (Long id : ids) {
+                if (entries.remove(id) != null) {
+                    invalidations.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * Invalidate again once the write is visible to other connections; a reader that
+     * loaded the old row while the unit of work was still open must not keep it.
+     */
+    private void invalidateAfterCommit(Long id) {
+        TransactionTemplate.afterCommit(() -> invalidate(id));
+    }
+
+    private void invalidateAfterCommit(Collection<Long> ids) {
+        List<Long> snapshot = new ArrayList<>(ids);
+        TransactionTemplate.afterCommit(() -> invalidateAll(snapshot));
+    }
+
+    private static Product copyOf(Product product) {
+        return new Product(product.getId(), product.getName(), product.getDescription(),
+                           product.getCurrentStock(), product.getMinStock(), product.getPrice(),
+                           product.isActive(), product.getCreatedAt(), product.getUpdatedAt());
+    }
+
+    private static final class Entry {
+        private final Product product;
+        private final long loadedAt;
+
+        private Entry(Product product, long loadedAt) {
+            this.product = product;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    public static class CacheStats {
+        private final int size;
+        private final int maxSize;
+        private final long hits;
+        private final long misses;
+        private final long loads;
+        private final long totalLoadNanos;
+        private final long evictions;
+        private final long expirations;
+        private final long invalidations;
+
+        public CacheStats(int size, int maxSize, long hits, long misses, long loads, long totalLoadNanos,
+                          long evictions, long expirations, long invalidations) {
+            this.size = size;
+            this.maxSize = maxSize;
+            this.hits = hits;
+            this.misses = misses;
+            this.loads = loads;
+            this.totalLoadNanos = totalLoadNanos;
+            this.evictions = evictions;
+            this.expirations = expirations;
+            this.invalidations = invalidations;
+        }
+
+        public int getSize() { return size; }
+        public int getMaxSize() { return maxSize; }
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getLoads() { return loads; }
+        public long getTotalLoadNanos() { return totalLoadNanos; }
+        public long getEvictions() { return evictions; }
+        public long getExpirations() { return expirations; }
+        public long getInvalidations() { return invalidations; }
+
+        public double getHitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : hits / (double) lookups;
+        }
+
+        public double getAverageLoadMillis() {
+            return loads == 0 ? 0 : totalLoadNanos / (double) loads / 1_000_000;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("CacheStats{size=%d/%d, hitRate=%.1f%%, avgLoad=%.2fms, evictions=%d, expirations=%d, invalidations=%d}",
+                    size, maxSize, getHitRate() * 100, getAverageLoadMillis(), evictions, expirations, invalidations);
+        }
+    }
+}
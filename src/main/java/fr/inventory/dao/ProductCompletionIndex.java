@@ -0,0 +1,295 @@
+package fr.inventory.dao;
+
+import fr.inventory.utils.DatabaseUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Prefix completion over active product names, ranked by how often each product was used
+ * in recent transactions.
+ * Names are kept in a sorted array searched by binary search; writers replace the array
+ * (copy-on-write), so readers never lock. Usage counts cover the transactions of the
+ * last {@code inventory.autocomplete.windowDays} days (default 30): they are kept per day,
+ * and days that fall out of the window are subtracted and dropped.
+ * The data is loaded on first use; {@link ProductDAOImpl} and {@link TransactionDAOImpl}
+ * keep it coherent after commit.
+ */
+public class ProductCompletionIndex {
+    private static final int DEFAULT_WINDOW_DAYS = 30;
+
+    private static final Comparator<Entry> BY_NAME =
+            Comparator.comparing((Entry entry) -> entry.key).thenComparing(entry -> entry.productId);
+
+    private static final ProductCompletionIndex shared = new ProductCompletionIndex();
+
+    private final int windowDays;
+    private final Map<Long, Entry> byId = new ConcurrentHashMap<>();
+    private final Set<Long> inactive = ConcurrentHashMap.newKeySet();
+    // Totals over the window, read without locking; the per-day counts are guarded by usageByDay
+    private final Map<Long, Long> usage = new ConcurrentHashMap<>();
+    private final TreeMap<LocalDate, Map<Long, Long>> usageByDay = new TreeMap<>();
+    private volatile Entry[] sorted = new Entry[0];
+    private volatile boolean loaded = false;
+
+    ProductCompletionIndex() {
+        this(Integer.getInteger("inventory.autocomplete.windowDays", DEFAULT_WINDOW_DAYS));
+    }
+
+    ProductCompletionIndex(int windowDays) {
+        this.windowDays = windowDays;
+    }
+
+    /**
+     * Index shared by the DAOs of this application.
+     */
+    public static ProductCompletionIndex shared() {
+        return shared;
+    }
+
+    /**
+     * Active products whose name starts with the prefix, ignoring case
+     * @param prefix the typed text; empty for the most used products overall
+     * @param limit maximum number of products returned
+     * @return product IDs, most used first, then by name
+     */
+    public List<Long> complete(String prefix, int limit) {
+        ensureLoaded();
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        expireUsage(LocalDate.now());
+        String key = normalize(prefix);
+        Entry[] entries = sorted;
+        int from = lowerBound(entries, key);
+
+        Comparator<Entry> rank = Comparator.comparingLong((Entry entry) -> usageOf(entry.productId))
+                .thenComparing(BY_NAME.reversed());
+        PriorityQueue<Entry> best = new PriorityQueue<>(limit + 1, rank);
+        for (int i = from; i < entries.length && entries[i].key.startsWith(key); i++) {
+            Entry entry = entries[i];
+            if (inactive.contains(entry.productId)) {
+                continue;
+            }
+            best.add(entry);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+
+        Entry[] ranked = best.toArray(new Entry[0]);
+        Arrays.sort(ranked, rank.reversed());
+        List<Long> ids = new ArrayList<>(ranked.length);
+        for (Entry entry : ranked) {
+            ids.add(entry.productId);
+        }
+        return ids;
+    }
+
+    /**
+     * Load names and usage counts if that has not been done yet.
+     */
+    public void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                load();
+                loaded = true;
+            }
+        }
+    }
+
+    synchronized void put(Long productId, String name, boolean active) {
+        if (productId == null || name == null) {
+            return;
+        }
+        setActive(productId, active);
+        Entry entry = new Entry(normalize(name), productId);
+        Entry previous = byId.put(productId, entry);
+        if (previous != null && previous.key.equals(entry.key)) {
+            return;
+        }
+
+        List<Entry> entries = new ArrayList<>(Arrays.asList(sorted));
+        if (previous != null) {
+            entries.remove(previous);
+        }
+        int index = Collections.binarySearch(entries, entry, BY_NAME);
+        entries.add(index < 0 ? -index - 1 : index, entry);
+        sorted = entries.toArray(new Entry[0]);
+    }
+
+    synchronized void remove(Long productId) {
+        if (productId == null) {
+            return;
+        }
+        inactive.remove(productId);
+        synchronized (usageByDay) {
+            usage.remove(productId);
+            for (Map<Long, Long> day : usageByDay.values()) {
+                day.remove(productId);
+            }
+        }
+        Entry previous = byId.remove(productId);
+        if (previous != null) {
+            List<Entry> entries = new ArrayList<>(Arrays.asList(sorted));
+            entries.remove(previous);
+            sorted = entries.toArray(new Entry[0]);
+        }
+    }
+
+    void setActive(Long productId, boolean active) {
+        if (active) {
+            inactive.remove(productId);
+        } else {
+            inactive.add(productId);
+        }
+    }
+
+    void setActive(Collection<Long> productIds, boolean active) {
+        for (Long productId : productIds) {
+            setActive(productId, active);
+        }
+    }
+
+    /**
+     * Count one more transaction for a product, today.
+     * Ignored until the index is loaded: the load counts the transaction from the table.
+     */
+    void recordUse(Long productId) {
+        if (productId != null && loaded) {
+            recordUse(productId, LocalDate.now(), 1);
+        }
+    }
+
+    private void recordUse(Long productId, LocalDate day, long count) {
+        synchronized (usageByDay) {
+            expireUsage(LocalDate.now());
+            if (day.isBefore(windowStart(LocalDate.now()))) {
+                return;
+            }
+            usageByDay.computeIfAbsent(day, key -> new HashMap<>()).merge(productId, count, Long::sum);
+            usage.merge(productId, count, Long::sum);
+        }
+    }
+
+    /**
+     * Subtract and drop the days that are no longer in the window
+     */
+    private void expireUsage(LocalDate today) {
+        LocalDate start = windowStart(today);
+        synchronized (usageByDay) {
+            while (!usageByDay.isEmpty() && usageByDay.firstKey().isBefore(start)) {
+                for (Map.Entry<Long, Long> expired : usageByDay.pollFirstEntry().getValue().entrySet()) {
+                    usage.computeIfPresent(expired.getKey(), (id, total) -> {
+                        long remaining = total - expired.getValue();
+                        return remaining > 0 ? remaining : null;
+                    });
+                }
+            }
+        }
+    }
+
+    /**
+     * First day counted: today and the windowDays days before it
+     */
+    private LocalDate windowStart(LocalDate today) {
+        return today.minusDays(windowDays);
+    }
+
+    private long usageOf(Long productId) {
+        return usage.getOrDefault(productId, 0L);
+    }
+
+    private void load() {
+        String productsSql = "SELECT id, name, is_active FROM products";
+        String usageSql = "SELECT product_id, CAST(timestamp AS DATE), COUNT(*) FROM transactions "
+                + "WHERE timestamp >= ? GROUP BY product_id, CAST(timestamp AS DATE)";
+
+        try (Connection conn = DatabaseUtils.getConnection()) {
+            List<Entry> entries = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement(productsSql);
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    long id = rs.getLong(1);
+                    // A product written by a concurrent create or rename wins over the loaded one
+                    if (!byId.containsKey(id)) {
+                        Entry entry = new Entry(normalize(rs.getString(2)), id);
+                        byId.put(id, entry);
+                        entries.add(entry);
+                        if (!rs.getBoolean(3)) {
+                            inactive.add(id);
+                        }
+                    }
+                }
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(usageSql)) {
+                stmt.setTimestamp(1, Timestamp.valueOf(windowStart(LocalDate.now()).atStartOfDay()));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        recordUse(rs.getLong(1), rs.getDate(2).toLocalDate(), rs.getLong(3));
+                    }
+                }
+            }
+
+            // Runs under the index lock (see ensureLoaded), so no put or remove interleaves here
+            entries.addAll(Arrays.asList(sorted));
+            entries.sort(BY_NAME);
+            sorted = entries.toArray(new Entry[0]);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error loading product completions: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Index of the first entry whose name is not below the key
+     */
+    private static int lowerBound(Entry[] entries, String key) {
+        int low = 0;
+        int high = entries.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (entries[mid].key.compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Entry {
+        private final String key;
+        private final long productId;
+
+        private Entry(String key, long productId) {
+            this.key = key;
+            this.productId = productId;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package fr.inventory.dao;
+
+/**
+ * Product totals from the stats counters and low-stock count from the {@link LowStockMonitor}.
+ */
+public final class ProductCounts {
+    private final long total;
+    private final long active;
+    private final long lowStock;
+
+    public ProductCounts(long total, long active, long lowStock) {
+        this.total = total;
+        this.active = active;
+        this.lowStock = lowStock;
+    }
+
+    public long getTotal() { return total; }
+    public long getActive() { return active; }
+    public long getLowStock() { return lowStock; }
+}
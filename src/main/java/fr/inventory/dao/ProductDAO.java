@@ -1,7 +1,11 @@
 package fr.inventory.dao;
 
 import fr.inventory.model.Product;
+import fr.inventory.model.ProductRow;
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface ProductDAO {
@@ -34,17 +38,56 @@ public interface ProductDAO {
     
     /**
      * Find products with low stock
-     * @return list of products with stock at or below minimum
+     * @return list of active products with stock at or below minimum, furthest below first
      */
     List<Product> findLowStockProducts();
     
     /**
      * Search products by name
      * @param name the name to search for
-     * @return list of matching products
+     * @return list of matching products, closest names first, capped at the DAO's name search limit
      */
     List<Product> findByNameContaining(String name);
     
+    /**
+     * Find all products as lightweight rows (no description)
+     * @return list of product rows ordered by name
+     */
+    List<ProductRow> findAllRows();
+    
+    /**
+     * Find all active products as lightweight rows
+     * @return list of active product rows ordered by name
+     */
+    List<ProductRow> findActiveRows();
+    
+    /**
+     * Find products with low stock as lightweight rows
+     * @return list of active product rows with stock at or below minimum, furthest below first
+     */
+    List<ProductRow> findLowStockRows();
+    
+    /**
+     * Search products by name, returning lightweight rows
+     * @param name the name to search for
+     * @return list of matching product rows, closest names first, capped at the DAO's name search limit
+     */
+    List<ProductRow> findRowsByNameContaining(String name);
+    
+    /**
+     * Find products by ID as lightweight rows
+     * @param ids the product IDs
+     * @return the rows found, in the order of the given IDs
+     */
+    List<ProductRow> findRowsByIds(List<Long> ids);
+    
+    /**
+     * Load the truncated descriptions of a few products, such as the rows on screen
+     * @param ids the product IDs
+     * @return description preview by product ID; deleted products are absent
+     */
+    Map<Long, String> findDescriptionPreviews(List<Long> ids);
+    
     /**
      * Update an existing product
      * @param product the product to update
@@ -60,6 +103,29 @@ public interface ProductDAO {
      */
     boolean updateStock(Long productId, Long newStock);
     
+    /**
+     * Atomically apply a signed stock delta to an active product.
+     * The change is only applied if the resulting stock stays non-negative.
+     * @param productId the product ID
+     * @param delta the quantity to add (negative to remove)
+     * @return the new stock level, or empty if the product is missing, inactive or the stock is insufficient
+     */
+    Optional<Long> adjustStock(Long productId, long delta);
+    
+    /**
+     * Update the stock of several products in one JDBC batch
+     * @param newStockByProduct new stock quantity keyed by product ID
+     * @return number of products updated
+     */
+    int updateStocks(Map<Long, Long> newStockByProduct);
+    
+    /**
+     * Update the price of several products in one JDBC batch
+     * @param newPriceByProduct new price keyed by product ID
+     * @return number of products updated
+     */
+    int updatePrices(Map<Long, BigDecimal> newPriceByProduct);
+    
     /**
      * Soft delete a product (set as inactive)
      * @param id the product ID to deactivate
@@ -74,6 +140,20 @@ public interface ProductDAO {
      */
     boolean activate(Long id);
     
+    /**
+     * Soft delete several products with a single statement
+     * @param ids the product IDs to deactivate
+     * @return number of products deactivated
+     */
+    int deactivateAll(Collection<Long> ids);
+    
+    /**
+     * Activate several products with a single statement
+     * @param ids the product IDs to activate
+     * @return number of products activated
+     */
+    int activateAll(Collection<Long> ids);
+    
     /**
      * Hard delete a product (use with caution)
      * @param id the product ID to delete
@@ -92,4 +172,10 @@ public interface ProductDAO {
      * @return active products count
      */
     long countActive();
+    
+    /**
+     * Count total, active and low stock products with a single query
+     * @return product counters
+     */
+    ProductCounts getCounts();
 }
\ No newline at end of file
@@ -1,25 +1,72 @@
 package fr.inventory.dao;
 
 import fr.inventory.model.Product;
+import fr.inventory.model.ProductRow;
 import fr.inventory.utils.DatabaseUtils;
+import fr.inventory.utils.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 public class ProductDAOImpl implements ProductDAO {
+    // Keeps IN-lists well below driver and server placeholder limits
+    static final int MAX_IN_LIST_SIZE = 1000;
+    // One or two typed characters match most of the catalogue; name searches fetch at most this many products
+    private static final int DEFAULT_NAME_SEARCH_LIMIT = 200;
+
+    private static final Set<QueryCache.Table> PRODUCT_TABLES = EnumSet.of(QueryCache.Table.PRODUCTS);
+
+    // Columns needed by table views; the TEXT description is loaded on demand (findDescriptionPreviews)
+    private static final String ROW_COLUMNS = "id, name, current_stock, min_stock, price, is_active, created_at";
+
+    private final ProductNameDictionary productNames = ProductNameDictionary.shared();
+    private final ProductCompletionIndex completions = ProductCompletionIndex.shared();
+    private final QueryCache queryCache = QueryCache.shared();
+    private final LowStockMonitor lowStock = LowStockMonitor.shared();
+    private final StatsCounters statsCounters = new StatsCounters();
+    private final TransactionTemplate transactionTemplate = new TransactionTemplate();
+    private final int nameSearchLimit;
+
+    public ProductDAOImpl() {
+        this(Integer.getInteger("inventory.db.nameSearchLimit", DEFAULT_NAME_SEARCH_LIMIT));
+    }
+
+    /**
+     * @param nameSearchLimit maximum number of products returned by name searches, best matches first
+     */
+    public ProductDAOImpl(int nameSearchLimit) {
+        if (nameSearchLimit <= 0) {
+            throw new IllegalArgumentException("Name search limit must be positive");
+        }
+        this.nameSearchLimit = nameSearchLimit;
+    }
 
     @Override
     public Product create(Product product) {
+        // The row and its counters commit together
+        return transactionTemplate.execute(() -> insert(product));
+    }
+
+    private Product insert(Product product) {
         String sql = """
             INSERT INTO products (name, description, current_stock, min_stock, price, is_active) 
             VALUES (?, ?, ?, ?, ?, ?)
         """;
         
-        try (PreparedStatement stmt = DatabaseUtils.prepareStatementWithGeneratedKeys(sql)) {
+        try (Connection conn = DatabaseUtils.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             stmt.setString(1, product.getName());
             stmt.setString(2, product.getDescription());
             stmt.setLong(3, product.getCurrentStock());
@@ -39,7 +86,20 @@ public class ProductDAOImpl implements ProductDAO {
                     throw new SQLException("Creating product failed, no ID obtained.");
                 }
             }
+            StatsCounters.add(conn, counterDeltas(product.isActive(), 1));
             
+            queryCache.invalidate(QueryCache.Table.PRODUCTS);
+            Long id = product.getId();
+            String name = product.getName();
+            long currentStock = product.getCurrentStock();
+            long minStock = product.getMinStock();
+            boolean active = product.isActive();
+            long ticket = lowStock.nextSequence();
+            TransactionTemplate.afterCommit(() -> {
+                productNames.put(id, name);
+                completions.put(id, name, active);
+                lowStock.put(id, name, currentStock, minStock, active, ticket);
+            });
             return product;
         } catch (SQLException e) {
             throw new RuntimeException("Error creating product: " + e.getMessage(), e);
@@ -50,12 +110,13 @@ public class ProductDAOImpl implements ProductDAO {
     public Optional<Product> findById(Long id) {
         String sql = "SELECT * FROM products WHERE id = ?";
         
-        try (PreparedStatement stmt = DatabaseUtils.prepareStatement(sql)) {
+        try (Connection conn = DatabaseUtils.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setLong(1, id);
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return Optional.of(mapResultSetToProduct(rs));
+                    return Optional.of(RowMappers.PRODUCT.bind(sql, rs).mapRow(rs));
                 }
             }
         } catch (SQLException e) {
@@ -67,14 +128,20 @@ public class ProductDAOImpl implements ProductDAO {
 
     @Override
     public List<Product> findAll() {
+        return queryCache.getCopied("products.findAll", PRODUCT_TABLES, this::queryAll, ProductDAOImpl::copyProducts);
+    }
+
+    private List<Product> queryAll() {
         String sql = "SELECT * FROM products ORDER BY name";
         List<Product> products = new ArrayList<>();
         
-        try (PreparedStatement stmt = DatabaseUtils.prepareStatement(sql);
+        try (Connection conn = DatabaseUtils.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
             
+            RowMapper<Product> mapper = RowMappers.PRODUCT.bind(sql, rs);
             while (rs.next()) {
-                products.add(mapResultSetToProduct(rs));
+                products.add(mapper.mapRow(rs));
             }
         } catch (SQLException e) {
             throw new RuntimeException("Error finding all products: " + e.getMessage(), e);
@@ -85,14 +152,21 @@ public class ProductDAOImpl implements ProductDAO {
 
     @Override
     public List<Product> findAllActive() {
+        return queryCache.getCopied("products.findAllActive", PRODUCT_TABLES, this::queryAllActive,
+                ProductDAOImpl::copyProducts);
+    }
+
+    private List<Product> queryAllActive() {
         String sql = "SELECT * FROM products WHERE is_active = true ORDER BY name";
         List<Product> products = new ArrayList<>();
         
-        try (PreparedStatement stmt = DatabaseUtils.prepareStatement(sql);
+        try (Connection conn = DatabaseUtils.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
             
+            RowMapper<Product> mapper = RowMappers.PRODUCT.bind(sql, rs);
             while (rs.next()) {
-                products.add(mapResultSetToProduct(rs));
+                products.add(mapper.mapRow(rs));
             }
         } catch (SQLException e) {
             throw new RuntimeException("Error finding active products: " + e.getMessage(), e);
@@ -103,14 +177,26 @@ public class ProductDAOImpl implements ProductDAO {
 
     @Override
     public List<Product> findLowStockProducts() {
-        String sql = "SELECT * FROM products WHERE current_stock <= min_stock AND is_active = true ORDER BY name";
+        // A unit of work may hold uncommitted stock changes the monitor has not seen yet
+        if (TransactionTemplate.isActive()) {
+            return queryLowStockProducts();
+        }
+        return findByIds("*", RowMappers.PRODUCT, Product::getId, lowStock.lowStockIds(),
+                "Error finding low stock products");
+    }
+
+    private List<Product> queryLowStockProducts() {
+        String sql = "SELECT * FROM products WHERE current_stock <= min_stock AND is_active = true "
+                + "ORDER BY current_stock - min_stock, name";
         List<Product> products = new ArrayList<>();
         
-        try (PreparedStatement stmt = DatabaseUtils.prepareStatement(sql);
+        try (Connection conn = DatabaseUtils.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
             
+            RowMapper<Product> mapper = RowMappers.PRODUCT.bind(sql, rs);
             while (rs.next()) {
-                products.add(mapResultSetToProduct(rs));
+                products.add(mapper.mapRow(rs));
             }
         } catch (SQLException e) {
             throw new RuntimeException("Error finding low stock products: " + e.getMessage(), e);
@@ -121,33 +207,80 @@ public class ProductDAOImpl implements ProductDAO {
 
     @Override
     public List<Product> findByNameContaining(String name) {
-        String sql = "SELECT * FROM products WHERE LOWER(name) LIKE LOWER(?) ORDER BY name";
-        List<Product> products = new ArrayList<>();
-        
-        try (PreparedStatement stmt = DatabaseUtils.prepareStatement(sql)) {
-            stmt.setString(1, "%" + name + "%");
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    products.add(mapResultSetToProduct(rs));
-                }
-            }
-        } catch (SQLException e) {
-            throw new RuntimeException("Error searching products by name: " + e.getMessage(), e);
+        return queryCache.getCopied("products.findByNameContaining", PRODUCT_TABLES, () -> queryByNameContaining(name),
+                ProductDAOImpl::copyProducts, name);
+    }
+
+    private List<Product> queryByNameContaining(String name) {
+        return findByIds("*", RowMappers.PRODUCT, Product::getId, productNames.search(name, nameSearchLimit),
+                "Error searching products by name");
+    }
+
+    @Override
+    public List<ProductRow> findAllRows() {
+        return queryCache.getCopied("products.findAllRows", PRODUCT_TABLES, this::queryAllRows, ArrayList::new);
+    }
+
+    private List<ProductRow> queryAllRows() {
+        return findRows("ORDER BY name", "Error finding product rows");
+    }
+
+    @Override
+    public List<ProductRow> findActiveRows() {
+        return queryCache.getCopied("products.findActiveRows", PRODUCT_TABLES, this::queryActiveRows, ArrayList::new);
+    }
+
+    private List<ProductRow> queryActiveRows() {
+        return findRows("WHERE is_active = true ORDER BY name", "Error finding active product rows");
+    }
+
+    @Override
+    public List<ProductRow> findLowStockRows() {
+        if (TransactionTemplate.isActive()) {
+            return findRows("WHERE current_stock <= min_stock AND is_active = true "
+                    + "ORDER BY current_stock - min_stock, name", "Error finding low stock product rows");
         }
-        
-        return products;
+        return findByIds(ROW_COLUMNS, RowMappers.PRODUCT_ROW, ProductRow::getId, lowStock.lowStockIds(),
+                "Error finding low stock product rows");
+    }
+
+    @Override
+    public List<ProductRow> findRowsByNameContaining(String name) {
+        return queryCache.getCopied("products.findRowsByNameContaining", PRODUCT_TABLES, () -> queryRowsByNameContaining(name),
+                ArrayList::new, name);
+    }
+
+    private List<ProductRow> queryRowsByNameContaining(String name) {
+        return findByIds(ROW_COLUMNS, RowMappers.PRODUCT_ROW, ProductRow::getId, productNames.search(name, nameSearchLimit),
+                "Error searching product rows by name");
+    }
+
+    @Override
+    public List<ProductRow> findRowsByIds(List<Long> ids) {
+        return findByIds(ROW_COLUMNS, RowMappers.PRODUCT_ROW, ProductRow::getId, ids,
+                "Error finding product rows by ID");
+    }
+
+    @Override
+    public Map<Long, String> findDescriptionPreviews(List<Long> ids) {
+        return DescriptionPreviews.load("products", ids, ProductRow.DESCRIPTION_PREVIEW_LENGTH);
     }
 
     @Override
     public Product update(Product product) {
+        return transactionTemplate.execute(() -> updateRow(product));
+    }
+
+    private Product updateRow(Product product) {
         String sql = """
             UPDATE products 
             SET name = ?, description = ?, current_stock = ?, min_stock = ?, price = ?, is_active = ?, updated_at = CURRENT_TIMESTAMP 
             WHERE id = ?
         """;
         
-        try (PreparedStatement stmt = DatabaseUtils.prepareStatement(sql)) {
+        try (Connection conn = DatabaseUtils.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            Optional<Boolean> wasActive = lockActive(conn, product.getId());
             stmt.setString(1, product.getName());
             stmt.setString(2, product.getDescription());
             stmt.setLong(3, product.getCurrentStock());
@@ -160,7 +293,22 @@ public class ProductDAOImpl implements ProductDAO {
             if (affectedRows == 0) {
                 throw new SQLException("Updating product failed, no rows affected.");
             }
+            if (wasActive.isPresent() && wasActive.get() != product.isActive()) {
+                StatsCounters.add(conn, Map.of(StatsCounters.Counter.PRODUCTS_ACTIVE, product.isActive() ? 1L : -1L));
+            }
             
+            queryCache.invalidate(QueryCache.Table.PRODUCTS);
+            Long id = product.getId();
+            String name = product.getName();
+            long currentStock = product.getCurrentStock();
+            long minStock = product.getMinStock();
+            boolean active = product.isActive();
+            long ticket = lowStock.nextSequence();
+            TransactionTemplate.afterCommit(() -> {
+                productNames.put(id, name);
+                completions.put(id, name, active);
+                lowStock.put(id, name, currentStock, minStock, active, ticket);
+            });
             return product;
         } catch (SQLException e) {
             throw new RuntimeException("Error updating product: " + e.getMessage(), e);
@@ -169,13 +317,25 @@ public class ProductDAOImpl implements ProductDAO {
 
     @Override
     public boolean updateStock(Long productId, Long newStock) {
+        // A unit of work keeps the row locked until commit while the monitor ticket is taken,
+        // and releases the connection before the monitor is updated
+        return transactionTemplate.execute(() -> writeStock(productId, newStock));
+    }
+
+    private boolean writeStock(Long productId, Long newStock) {
         String sql = "UPDATE products SET current_stock = ?, updated_at = CURRENT_TIMESTAMP WHERE id = ?";
         
-        try (PreparedStatement stmt = DatabaseUtils.prepareStatement(sql)) {
+        try (Connection conn = DatabaseUtils.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setLong(1, newStock);
             stmt.setLong(2, productId);
             
             int affectedRows = stmt.executeUpdate();
+            queryCache.invalidate(QueryCache.Table.PRODUCTS);
+            if (affectedRows > 0) {
+                long ticket = lowStock.nextSequence();
+                TransactionTemplate.afterCommit(() -> lowStock.updateStock(productId, newStock, ticket));
+            }
             return affectedRows > 0;
         } catch (SQLException e) {
             throw new RuntimeException("Error updating product stock: " + e.getMessage(), e);
@@ -183,41 +343,208 @@ public class ProductDAOImpl implements ProductDAO {
     }
 
     @Override
-    public boolean deactivate(Long id) {
-        String sql = "UPDATE products SET is_active = false, updated_at = CURRENT_TIMESTAMP WHERE id = ?";
+    public Optional<Long> adjustStock(Long productId, long delta) {
+        // The guarded UPDATE keeps the row locked until commit, so the read-back in the same
+        // unit of work returns the stock this delta produced
+        return transactionTemplate.execute(() -> applyStockDelta(productId, delta));
+    }
+
+    private Optional<Long> applyStockDelta(Long productId, long delta) {
+        String sql = """
+            UPDATE products 
+            SET current_stock = current_stock + ?, updated_at = CURRENT_TIMESTAMP 
+            WHERE id = ? AND is_active = true AND current_stock + ? >= 0
+        """;
+        String readBackSql = "SELECT current_stock FROM products WHERE id = ?";
         
-        try (PreparedStatement stmt = DatabaseUtils.prepareStatement(sql)) {
-            stmt.setLong(1, id);
+        try (Connection conn = DatabaseUtils.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setLong(1, delta);
+                stmt.setLong(2, productId);
+                stmt.setLong(3, delta);
+                if (stmt.executeUpdate() == 0) {
+                    return Optional.empty();
+                }
+            }
+            long newStock;
+            try (PreparedStatement stmt = conn.prepareStatement(readBackSql)) {
+                stmt.setLong(1, productId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (!rs.next()) {
+                        throw new SQLException("Product " + productId + " vanished after its stock update");
+                    }
+                    newStock = rs.getLong(1);
+                }
+            }
             
-            int affectedRows = stmt.executeUpdate();
-            return affectedRows > 0;
+            queryCache.invalidate(QueryCache.Table.PRODUCTS);
+            long ticket = lowStock.nextSequence();
+            TransactionTemplate.afterCommit(() -> lowStock.updateStock(productId, newStock, ticket));
+            return Optional.of(newStock);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error adjusting product stock: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int updateStocks(Map<Long, Long> newStockByProduct) {
+        if (newStockByProduct.isEmpty()) {
+            return 0;
+        }
+        // One unit of work: the whole batch is atomic and commits once
+        return transactionTemplate.execute(() -> batchUpdateStocks(newStockByProduct));
+    }
+
+    private int batchUpdateStocks(Map<Long, Long> newStockByProduct) {
+        String sql = "UPDATE products SET current_stock = ?, updated_at = CURRENT_TIMESTAMP WHERE id = ?";
+        
+        try (Connection conn = DatabaseUtils.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (Map.Entry<Long, Long> entry : newStockByProduct.entrySet()) {
+                stmt.setLong(1, entry.getValue());
+                stmt.setLong(2, entry.getKey());
+                stmt.addBatch();
+            }
+            
+            int updated = countUpdated(stmt.executeBatch());
+            queryCache.invalidate(QueryCache.Table.PRODUCTS);
+            Map<Long, Long> stocks = new HashMap<>(newStockByProduct);
+            long ticket = lowStock.nextSequence();
+            TransactionTemplate.afterCommit(() -> stocks.forEach((id, stock) -> lowStock.updateStock(id, stock, ticket)));
+            return updated;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error updating product stocks: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int updatePrices(Map<Long, BigDecimal> newPriceByProduct) {
+        if (newPriceByProduct.isEmpty()) {
+            return 0;
+        }
+        return transactionTemplate.execute(() -> batchUpdatePrices(newPriceByProduct));
+    }
+
+    private int batchUpdatePrices(Map<Long, BigDecimal> newPriceByProduct) {
+        String sql = "UPDATE products SET price = ?, updated_at = CURRENT_TIMESTAMP WHERE id = ?";
+        
+        try (Connection conn = DatabaseUtils.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (Map.Entry<Long, BigDecimal> entry : newPriceByProduct.entrySet()) {
+                stmt.setBigDecimal(1, entry.getValue());
+                stmt.setLong(2, entry.getKey());
+                stmt.addBatch();
+            }
+            
+            int updated = countUpdated(stmt.executeBatch());
+            queryCache.invalidate(QueryCache.Table.PRODUCTS);
+            return updated;
         } catch (SQLException e) {
-            throw new RuntimeException("Error deactivating product: " + e.getMessage(), e);
+            throw new RuntimeException("Error updating product prices: " + e.getMessage(), e);
         }
     }
 
+    @Override
+    public boolean deactivate(Long id) {
+        return transactionTemplate.execute(() -> setActive(id, false));
+    }
+
     @Override
     public boolean activate(Long id) {
-        String sql = "UPDATE products SET is_active = true, updated_at = CURRENT_TIMESTAMP WHERE id = ?";
+        return transactionTemplate.execute(() -> setActive(id, true));
+    }
+
+    private boolean setActive(Long id, boolean active) {
+        String sql = "UPDATE products SET is_active = ?, updated_at = CURRENT_TIMESTAMP WHERE id = ?";
         
-        try (PreparedStatement stmt = DatabaseUtils.prepareStatement(sql)) {
-            stmt.setLong(1, id);
+        try (Connection conn = DatabaseUtils.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            Optional<Boolean> wasActive = lockActive(conn, id);
+            stmt.setBoolean(1, active);
+            stmt.setLong(2, id);
             
             int affectedRows = stmt.executeUpdate();
+            if (affectedRows > 0) {
+                if (wasActive.isPresent() && wasActive.get() != active) {
+                    StatsCounters.add(conn, Map.of(StatsCounters.Counter.PRODUCTS_ACTIVE, active ? 1L : -1L));
+                }
+                queryCache.invalidate(QueryCache.Table.PRODUCTS);
+                long ticket = lowStock.nextSequence();
+                TransactionTemplate.afterCommit(() -> {
+                    completions.setActive(id, active);
+                    lowStock.setActive(id, active, ticket);
+                });
+            }
             return affectedRows > 0;
         } catch (SQLException e) {
-            throw new RuntimeException("Error activating product: " + e.getMessage(), e);
+            throw new RuntimeException("Error " + (active ? "activating" : "deactivating") + " product: " + e.getMessage(), e);
         }
     }
 
+    @Override
+    public int deactivateAll(Collection<Long> ids) {
+        return transactionTemplate.execute(() -> {
+            try {
+                int updated = setActiveForAll(ids, false);
+                queryCache.invalidate(QueryCache.Table.PRODUCTS);
+                List<Long> idList = new ArrayList<>(ids);
+                long ticket = lowStock.nextSequence();
+                TransactionTemplate.afterCommit(() -> {
+                    completions.setActive(idList, false);
+                    lowStock.setActive(idList, false, ticket);
+                });
+                return updated;
+            } catch (SQLException e) {
+                throw new RuntimeException("Error deactivating products: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    @Override
+    public int activateAll(Collection<Long> ids) {
+        return transactionTemplate.execute(() -> {
+            try {
+                int updated = setActiveForAll(ids, true);
+                queryCache.invalidate(QueryCache.Table.PRODUCTS);
+                List<Long> idList = new ArrayList<>(ids);
+                long ticket = lowStock.nextSequence();
+                TransactionTemplate.afterCommit(() -> {
+                    completions.setActive(idList, true);
+                    lowStock.setActive(idList, true, ticket);
+                });
+                return updated;
+            } catch (SQLException e) {
+                throw new RuntimeException("Error activating products: " + e.getMessage(), e);
+            }
+        });
+    }
+
     @Override
     public boolean delete(Long id) {
+        return transactionTemplate.execute(() -> deleteRow(id));
+    }
+
+    private boolean deleteRow(Long id) {
         String sql = "DELETE FROM products WHERE id = ?";
         
-        try (PreparedStatement stmt = DatabaseUtils.prepareStatement(sql)) {
+        try (Connection conn = DatabaseUtils.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            Optional<Boolean> wasActive = lockActive(conn, id);
             stmt.setLong(1, id);
             
             int affectedRows = stmt.executeUpdate();
+            if (affectedRows > 0) {
+                if (wasActive.isPresent()) {
+                    StatsCounters.add(conn, counterDeltas(wasActive.get(), -1));
+                }
+                queryCache.invalidate(QueryCache.Table.PRODUCTS);
+                long ticket = lowStock.nextSequence();
+                TransactionTemplate.afterCommit(() -> {
+                    productNames.remove(id);
+                    completions.remove(id);
+                    lowStock.remove(id, ticket);
+                });
+            }
             return affectedRows > 0;
         } catch (SQLException e) {
             throw new RuntimeException("Error deleting product: " + e.getMessage(), e);
@@ -226,58 +553,202 @@ public class ProductDAOImpl implements ProductDAO {
 
     @Override
     public long count() {
-        String sql = "SELECT COUNT(*) FROM products";
+        return queryCache.get("products.count", PRODUCT_TABLES, this::queryCount);
+    }
+
+    private long queryCount() {
+        return statsCounters.readAll().get(StatsCounters.Counter.PRODUCTS_TOTAL);
+    }
+
+    @Override
+    public long countActive() {
+        return queryCache.get("products.countActive", PRODUCT_TABLES, this::queryCountActive);
+    }
+
+    private long queryCountActive() {
+        return statsCounters.readAll().get(StatsCounters.Counter.PRODUCTS_ACTIVE);
+    }
+
+    @Override
+    public ProductCounts getCounts() {
+        // Totals come from the cached counters; the monitor is always current, so low stock is not cached
+        long lowStockCount = TransactionTemplate.isActive() ? queryLowStockCount() : lowStock.lowStockCount();
+        return new ProductCounts(count(), countActive(), lowStockCount);
+    }
+
+    private long queryLowStockCount() {
+        String sql = "SELECT COUNT(*) FROM products WHERE is_active = true AND current_stock <= min_stock";
         
-        try (PreparedStatement stmt = DatabaseUtils.prepareStatement(sql);
+        try (Connection conn = DatabaseUtils.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
             
             if (rs.next()) {
                 return rs.getLong(1);
             }
         } catch (SQLException e) {
-            throw new RuntimeException("Error counting products: " + e.getMessage(), e);
+            throw new RuntimeException("Error counting low stock products: " + e.getMessage(), e);
         }
         
         return 0;
     }
 
-    @Override
-    public long countActive() {
-        String sql = "SELECT COUNT(*) FROM products WHERE is_active = true";
+    private int setActiveForAll(Collection<Long> ids, boolean active) throws SQLException {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<Long> idList = new ArrayList<>(ids);
+        int updated = 0;
         
-        try (PreparedStatement stmt = DatabaseUtils.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+        try (Connection conn = DatabaseUtils.getConnection()) {
+            for (int start = 0; start < idList.size(); start += MAX_IN_LIST_SIZE) {
+                List<Long> chunk = idList.subList(start, Math.min(start + MAX_IN_LIST_SIZE, idList.size()));
+                String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+                String lockSql = "SELECT id FROM products WHERE is_active <> ? AND id IN (" + placeholders + ") FOR UPDATE";
+                String sql = "UPDATE products SET is_active = ?, updated_at = CURRENT_TIMESTAMP WHERE id IN ("
+                        + placeholders + ")";
+                
+                // Products whose flag actually flips, locked until the unit of work ends
+                long flipped = 0;
+                try (PreparedStatement stmt = conn.prepareStatement(lockSql)) {
+                    stmt.setBoolean(1, active);
+                    for (int i = 0; i < chunk.size(); i++) {
+                        stmt.setLong(i + 2, chunk.get(i));
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            flipped++;
+                        }
+                    }
+                }
+                StatsCounters.add(conn, Map.of(StatsCounters.Counter.PRODUCTS_ACTIVE, active ? flipped : -flipped));
+                
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setBoolean(1, active);
+                    for (int i = 0; i < chunk.size(); i++) {
+                        stmt.setLong(i + 2, chunk.get(i));
+                    }
+                    updated += stmt.executeUpdate();
+                }
+            }
+        }
+        
+        return updated;
+    }
+
+    /**
+     * Counter deltas for adding (sign 1) or removing (sign -1) one product
+     */
+    private static Map<StatsCounters.Counter, Long> counterDeltas(boolean active, long sign) {
+        Map<StatsCounters.Counter, Long> deltas = new EnumMap<>(StatsCounters.Counter.class);
+        deltas.put(StatsCounters.Counter.PRODUCTS_TOTAL, sign);
+        if (active) {
+            deltas.put(StatsCounters.Counter.PRODUCTS_ACTIVE, sign);
+        }
+        return deltas;
+    }
+
+    /**
+     * Lock a product row and read its active flag
+     */
+    private Optional<Boolean> lockActive(Connection conn, Long id) throws SQLException {
+        String sql = "SELECT is_active FROM products WHERE id = ? FOR UPDATE";
+        
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(rs.getBoolean(1));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private int countUpdated(int[] batchResults) {
+        int updated = 0;
+        for (int result : batchResults) {
+            if (result > 0 || result == Statement.SUCCESS_NO_INFO) {
+                updated++;
+            }
+        }
+        return updated;
+    }
+
+    private List<ProductRow> findRows(String clause, String errorMessage, Object... params) {
+        String sql = "SELECT " + ROW_COLUMNS + " FROM products " + clause;
+        List<ProductRow> rows = new ArrayList<>();
+        
+        try (Connection conn = DatabaseUtils.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                stmt.setObject(i + 1, params[i]);
+            }
             
-            if (rs.next()) {
-                return rs.getLong(1);
+            try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper<ProductRow> mapper = RowMappers.PRODUCT_ROW.bind(sql, rs);
+                while (rs.next()) {
+                    rows.add(mapper.mapRow(rs));
+                }
             }
         } catch (SQLException e) {
-            throw new RuntimeException("Error counting active products: " + e.getMessage(), e);
+            throw new RuntimeException(errorMessage + ": " + e.getMessage(), e);
         }
         
-        return 0;
+        return rows;
     }
 
-    private Product mapResultSetToProduct(ResultSet rs) throws SQLException {
-        Product product = new Product();
-        product.setId(rs.getLong("id"));
-        product.setName(rs.getString("name"));
-        product.setDescription(rs.getString("description"));
-        product.setCurrentStock(rs.getLong("current_stock"));
-        product.setMinStock(rs.getLong("min_stock"));
-        product.setPrice(rs.getBigDecimal("price"));
-        product.setActive(rs.getBoolean("is_active"));
-        
-        Timestamp createdAt = rs.getTimestamp("created_at");
-        if (createdAt != null) {
-            product.setCreatedAt(createdAt.toLocalDateTime());
+    /**
+     * Load products by primary key, keeping the order of the given IDs.
+     * IDs of products deleted in the meantime are skipped.
+     */
+    private <T> List<T> findByIds(String columns, RowMapperFactory<T> mapperFactory, Function<T, Long> idOf,
+                                  List<Long> ids, String errorMessage) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
         }
+        Map<Long, T> byId = new HashMap<>(ids.size() * 2);
         
-        Timestamp updatedAt = rs.getTimestamp("updated_at");
-        if (updatedAt != null) {
-            product.setUpdatedAt(updatedAt.toLocalDateTime());
+        try (Connection conn = DatabaseUtils.getConnection()) {
+            for (int start = 0; start < ids.size(); start += MAX_IN_LIST_SIZE) {
+                List<Long> chunk = ids.subList(start, Math.min(start + MAX_IN_LIST_SIZE, ids.size()));
+                String sql = "SELECT " + columns + " FROM products WHERE id IN ("
+                        + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+                
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        stmt.setLong(i + 1, chunk.get(i));
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        RowMapper<T> mapper = mapperFactory.bind(sql, rs);
+                        while (rs.next()) {
+                            T item = mapper.mapRow(rs);
+                            byId.put(idOf.apply(item), item);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(errorMessage + ": " + e.getMessage(), e);
         }
         
-        return product;
+        List<T> items = new ArrayList<>(byId.size());
+        for (Long id : ids) {
+            T item = byId.get(id);
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    private static List<Product> copyProducts(List<Product> products) {
+        List<Product> copies = new ArrayList<>(products.size());
+        for (Product product : products) {
+            copies.add(new Product(product.getId(), product.getName(), product.getDescription(),
+                                   product.getCurrentStock(), product.getMinStock(), product.getPrice(),
+                                   product.isActive(), product.getCreatedAt(), product.getUpdatedAt()));
+        }
+        return copies;
     }
 }
\ No newline at end of file
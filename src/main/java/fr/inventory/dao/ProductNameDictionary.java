@@ -0,0 +1,167 @@
+package fr.inventory.dao;
+
+import fr.inventory.model.Transaction;
+import fr.inventory.utils.DatabaseUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory map of product ID to name, used to fill {@link Transaction#getProductName()}
+ * without joining the products table on every transaction query, and to answer
+ * "name contains" searches through a {@link ProductNameIndex} kept over the same names.
+ * The whole table is loaded on first use; {@link ProductDAOImpl} keeps it coherent on
+ * create, rename and delete. Every transaction of a product shares the same name instance.
+ */
+public class ProductNameDictionary {
+    private static final ProductNameDictionary shared = new ProductNameDictionary();
+
+    private final Map<Long, String> names = new ConcurrentHashMap<>();
+    private final ProductNameIndex index = new ProductNameIndex(names);
+    private volatile boolean loaded = false;
+
+    /**
+     * Dictionary shared by the DAOs of this application.
+     */
+    public static ProductNameDictionary shared() {
+        return shared;
+    }
+
+    /**
+     * Name of a product from memory only
+     * @return the name, or null if unknown
+     */
+    public String get(Long productId) {
+        return productId != null ? names.get(productId) : null;
+    }
+
+    /**
+     * Products whose name contains the query, ignoring case
+     * @param limit maximum number of IDs returned
+     * @return product IDs, best match first
+     */
+    public List<Long> search(String query, int limit) {
+        ensureLoaded();
+        return index.search(query, limit);
+    }
+
+    /**
+     * Set the product name of each transaction, loading unknown products in one query
+     * @return the same list
+     */
+    public List<Transaction> fillNames(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return transactions;
+        }
+        List<Long> productIds = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            productIds.add(transaction.getProductId());
+        }
+        resolve(productIds);
+
+        for (Transaction transaction : transactions) {
+            transaction.setProductName(get(transaction.getProductId()));
+        }
+        return transactions;
+    }
+
+    /**
+     * Make sure the names of the given products are in memory, loading unknown ones in one query
+     */
+    public void resolve(Collection<Long> productIds) {
+        ensureLoaded();
+
+        Set<Long> missing = new LinkedHashSet<>();
+        for (Long productId : productIds) {
+            if (productId != null && !names.containsKey(productId)) {
+                missing.add(productId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            load(new ArrayList<>(missing));
+        }
+    }
+
+    /**
+     * Load every product name if that has not been done yet.
+     * Callers streaming a result set call this first so rows can be named from memory.
+     */
+    public void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                load(null);
+                loaded = true;
+            }
+        }
+    }
+
+    synchronized void put(Long productId, String name) {
+        if (productId != null && name != null) {
+            index.put(productId, names.put(productId, name), name);
+        }
+    }
+
+    synchronized void remove(Long productId) {
+        if (productId != null) {
+            index.remove(productId, names.remove(productId));
+        }
+    }
+
+    /**
+     * Store a loaded name unless a concurrent create or rename already wrote a newer one
+     */
+    private synchronized void putLoaded(Long productId, String name) {
+        if (name != null && !names.containsKey(productId)) {
+            names.put(productId, name);
+            index.put(productId, null, name);
+        }
+    }
+
+    /**
+     * @param productIds the products to load, or null for all of them
+     */
+    private void load(List<Long> productIds) {
+        List<List<Long>> chunks = new ArrayList<>();
+        if (productIds == null) {
+            chunks.add(Collections.emptyList());
+        } else {
+            for (int start = 0; start < productIds.size(); start += ProductDAOImpl.MAX_IN_LIST_SIZE) {
+                chunks.add(productIds.subList(start, Math.min(start + ProductDAOImpl.MAX_IN_LIST_SIZE, productIds.size())));
+            }
+        }
+
+        try (Connection conn = DatabaseUtils.getConnection()) {
+            for (List<Long> chunk : chunks) {
+                String sql = productIds == null
+                        ? "SELECT id, name FROM products"
+                        : "SELECT id, name FROM products WHERE id IN (" + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        stmt.setLong(i + 1, chunk.get(i));
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            putLoaded(rs.getLong("id"), rs.getString("name"));
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error loading product names: " + e.getMessage(), e);
+        }
+    }
+}
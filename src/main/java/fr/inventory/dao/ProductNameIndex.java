@@ -0,0 +1,171 @@
+package fr.inventory.dao;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Trigram index over the product names held by a {@link ProductNameDictionary}, answering
+ * "name contains" searches without scanning the products table.
+ * A query is matched by intersecting the posting sets of its trigrams and checking each
+ * candidate name, so results are exactly those of a case-insensitive LIKE '%query%'.
+ * Results are ranked by trigram overlap (Dice coefficient), which puts names closest to the
+ * query first. Queries shorter than a trigram are answered by scanning the names in memory.
+ * The index keeps only postings and trigram counts; names are read from the dictionary,
+ * which updates the index whenever it stores or drops a name.
+ */
+class ProductNameIndex {
+    private static final int GRAM_LENGTH = 3;
+    private static final Comparator<Scored> BEST_FIRST = Comparator.comparingDouble((Scored scored) -> -scored.score)
+            .thenComparing(scored -> scored.name)
+            .thenComparing(scored -> scored.id);
+
+    private final Map<Long, String> names;
+    private final Map<Long, Integer> gramCounts = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    /**
+     * @param names the dictionary's names, read when checking candidates
+     */
+    ProductNameIndex(Map<Long, String> names) {
+        this.names = names;
+    }
+
+    /**
+     * Products whose name contains the query, ignoring case
+     * @param limit maximum number of IDs returned
+     * @return product IDs, best match first
+     */
+    List<Long> search(String query, int limit) {
+        String needle = normalize(query);
+        Set<String> grams = trigrams(needle);
+        // Worst of the kept matches first, so a better one replaces it
+        PriorityQueue<Scored> best = new PriorityQueue<>(BEST_FIRST.reversed());
+
+        if (grams.isEmpty()) {
+            for (Map.Entry<Long, String> candidate : names.entrySet()) {
+                String name = normalize(candidate.getValue());
+                if (name.contains(needle)) {
+                    keepBest(best, new Scored(candidate.getKey(), name, 0), limit);
+                }
+            }
+        } else {
+            List<Set<Long>> lists = new ArrayList<>(grams.size());
+            for (String gram : grams) {
+                Set<Long> ids = postings.get(gram);
+                if (ids == null) {
+                    return new ArrayList<>();
+                }
+                lists.add(ids);
+            }
+            lists.sort(Comparator.comparingInt(Set::size));
+
+            Set<Long> smallest = lists.get(0);
+            for (Long id : smallest) {
+                Integer gramCount = gramCounts.get(id);
+                if (gramCount == null || !containsAll(lists, id)) {
+                    continue;
+                }
+                String name = normalize(names.get(id));
+                if (name.contains(needle)) {
+                    keepBest(best, new Scored(id, name, 2.0 * grams.size() / (grams.size() + gramCount)), limit);
+                }
+            }
+        }
+
+        List<Scored> matches = new ArrayList<>(best);
+        matches.sort(BEST_FIRST);
+        List<Long> ids = new ArrayList<>(matches.size());
+        for (Scored scored : matches) {
+            ids.add(scored.id);
+        }
+        return ids;
+    }
+
+    /**
+     * Keep the match if it is among the best {@code limit} seen so far
+     */
+    private static void keepBest(PriorityQueue<Scored> best, Scored match, int limit) {
+        if (best.size() < limit) {
+            best.add(match);
+        } else if (limit > 0 && BEST_FIRST.compare(match, best.peek()) < 0) {
+            best.poll();
+            best.add(match);
+        }
+    }
+
+    /**
+     * Index a name, replacing the postings of the previous one.
+     * Callers serialize updates of the same product.
+     */
+    void put(Long productId, String previousName, String name) {
+        String previous = normalize(previousName);
+        String next = normalize(name);
+        if (previousName != null && previous.equals(next)) {
+            return;
+        }
+        if (previousName != null) {
+            unlink(productId, previous);
+        }
+        Set<String> grams = trigrams(next);
+        for (String gram : grams) {
+            postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(productId);
+        }
+        gramCounts.put(productId, grams.size());
+    }
+
+    void remove(Long productId, String previousName) {
+        gramCounts.remove(productId);
+        if (previousName != null) {
+            unlink(productId, normalize(previousName));
+        }
+    }
+
+    private void unlink(Long productId, String name) {
+        for (String gram : trigrams(name)) {
+            postings.computeIfPresent(gram, (key, ids) -> {
+                ids.remove(productId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    private static boolean containsAll(List<Set<Long>> lists, Long id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> trigrams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static final class Scored {
+        private final Long id;
+        private final String name;
+        private final double score;
+
+        private Scored(Long id, String name, double score) {
+            this.id = id;
+            this.name = name;
+            this.score = score;
+        }
+    }
+}
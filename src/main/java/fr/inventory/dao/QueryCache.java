@@ -0,0 +1,181 @@
+package fr.inventory.dao;
+
+import fr.inventory.utils.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Cache of DAO query results keyed by query name and parameters.
+ * Each entry records the version of every table the query read; the DAO write paths bump
+ * those versions through {@link #invalidate(Table)}, so an entry is only served while none
+ * of its tables changed. Versions are bumped both when the write runs and after it commits,
+ * so a result loaded concurrently with an uncommitted write is never kept.
+ * Inside a {@link TransactionTemplate} unit of work the cache is bypassed, as the unit of
+ * work may read its own uncommitted rows.
+ * The cache is bounded by the number of rows it holds, {@code inventory.cache.query.maxRows}
+ * (default 50000), least recently used first out: a list result weighs its size, any other
+ * value weighs one row. A result weighing more than a quarter of that budget (a whole table,
+ * a wide date range...) is returned without being cached, so it neither evicts everything
+ * else nor gets deep-copied on every hit.
+ */
+public class QueryCache {
+    private static final long DEFAULT_MAX_ROWS = 50_000;
+
+    /**
+     * Tables whose versions are tracked
+     */
+    public enum Table {
+        PRODUCTS,
+        TRANSACTIONS
+    }
+
+    private static final QueryCache shared = new QueryCache(Long.getLong("inventory.cache.query.maxRows", DEFAULT_MAX_ROWS));
+
+    private final long maxRows;
+    private final long maxEntryRows;
+    private long cachedRows = 0;
+    private final AtomicLongArray versions = new AtomicLongArray(Table.values().length);
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param maxRows total weight of the cached results, in rows
+     */
+    public QueryCache(long maxRows) {
+        if (maxRows <= 0) {
+            throw new IllegalArgumentException("Query cache size must be positive");
+        }
+        this.maxRows = maxRows;
+        this.maxEntryRows = Math.max(1, maxRows / 4);
+    }
+
+    /**
+     * Cache shared by the DAOs of this application.
+     */
+    public static QueryCache shared() {
+        return shared;
+    }
+
+    /**
+     * Cached result of an immutable value (count, counters record...)
+     */
+    public <T> T get(String query, Set<Table> tables, Supplier<T> loader, Object... params) {
+        return getCopied(query, tables, loader, UnaryOperator.identity(), params);
+    }
+
+    /**
+     * Cached result of a query
+     * @param query name identifying the query
+     * @param tables tables the query reads
+     * @param loader runs the query on a miss
+     * @param copier copies a result so callers never share a mutable cached value
+     * @param params query parameters, part of the key
+     */
+    public <T> T getCopied(String query, Set<Table> tables, Supplier<T> loader, UnaryOperator<T> copier, Object... params) {
+        if (TransactionTemplate.isActive()) {
+            return loader.get();
+        }
+
+        Key key = new Key(query, Arrays.asList(params));
+        long[] current = snapshot(tables);
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && Arrays.equals(entry.versions, current)) {
+                hits.incrementAndGet();
+                @SuppressWarnings("unchecked")
+                T value = (T) entry.value;
+                return copier.apply(value);
+            }
+        }
+
+        misses.incrementAndGet();
+        T value = loader.get();
+        long weight = weigh(value);
+        if (weight <= maxEntryRows && Arrays.equals(snapshot(tables), current)) {
+            synchronized (entries) {
+                Entry previous = entries.put(key, new Entry(copier.apply(value), current, weight));
+                if (previous != null) {
+                    cachedRows -= previous.weight;
+                }
+                cachedRows += weight;
+                while (cachedRows > maxRows) {
+                    Entry eldest = entries.remove(entries.keySet().iterator().next());
+                    cachedRows -= eldest.weight;
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Mark a table as changed, now and once the active unit of work (if any) commits
+     */
+    public void invalidate(Table table) {
+        versions.incrementAndGet(table.ordinal());
+        TransactionTemplate.afterCommit(() -> versions.incrementAndGet(table.ordinal()));
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            cachedRows = 0;
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return rows held by the cached results
+     */
+    public long getCachedRows() {
+        synchronized (entries) {
+            return cachedRows;
+        }
+    }
+
+    private static long weigh(Object value) {
+        return value instanceof Collection<?> collection ? Math.max(1, collection.size()) : 1;
+    }
+
+    /**
+     * Versions of the given tables, indexed by ordinal (untracked tables stay 0)
+     */
+    private long[] snapshot(Set<Table> tables) {
+        long[] snapshot = new long[Table.values().length];
+        for (Table table : tables) {
+            snapshot[table.ordinal()] = versions.get(table.ordinal());
+        }
+        return snapshot;
+    }
+
+    private record Key(String query, List<Object> params) {
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final long[] versions;
+        private final long weight;
+
+        private Entry(Object value, long[] versions, long weight) {
+            this.value = value;
+            this.versions = versions;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package fr.inventory.dao;
+
+import fr.inventory.model.Transaction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Lock-free ring of the most recently written transactions, newest last.
+ * Writers claim a sequence number and store an immutable entry in its slot; readers walk
+ * back from the head and give up (returning null) as soon as a slot no longer holds the
+ * sequence they expect, so a lapped or half-written slot is never returned.
+ * The buffer only answers once it has been warmed from the database; {@link #invalidate()}
+ * makes it cold again until the next warm-up.
+ */
+class RecentTransactionBuffer {
+    private final int capacity;
+    private final AtomicReferenceArray<Entry> slots;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong epoch = new AtomicLong();
+
+    // The buffer is warm while warmedEpoch == epoch; entries below floor predate the warm-up
+    private volatile long warmedEpoch = -1;
+    private volatile long floor;
+
+    RecentTransactionBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Recent transaction buffer capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Append a committed transaction (a copy is stored).
+     * A transaction already loaded by a concurrent warm-up is not appended twice.
+     */
+    void publish(Transaction transaction) {
+        if (contains(transaction.getId())) {
+            return;
+        }
+        append(transaction);
+    }
+
+    private void append(Transaction transaction) {
+        long sequence = head.getAndIncrement();
+        slots.set(slot(sequence), new Entry(sequence, copyOf(transaction)));
+    }
+
+    /**
+     * Most recent transactions, newest first, or null if the buffer cannot answer
+     * (cold, limit above capacity, or a concurrent writer lapped the reader).
+     */
+    List<Transaction> recent(int limit) {
+        if (limit > capacity || warmedEpoch != epoch.get()) {
+            return null;
+        }
+
+        long end = head.get();
+        long start = Math.max(floor, end - limit);
+        List<Transaction> transactions = new ArrayList<>((int) (end - start));
+        for (long sequence = end - 1; sequence >= start; sequence--) {
+            Entry entry = slots.get(slot(sequence));
+            if (entry == null || entry.sequence != sequence) {
+                return null;
+            }
+            transactions.add(copyOf(entry.transaction));
+        }
+        return transactions;
+    }
+
+    /**
+     * Refill the buffer from the database.
+     * @param loader returns up to the given number of transactions, newest first
+     * @return true if the buffer is warm afterwards; false if a concurrent write or invalidation interfered
+     */
+    boolean warmUp(IntFunction<List<Transaction>> loader) {
+        long startEpoch = epoch.get();
+        long startHead = head.get();
+        List<Transaction> newestFirst = loader.apply(capacity);
+
+        for (int i = newestFirst.size() - 1; i >= 0; i--) {
+            append(newestFirst.get(i));
+        }
+
+        long expectedHead = startHead + newestFirst.size();
+        if (head.get() != expectedHead || epoch.get() != startEpoch) {
+            return false;
+        }
+        floor = startHead;
+        warmedEpoch = startEpoch;
+        return true;
+    }
+
+    /**
+     * Apply a change to the buffered copy of a transaction, if present.
+     */
+    void update(Long transactionId, Consumer<Transaction> change) {
+        long end = head.get();
+        for (long sequence = end - 1; sequence >= Math.max(0, end - capacity); sequence--) {
+            int slot = slot(sequence);
+            Entry entry = slots.get(slot);
+            while (entry != null && entry.sequence == sequence && transactionId.equals(entry.transaction.getId())) {
+                Transaction changed = copyOf(entry.transaction);
+                change.accept(changed);
+                if (slots.compareAndSet(slot, entry, new Entry(sequence, changed))) {
+                    return;
+                }
+                entry = slots.get(slot);
+            }
+        }
+    }
+
+    /**
+     * Make the buffer cold; reads fall back to the database until the next warm-up.
+     */
+    void invalidate() {
+        epoch.incrementAndGet();
+    }
+
+    private boolean contains(Long transactionId) {
+        if (transactionId == null) {
+            return false;
+        }
+        long end = head.get();
+        for (long sequence = end - 1; sequence >= Math.max(0, end - capacity); sequence--) {
+            Entry entry = slots.get(slot(sequence));
+            if (entry != null && entry.sequence == sequence && transactionId.equals(entry.transaction.getId())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % capacity);
+    }
+
+    private static Transaction copyOf(Transaction transaction) {
+        return new Transaction(transaction.getId(), transaction.getProductId(), transaction.getProductName(),
+                transaction.getQuantity(), transaction.getTransactionType(), transaction.getDescription(),
+                transaction.getUser(), transaction.getTimestamp(), transaction.getBlockchainTxHash(),
+                transaction.isSyncedToBlockchain());
+    }
+
+    private static final class Entry {
+        private final long sequence;
+        private final Transaction transaction;
+
+        private Entry(long sequence, Transaction transaction) {
+            this.sequence = sequence;
+            this.transaction = transaction;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package fr.inventory.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps the current row of a result set to an object.
+ * Instances are bound to one result set by a {@link RowMapperFactory}, which has already
+ * resolved the column indexes, so mapping a row does no label lookups.
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+    T mapRow(ResultSet rs) throws SQLException;
+}
@@ -0,0 +1,40 @@
+package fr.inventory.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Creates a {@link RowMapper} for a given column layout.
+ * Column indexes are resolved once in {@link #create(ColumnIndex)}; the returned mapper
+ * then reads every row by index.
+ */
+@FunctionalInterface
+public interface RowMapperFactory<T> {
+    RowMapper<T> create(ColumnIndex columns) throws SQLException;
+
+    /**
+     * Resolve the columns of this result set and return a mapper for its rows
+     */
+    default RowMapper<T> bind(ResultSet rs) throws SQLException {
+        return create(ColumnIndex.of(rs));
+    }
+
+    /**
+     * Return a mapper for the rows of a result set produced by the given SQL.
+     * Factories returned by {@link #cachedPerStatement(RowMapperFactory)} reuse the mapper
+     * bound for the first result set of the same statement; others bind every time.
+     */
+    default RowMapper<T> bind(String sql, ResultSet rs) throws SQLException {
+        return bind(rs);
+    }
+
+    /**
+     * Wrap a factory so the column indexes of each SQL statement are resolved only once
+     * while it stays among the recently used statements.
+     * A statement's column layout does not change while the application runs (migrations
+     * complete before the pool is handed out), so the first binding serves every later one.
+     */
+    static <T> RowMapperFactory<T> cachedPerStatement(RowMapperFactory<T> factory) {
+        return new CachedRowMapperFactory<>(factory);
+    }
+}
@@ -0,0 +1,129 @@
+package fr.inventory.dao;
+
+import fr.inventory.model.Product;
+import fr.inventory.model.ProductRow;
+import fr.inventory.model.Transaction;
+import fr.inventory.model.TransactionRow;
+import fr.inventory.model.TransactionType;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Row mappers shared by the DAO implementations.
+ * Each factory resolves its column indexes once per SQL statement and builds entities through
+ * their full constructors, so no setter side effects (such as re-stamping updatedAt) apply.
+ */
+final class RowMappers {
+
+    static final RowMapperFactory<Product> PRODUCT = RowMapperFactory.cachedPerStatement(columns -> {
+        int id = columns.require("id");
+        int name = columns.require("name");
+        int description = columns.require("description");
+        int currentStock = columns.require("current_stock");
+        int minStock = columns.require("min_stock");
+        int price = columns.require("price");
+        int active = columns.require("is_active");
+        int createdAt = columns.require("created_at");
+        int updatedAt = columns.require("updated_at");
+        return rs -> new Product(
+            rs.getLong(id),
+            rs.getString(name),
+            rs.getString(description),
+            rs.getLong(currentStock),
+            rs.getLong(minStock),
+            rs.getBigDecimal(price),
+            rs.getBoolean(active),
+            toLocalDateTime(rs.getTimestamp(createdAt)),
+            toLocalDateTime(rs.getTimestamp(updatedAt))
+        );
+    });
+
+    /**
+     * Product rows without their description, which views load on demand
+     */
+    static final RowMapperFactory<ProductRow> PRODUCT_ROW = RowMapperFactory.cachedPerStatement(columns -> {
+        int id = columns.require("id");
+        int name = columns.require("name");
+        int currentStock = columns.require("current_stock");
+        int minStock = columns.require("min_stock");
+        int price = columns.require("price");
+        int active = columns.require("is_active");
+        int createdAt = columns.require("created_at");
+        return rs -> new ProductRow(
+            rs.getLong(id),
+            rs.getString(name),
+            null,
+            rs.getLong(currentStock),
+            rs.getLong(minStock),
+            rs.getBigDecimal(price),
+            rs.getBoolean(active),
+            toLocalDateTime(rs.getTimestamp(createdAt))
+        );
+    });
+
+    /**
+     * Transactions without their product name; callers fill it from the {@link ProductNameDictionary}
+     */
+    static final RowMapperFactory<Transaction> TRANSACTION = RowMapperFactory.cachedPerStatement(columns -> {
+        int id = columns.require("id");
+        int productId = columns.require("product_id");
+        int quantity = columns.require("quantity");
+        int type = columns.require("transaction_type");
+        int description = columns.require("description");
+        int user = columns.require("user_name");
+        int timestamp = columns.require("timestamp");
+        int blockchainTxHash = columns.require("blockchain_tx_hash");
+        int synced = columns.require("synced_to_blockchain");
+        return rs -> new Transaction(
+            rs.getLong(id),
+            rs.getLong(productId),
+            null,
+            rs.getLong(quantity),
+            TransactionType.valueOf(rs.getString(type)),
+            rs.getString(description),
+            rs.getString(user),
+            toLocalDateTime(rs.getTimestamp(timestamp)),
+            rs.getString(blockchainTxHash),
+            rs.getBoolean(synced)
+        );
+    });
+
+    private RowMappers() {
+    }
+
+    /**
+     * Transaction rows named from memory; names missing from the dictionary are left null.
+     * The description is not read: views load it on demand.
+     */
+    static RowMapperFactory<TransactionRow> transactionRow(ProductNameDictionary productNames) {
+        return RowMapperFactory.cachedPerStatement(columns -> {
+            int id = columns.require("id");
+            int productId = columns.require("product_id");
+            int quantity = columns.require("quantity");
+            int type = columns.require("transaction_type");
+            int user = columns.require("user_name");
+            int timestamp = columns.require("timestamp");
+            int synced = columns.require("synced_to_blockchain");
+            return rs -> {
+                long product = rs.getLong(productId);
+                return new TransactionRow(
+                    rs.getLong(id),
+                    product,
+                    productNames.get(product),
+                    rs.getLong(quantity),
+                    TransactionType.valueOf(rs.getString(type)),
+                    null,
+                    rs.getString(user),
+                    toLocalDateTime(rs.getTimestamp(timestamp)),
+                    rs.getBoolean(synced)
+                );
+            };
+        });
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
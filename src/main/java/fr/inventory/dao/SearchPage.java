@@ -0,0 +1,41 @@
+package fr.inventory.dao;
+
+import java.util.List;
+
+/**
+ * One page of search hits, newest first.
+ * Pass {@link #getNextAfterId()} back to the search to fetch the following page.
+ */
+public final class SearchPage {
+    private final List<Long> ids;
+    private final long totalHits;
+    private final Long nextAfterId;
+
+    public SearchPage(List<Long> ids, long totalHits, Long nextAfterId) {
+        this.ids = List.copyOf(ids);
+        this.totalHits = totalHits;
+        this.nextAfterId = nextAfterId;
+    }
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    /**
+     * @return number of matches over all pages
+     */
+    public long getTotalHits() {
+        return totalHits;
+    }
+
+    /**
+     * @return the ID to pass to fetch the following page, or null on the last page
+     */
+    public Long getNextAfterId() {
+        return nextAfterId;
+    }
+
+    public boolean hasNext() {
+        return nextAfterId != null;
+    }
+}
@@ -0,0 +1,209 @@
+package fr.inventory.dao;
+
+import fr.inventory.utils.DatabaseUtils;
+import fr.inventory.utils.TransactionTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Row counts kept in the {@code stats_counters} table.
+ * The DAOs add their deltas on the connection of the write itself, so counters commit or roll
+ * back with the rows they describe and statistics are read without counting the tables.
+ * {@link #verify()} recomputes every counter from the tables and corrects any drift
+ * (rows written by other tools, for instance).
+ */
+public class StatsCounters {
+    private static final Logger logger = LoggerFactory.getLogger(StatsCounters.class);
+
+    public enum Counter {
+        PRODUCTS_TOTAL("products.total"),
+        PRODUCTS_ACTIVE("products.active"),
+        TRANSACTIONS_TOTAL("transactions.total"),
+        TRANSACTIONS_PENDING("transactions.pending"),
+        TRANSACTIONS_IN("transactions.in"),
+        TRANSACTIONS_OUT("transactions.out"),
+        TRANSACTIONS_TRANSFER("transactions.transfer");
+
+        private final String key;
+
+        Counter(String key) {
+            this.key = key;
+        }
+
+        public String getKey() {
+            return key;
+        }
+    }
+
+    private static final Map<String, Counter> BY_KEY = new HashMap<>();
+
+    static {
+        for (Counter counter : Counter.values()) {
+            BY_KEY.put(counter.getKey(), counter);
+        }
+    }
+
+    private final TransactionTemplate transactionTemplate = new TransactionTemplate();
+    // Repeatable read gives the counter and count queries of verify() the same snapshot
+    private final TransactionTemplate snapshotTemplate =
+            new TransactionTemplate(Connection.TRANSACTION_REPEATABLE_READ, 3, 50);
+    private final QueryCache queryCache = QueryCache.shared();
+
+    /**
+     * Add the deltas to their counters on the given connection (the caller's transaction)
+     */
+    static void add(Connection conn, Map<Counter, Long> deltas) throws SQLException {
+        String sql = "UPDATE stats_counters SET counter_value = counter_value + ? WHERE counter_name = ?";
+        boolean pending = false;
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (Map.Entry<Counter, Long> delta : deltas.entrySet()) {
+                if (delta.getValue() != 0) {
+                    stmt.setLong(1, delta.getValue());
+                    stmt.setString(2, delta.getKey().getKey());
+                    stmt.addBatch();
+                    pending = true;
+                }
+            }
+            if (pending) {
+                stmt.executeBatch();
+            }
+        }
+    }
+
+    /**
+     * Current value of every counter
+     */
+    public Map<Counter, Long> readAll() {
+        try (Connection conn = DatabaseUtils.getConnection()) {
+            Map<Counter, Long> values = read(conn, "SELECT counter_name, counter_value FROM stats_counters");
+            for (Counter counter : Counter.values()) {
+                values.putIfAbsent(counter, 0L);
+            }
+            return values;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error reading stats counters: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Recompute every counter from the tables and fix the ones that drifted.
+     * The counters and the counts are read from one consistent snapshot without locking
+     * anything, so the difference between them is the drift whatever writers commit
+     * meanwhile. Each drifted counter is then corrected by adding that difference, in a short
+     * unit of work that only locks the counter rows it updates.
+     * @return number of counters corrected
+     */
+    public int verify() {
+        Map<Counter, Long> stored = new EnumMap<>(Counter.class);
+        Map<Counter, Long> actual = new EnumMap<>(Counter.class);
+        snapshotTemplate.execute(() -> {
+            try {
+                Connection conn = DatabaseUtils.getConnection();
+                stored.putAll(read(conn, "SELECT counter_name, counter_value FROM stats_counters"));
+                actual.putAll(recompute(conn));
+                return null;
+            } catch (SQLException e) {
+                throw new RuntimeException("Error verifying stats counters: " + e.getMessage(), e);
+            }
+        });
+
+        Map<Counter, Long> drifts = new EnumMap<>(Counter.class);
+        for (Counter counter : Counter.values()) {
+            Long storedValue = stored.get(counter);
+            long actualValue = actual.get(counter);
+            if (storedValue == null || storedValue != actualValue) {
+                logger.warn("Stats counter {} drifted: stored {}, actual {}", counter.getKey(), storedValue, actualValue);
+                drifts.put(counter, storedValue != null ? actualValue - storedValue : actualValue);
+            }
+        }
+        if (drifts.isEmpty()) {
+            return 0;
+        }
+
+        transactionTemplate.execute(() -> {
+            String sql = "UPDATE stats_counters SET counter_value = counter_value + ? WHERE counter_name = ?";
+            String insertSql = "INSERT INTO stats_counters (counter_name, counter_value) VALUES (?, ?)";
+            try {
+                Connection conn = DatabaseUtils.getConnection();
+                for (Map.Entry<Counter, Long> drift : drifts.entrySet()) {
+                    boolean missing = stored.get(drift.getKey()) == null;
+                    try (PreparedStatement stmt = conn.prepareStatement(missing ? insertSql : sql)) {
+                        if (missing) {
+                            stmt.setString(1, drift.getKey().getKey());
+                            stmt.setLong(2, drift.getValue());
+                        } else {
+                            stmt.setLong(1, drift.getValue());
+                            stmt.setString(2, drift.getKey().getKey());
+                        }
+                        stmt.executeUpdate();
+                    }
+                }
+                return null;
+            } catch (SQLException e) {
+                throw new RuntimeException("Error correcting stats counters: " + e.getMessage(), e);
+            }
+        });
+
+        queryCache.invalidate(QueryCache.Table.PRODUCTS);
+        queryCache.invalidate(QueryCache.Table.TRANSACTIONS);
+        return drifts.size();
+    }
+
+    private static Map<Counter, Long> read(Connection conn, String sql) throws SQLException {
+        Map<Counter, Long> values = new EnumMap<>(Counter.class);
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                Counter counter = BY_KEY.get(rs.getString(1));
+                if (counter != null) {
+                    values.put(counter, rs.getLong(2));
+                }
+            }
+        }
+        return values;
+    }
+
+    private Map<Counter, Long> recompute(Connection conn) throws SQLException {
+        String productsSql = """
+            SELECT COUNT(*),
+                   SUM(CASE WHEN is_active = true THEN 1 ELSE 0 END)
+            FROM products
+        """;
+        String transactionsSql = """
+            SELECT COUNT(*),
+                   SUM(CASE WHEN synced_to_blockchain = false THEN 1 ELSE 0 END),
+                   SUM(CASE WHEN transaction_type = 'IN' THEN 1 ELSE 0 END),
+                   SUM(CASE WHEN transaction_type = 'OUT' THEN 1 ELSE 0 END),
+                   SUM(CASE WHEN transaction_type = 'TRANSFER' THEN 1 ELSE 0 END)
+            FROM transactions
+        """;
+        Map<Counter, Long> values = new EnumMap<>(Counter.class);
+
+        try (PreparedStatement stmt = conn.prepareStatement(productsSql);
+             ResultSet rs = stmt.executeQuery()) {
+            rs.next();
+            values.put(Counter.PRODUCTS_TOTAL, rs.getLong(1));
+            values.put(Counter.PRODUCTS_ACTIVE, rs.getLong(2));
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(transactionsSql);
+             ResultSet rs = stmt.executeQuery()) {
+            rs.next();
+            values.put(Counter.TRANSACTIONS_TOTAL, rs.getLong(1));
+            values.put(Counter.TRANSACTIONS_PENDING, rs.getLong(2));
+            values.put(Counter.TRANSACTIONS_IN, rs.getLong(3));
+            values.put(Counter.TRANSACTIONS_OUT, rs.getLong(4));
+            values.put(Counter.TRANSACTIONS_TRANSFER, rs.getLong(5));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,41 @@
+package fr.inventory.dao;
+
+import java.util.Objects;
+
+/**
+ * Stock of one product against its minimum, as tracked by {@link LowStockMonitor}.
+ */
+public final class StockLevel {
+    private final Long productId;
+    private final String productName;
+    private final long currentStock;
+    private final long minStock;
+
+    public StockLevel(Long productId, String productName, long currentStock, long minStock) {
+        this.productId = productId;
+        this.productName = productName;
+        this.currentStock = currentStock;
+        this.minStock = minStock;
+    }
+
+    public Long getProductId() { return productId; }
+    public String getProductName() { return productName; }
+    public long getCurrentStock() { return currentStock; }
+    public long getMinStock() { return minStock; }
+
+    /**
+     * @return stock above the minimum; zero or less means low stock
+     */
+    public long getMargin() {
+        return currentStock - minStock;
+    }
+
+    public boolean isLow() {
+        return getMargin() <= 0;
+    }
+
+    boolean sameAs(StockLevel other) {
+        return currentStock == other.currentStock && minStock == other.minStock
+                && Objects.equals(productName, other.productName);
+    }
+}
@@ -0,0 +1,26 @@
+package fr.inventory.dao;
+
+/**
+ * Transaction counters computed by a single aggregate query.
+ */
+public final class TransactionCounts {
+    private final long total;
+    private final long pending;
+    private final long in;
+    private final long out;
+    private final long transfer;
+
+    public TransactionCounts(long total, long pending, long in, long out, long transfer) {
+        this.total = total;
+        this.pending = pending;
+        this.in = in;
+        this.out = out;
+        this.transfer = transfer;
+    }
+
+    public long getTotal() { return total; }
+    public long getPending() { return pending; }
+    public long getIn() { return in; }
+    public long getOut() { return out; }
+    public long getTransfer() { return transfer; }
+}
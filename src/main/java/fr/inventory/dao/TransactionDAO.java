@@ -1,11 +1,14 @@
 package fr.inventory.dao;
 
 import fr.inventory.model.Transaction;
+import fr.inventory.model.TransactionRow;
 import fr.inventory.model.TransactionType;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface TransactionDAO {
     
@@ -16,6 +19,13 @@ public interface TransactionDAO {
      */
     Transaction create(Transaction transaction);
     
+    /**
+     * Create several transactions using JDBC batches
+     * @param transactions the transactions to create
+     * @return the same transactions with generated IDs, in input order
+     */
+    List<Transaction> createAll(List<Transaction> transactions);
+    
     /**
      * Find a transaction by ID
      * @param id the transaction ID
@@ -29,6 +39,19 @@ public interface TransactionDAO {
      */
     List<Transaction> findAll();
     
+    /**
+     * Find all transactions as lightweight rows (no blockchain hash, no description)
+     * @return list of transaction rows ordered by timestamp desc
+     */
+    List<TransactionRow> findAllRows();
+    
+    /**
+     * Load the truncated descriptions of a few transactions, such as the rows on screen
+     * @param ids the transaction IDs
+     * @return description preview by transaction ID; deleted transactions are absent
+     */
+    Map<Long, String> findDescriptionPreviews(List<Long> ids);
+    
     /**
      * Find transactions by product ID
      * @param productId the product ID
@@ -81,7 +104,7 @@ public interface TransactionDAO {
     /**
      * Mark transaction as synced to blockchain
      * @param transactionId the transaction ID
-     * @return true if updated successfully
+     * @return true if updated, false if the transaction does not exist or was already synced
      */
     boolean markAsSynced(Long transactionId);
     
@@ -118,10 +141,77 @@ public interface TransactionDAO {
      */
     long countPending();
     
+    /**
+     * Count total, pending and per-type transactions with a single query
+     * @return transaction counters
+     */
+    TransactionCounts getCounts();
+    
     /**
      * Get recent transactions (last N transactions)
      * @param limit number of transactions to retrieve
      * @return list of recent transactions
      */
     List<Transaction> findRecent(int limit);
+    
+    /**
+     * Find a page of transactions using keyset pagination
+     * @param cursor position after which the page starts, or null for the first page
+     * @param limit maximum number of transactions in the page
+     * @return the page ordered by timestamp desc, id desc
+     */
+    Page<Transaction> findPage(PageCursor cursor, int limit);
+    
+    /**
+     * Find a page of transactions for a product using keyset pagination
+     * @param productId the product ID
+     * @param cursor position after which the page starts, or null for the first page
+     * @param limit maximum number of transactions in the page
+     * @return the page ordered by timestamp desc, id desc
+     */
+    Page<Transaction> findPageByProductId(Long productId, PageCursor cursor, int limit);
+    
+    /**
+     * Find a page of transactions of a type using keyset pagination
+     * @param transactionType the transaction type
+     * @param cursor position after which the page starts, or null for the first page
+     * @param limit maximum number of transactions in the page
+     * @return the page ordered by timestamp desc, id desc
+     */
+    Page<Transaction> findPageByType(TransactionType transactionType, PageCursor cursor, int limit);
+    
+    /**
+     * Find a page of transactions made by a user using keyset pagination
+     * @param user the user name
+     * @param cursor position after which the page starts, or null for the first page
+     * @param limit maximum number of transactions in the page
+     * @return the page ordered by timestamp desc, id desc
+     */
+    Page<Transaction> findPageByUser(String user, PageCursor cursor, int limit);
+    
+    /**
+     * Find a page of pending transactions using keyset pagination
+     * @param cursor position after which the page starts, or null for the first page
+     * @param limit maximum number of transactions in the page
+     * @return the page ordered by timestamp desc, id desc
+     */
+    Page<Transaction> findPendingPage(PageCursor cursor, int limit);
+    
+    /**
+     * Stream every transaction to a callback in ID order without materializing the result set.
+     * The action must not run other queries on the same connection (e.g. inside a unit of work),
+     * since the driver streams rows over it.
+     * @param action callback invoked for each transaction
+     * @return number of transactions processed
+     */
+    long forEach(Consumer<Transaction> action);
+    
+    /**
+     * Stream transactions within a date range to a callback in ID order
+     * @param startDate start date
+     * @param endDate end date
+     * @param action callback invoked for each transaction
+     * @return number of transactions processed
+     */
+    long forEachInDateRange(LocalDateTime startDate, LocalDateTime endDate, Consumer<Transaction> action);
 }
\ No newline at end of file
@@ -1,32 +1,86 @@
 package fr.inventory.dao;
 
 import fr.inventory.model.Transaction;
+import fr.inventory.model.TransactionRow;
 import fr.inventory.model.TransactionType;
 import fr.inventory.utils.DatabaseUtils;
+import fr.inventory.utils.TransactionTemplate;
 
 import java.sql.*;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public class TransactionDAOImpl implements TransactionDAO {
+    private static final int DEFAULT_BATCH_SIZE = 500;
+    private static final int STREAM_FETCH_SIZE = 1000;
+    private static final int DEFAULT_RECENT_BUFFER_SIZE = 50;
+    
+    // The timestamp is written explicitly so the copy published to the recent buffer matches the stored row
+    private static final String INSERT_SQL = """
+        INSERT INTO transactions (product_id, quantity, transaction_type, description, user_name, blockchain_tx_hash, synced_to_blockchain, timestamp) 
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+    """;
+
+    // Columns needed by table views; the TEXT description is loaded on demand (findDescriptionPreviews)
+    private static final String ROW_COLUMNS = "t.id, t.product_id, t.quantity, t.transaction_type, t.user_name, t.timestamp, "
+            + "t.synced_to_blockchain";
+
+    private static final Set<QueryCache.Table> TRANSACTION_TABLES = EnumSet.of(QueryCache.Table.TRANSACTIONS);
+    // Rows carry product names, so renames must invalidate them too
+    private static final Set<QueryCache.Table> ROW_TABLES = EnumSet.of(QueryCache.Table.TRANSACTIONS, QueryCache.Table.PRODUCTS);
+
+    private final int batchSize;
+    private final RecentTransactionBuffer recentTransactions;
+    private final ProductNameDictionary productNames = ProductNameDictionary.shared();
+    private final ProductCompletionIndex completions = ProductCompletionIndex.shared();
+    private final TransactionTextIndex textIndex = TransactionTextIndex.shared();
+    private final QueryCache queryCache = QueryCache.shared();
+    private final StatsCounters statsCounters = new StatsCounters();
+    private final TransactionTemplate transactionTemplate = new TransactionTemplate();
+    private final RowMapperFactory<TransactionRow> transactionRowMapper = RowMappers.transactionRow(productNames);
+
+    public TransactionDAOImpl() {
+        this(Integer.getInteger("inventory.db.batchSize", DEFAULT_BATCH_SIZE),
+             Integer.getInteger("inventory.db.recentBufferSize", DEFAULT_RECENT_BUFFER_SIZE));
+    }
+
+    /**
+     * @param batchSize maximum number of rows sent per JDBC batch by {@link #createAll(List)}
+     */
+    public TransactionDAOImpl(int batchSize) {
+        this(batchSize, DEFAULT_RECENT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param batchSize maximum number of rows sent per JDBC batch by {@link #createAll(List)}
+     * @param recentBufferSize number of latest transactions kept in memory for {@link #findRecent(int)}
+     */
+    public TransactionDAOImpl(int batchSize, int recentBufferSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.batchSize = batchSize;
+        this.recentTransactions = new RecentTransactionBuffer(recentBufferSize);
+    }
 
     @Override
     public Transaction create(Transaction transaction) {
-        String sql = """
-            INSERT INTO transactions (product_id, quantity, transaction_type, description, user_name, blockchain_tx_hash, synced_to_blockchain) 
-            VALUES (?, ?, ?, ?, ?, ?, ?)
-        """;
-        
-        try (PreparedStatement stmt = DatabaseUtils.prepareStatementWithGeneratedKeys(sql)) {
-            stmt.setLong(1, transaction.getProductId());
-            stmt.setLong(2, transaction.getQuantity());
-            stmt.setString(3, transaction.getTransactionType().name());
-            stmt.setString(4, transaction.getDescription());
-            stmt.setString(5, transaction.getUser());
-            stmt.setString(6, transaction.getBlockchainTxHash());
-            stmt.setBoolean(7, transaction.isSyncedToBlockchain());
+        // The row and its counters commit together
+        return transactionTemplate.execute(() -> insert(transaction));
+    }
+
+    private Transaction insert(Transaction transaction) {
+        try (Connection conn = DatabaseUtils.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            bindInsertParameters(stmt, transaction);
             
             int affectedRows = stmt.executeUpdate();
             if (affectedRows == 0) {
@@ -40,28 +94,106 @@ public class TransactionDAOImpl implements TransactionDAO {
                     throw new SQLException("Creating transaction failed, no ID obtained.");
                 }
             }
+            StatsCounters.add(conn, counterDeltas(transaction.getTransactionType(), transaction.isSyncedToBlockchain(), 1));
             
+            queryCache.invalidate(QueryCache.Table.TRANSACTIONS);
+            TransactionTemplate.afterCommit(() -> {
+                recentTransactions.publish(transaction);
+                completions.recordUse(transaction.getProductId());
+                textIndex.add(List.of(transaction));
+            });
             return transaction;
         } catch (SQLException e) {
             throw new RuntimeException("Error creating transaction: " + e.getMessage(), e);
         }
     }
 
+    @Override
+    public List<Transaction> createAll(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return transactions;
+        }
+        
+        try (Connection conn = DatabaseUtils.getConnection()) {
+            // All chunks commit together unless the caller already runs a unit of work
+            boolean ownTransaction = conn.getAutoCommit();
+            if (ownTransaction) {
+                conn.setAutoCommit(false);
+            }
+            
+            try (PreparedStatement stmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (int start = 0; start < transactions.size(); start += batchSize) {
+                    List<Transaction> chunk = transactions.subList(start, Math.min(start + batchSize, transactions.size()));
+                    
+                    for (Transaction transaction : chunk) {
+                        bindInsertParameters(stmt, transaction);
+                        stmt.addBatch();
+                    }
+                    // Sent as one multi-row INSERT; the driver derives the keys of every row
+                    // from the statement's first auto-increment value, in insertion order
+                    stmt.executeBatch();
+                    
+                    try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                        for (Transaction transaction : chunk) {
+                            if (!generatedKeys.next()) {
+                                throw new SQLException("Creating transactions failed, no ID obtained.");
+                            }
+                            transaction.setId(generatedKeys.getLong(1));
+                        }
+                    }
+                }
+                
+                Map<StatsCounters.Counter, Long> deltas = new EnumMap<>(StatsCounters.Counter.class);
+                for (Transaction transaction : transactions) {
+                    counterDeltas(transaction.getTransactionType(), transaction.isSyncedToBlockchain(), 1)
+                        .forEach((counter, delta) -> deltas.merge(counter, delta, Long::sum));
+                }
+                StatsCounters.add(conn, deltas);
+                
+                if (ownTransaction) {
+                    conn.commit();
+                }
+                queryCache.invalidate(QueryCache.Table.TRANSACTIONS);
+                TransactionTemplate.afterCommit(() -> {
+                    for (Transaction transaction : transactions) {
+                        recentTransactions.publish(transaction);
+                        completions.recordUse(transaction.getProductId());
+                    }
+                    textIndex.add(transactions);
+                });
+                return transactions;
+            } catch (SQLException e) {
+                if (ownTransaction) {
+                    conn.rollback();
+                }
+                throw e;
+            } finally {
+                if (ownTransaction) {
+                    conn.setAutoCommit(true);
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error creating transactions: " + e.getMessage(), e);
+        }
+    }
+
     @Override
     public Optional<Transaction> findById(Long id) {
         String sql = """
-            SELECT t.*, p.name as product_name 
+            SELECT t.* 
             FROM transactions t 
-            LEFT JOIN products p ON t.product_id = p.id 
             WHERE t.id = ?
         """;
         
-        try (PreparedStatement stmt = DatabaseUtils.prepareStatement(sql)) {
+        try (Connection conn = DatabaseUtils.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setLong(1, id);
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return Optional.of(mapResultSetToTransaction(rs));
+                    Transaction transaction = RowMappers.TRANSACTION.bind(sql, rs).mapRow(rs);
+                    productNames.fillNames(List.of(transaction));
+                    return Optional.of(transaction);
                 }
             }
         } catch (SQLException e) {
@@ -73,189 +205,266 @@ public class TransactionDAOImpl implements TransactionDAO {
 
     @Override
     public List<Transaction> findAll() {
+        // Names are filled on every read, so cached lists follow product renames
+        return productNames.fillNames(queryCache.getCopied("transactions.findAll", TRANSACTION_TABLES,
+                this::queryAll, TransactionDAOImpl::copyTransactions));
+    }
+
+    private List<Transaction> queryAll() {
         String sql = """
-            SELECT t.*, p.name as product_name 
+            SELECT t.* 
             FROM transactions t 
-            LEFT JOIN products p ON t.product_id = p.id 
             ORDER BY t.timestamp DESC
         """;
         List<Transaction> transactions = new ArrayList<>();
         
-        try (PreparedStatement stmt = DatabaseUtils.prepareStatement(sql);
+        try (Connection conn = DatabaseUtils.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
             
+            RowMapper<Transaction> mapper = RowMappers.TRANSACTION.bind(sql, rs);
             while (rs.next()) {
-                transactions.add(mapResultSetToTransaction(rs));
+                transactions.add(mapper.mapRow(rs));
             }
         } catch (SQLException e) {
             throw new RuntimeException("Error finding all transactions: " + e.getMessage(), e);
         }
         
-        return transactions;
+        return productNames.fillNames(transactions);
+    }
+
+    @Override
+    public List<TransactionRow> findAllRows() {
+        return queryCache.getCopied("transactions.findAllRows", ROW_TABLES, this::queryAllRows, ArrayList::new);
+    }
+
+    private List<TransactionRow> queryAllRows() {
+        String sql = "SELECT " + ROW_COLUMNS + " FROM transactions t ORDER BY t.timestamp DESC";
+        List<TransactionRow> rows = new ArrayList<>();
+        
+        productNames.ensureLoaded();
+        try (Connection conn = DatabaseUtils.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            
+            RowMapper<TransactionRow> mapper = transactionRowMapper.bind(sql, rs);
+            while (rs.next()) {
+                rows.add(mapper.mapRow(rs));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error finding transaction rows: " + e.getMessage(), e);
+        }
+        
+        return withProductNames(rows);
+    }
+
+    @Override
+    public Map<Long, String> findDescriptionPreviews(List<Long> ids) {
+        return DescriptionPreviews.load("transactions", ids, TransactionRow.DESCRIPTION_PREVIEW_LENGTH);
     }
 
     @Override
     public List<Transaction> findByProductId(Long productId) {
+        return productNames.fillNames(queryCache.getCopied("transactions.findByProductId", TRANSACTION_TABLES,
+                () -> queryByProductId(productId), TransactionDAOImpl::copyTransactions, productId));
+    }
+
+    private List<Transaction> queryByProductId(Long productId) {
         String sql = """
-            SELECT t.*, p.name as product_name 
+            SELECT t.* 
             FROM transactions t 
-            LEFT JOIN products p ON t.product_id = p.id 
             WHERE t.product_id = ? 
             ORDER BY t.timestamp DESC
         """;
         List<Transaction> transactions = new ArrayList<>();
         
-        try (PreparedStatement stmt = DatabaseUtils.prepareStatement(sql)) {
+        try (Connection conn = DatabaseUtils.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setLong(1, productId);
             
             try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper<Transaction> mapper = RowMappers.TRANSACTION.bind(sql, rs);
                 while (rs.next()) {
-                    transactions.add(mapResultSetToTransaction(rs));
+                    transactions.add(mapper.mapRow(rs));
                 }
             }
         } catch (SQLException e) {
             throw new RuntimeException("Error finding transactions by product ID: " + e.getMessage(), e);
         }
         
-        return transactions;
+        return productNames.fillNames(transactions);
     }
 
     @Override
     public List<Transaction> findByType(TransactionType transactionType) {
+        return productNames.fillNames(queryCache.getCopied("transactions.findByType", TRANSACTION_TABLES,
+                () -> queryByType(transactionType), TransactionDAOImpl::copyTransactions, transactionType));
+    }
+
+    private List<Transaction> queryByType(TransactionType transactionType) {
         String sql = """
-            SELECT t.*, p.name as product_name 
+            SELECT t.* 
             FROM transactions t 
-            LEFT JOIN products p ON t.product_id = p.id 
             WHERE t.transaction_type = ? 
             ORDER BY t.timestamp DESC
         """;
         List<Transaction> transactions = new ArrayList<>();
         
-        try (PreparedStatement stmt = DatabaseUtils.prepareStatement(sql)) {
+        try (Connection conn = DatabaseUtils.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, transactionType.name());
             
             try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper<Transaction> mapper = RowMappers.TRANSACTION.bind(sql, rs);
                 while (rs.next()) {
-                    transactions.add(mapResultSetToTransaction(rs));
+                    transactions.add(mapper.mapRow(rs));
                 }
             }
         } catch (SQLException e) {
             throw new RuntimeException("Error finding transactions by type: " + e.getMessage(), e);
         }
         
-        return transactions;
+        return productNames.fillNames(transactions);
     }
 
     @Override
     public List<Transaction> findByUser(String user) {
+        return productNames.fillNames(queryCache.getCopied("transactions.findByUser", TRANSACTION_TABLES,
+                () -> queryByUser(user), TransactionDAOImpl::copyTransactions, user));
+    }
+
+    private List<Transaction> queryByUser(String user) {
         String sql = """
-            SELECT t.*, p.name as product_name 
+            SELECT t.* 
             FROM transactions t 
-            LEFT JOIN products p ON t.product_id = p.id 
             WHERE t.user_name = ? 
             ORDER BY t.timestamp DESC
         """;
         List<Transaction> transactions = new ArrayList<>();
         
-        try (PreparedStatement stmt = DatabaseUtils.prepareStatement(sql)) {
+        try (Connection conn = DatabaseUtils.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, user);
             
             try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper<Transaction> mapper = RowMappers.TRANSACTION.bind(sql, rs);
                 while (rs.next()) {
-                    transactions.add(mapResultSetToTransaction(rs));
+                    transactions.add(mapper.mapRow(rs));
                 }
             }
         } catch (SQLException e) {
             throw new RuntimeException("Error finding transactions by user: " + e.getMessage(), e);
         }
         
-        return transactions;
+        return productNames.fillNames(transactions);
     }
 
     @Override
     public List<Transaction> findByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
+        return productNames.fillNames(queryCache.getCopied("transactions.findByDateRange", TRANSACTION_TABLES,
+                () -> queryByDateRange(startDate, endDate), TransactionDAOImpl::copyTransactions, startDate, endDate));
+    }
+
+    private List<Transaction> queryByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
         String sql = """
-            SELECT t.*, p.name as product_name 
+            SELECT t.* 
             FROM transactions t 
-            LEFT JOIN products p ON t.product_id = p.id 
             WHERE t.timestamp BETWEEN ? AND ? 
             ORDER BY t.timestamp DESC
         """;
         List<Transaction> transactions = new ArrayList<>();
         
-        try (PreparedStatement stmt = DatabaseUtils.prepareStatement(sql)) {
+        try (Connection conn = DatabaseUtils.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setTimestamp(1, Timestamp.valueOf(startDate));
             stmt.setTimestamp(2, Timestamp.valueOf(endDate));
             
             try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper<Transaction> mapper = RowMappers.TRANSACTION.bind(sql, rs);
                 while (rs.next()) {
-                    transactions.add(mapResultSetToTransaction(rs));
+                    transactions.add(mapper.mapRow(rs));
                 }
             }
         } catch (SQLException e) {
             throw new RuntimeException("Error finding transactions by date range: " + e.getMessage(), e);
         }
         
-        return transactions;
+        return productNames.fillNames(transactions);
     }
 
     @Override
     public List<Transaction> findPending() {
+        return productNames.fillNames(queryCache.getCopied("transactions.findPending", TRANSACTION_TABLES,
+                this::queryPending, TransactionDAOImpl::copyTransactions));
+    }
+
+    private List<Transaction> queryPending() {
         String sql = """
-            SELECT t.*, p.name as product_name 
+            SELECT t.* 
             FROM transactions t 
-            LEFT JOIN products p ON t.product_id = p.id 
             WHERE t.synced_to_blockchain = false 
             ORDER BY t.timestamp DESC
         """;
         List<Transaction> transactions = new ArrayList<>();
         
-        try (PreparedStatement stmt = DatabaseUtils.prepareStatement(sql);
+        try (Connection conn = DatabaseUtils.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
             
+            RowMapper<Transaction> mapper = RowMappers.TRANSACTION.bind(sql, rs);
             while (rs.next()) {
-                transactions.add(mapResultSetToTransaction(rs));
+                transactions.add(mapper.mapRow(rs));
             }
         } catch (SQLException e) {
             throw new RuntimeException("Error finding pending transactions: " + e.getMessage(), e);
         }
         
-        return transactions;
+        return productNames.fillNames(transactions);
     }
 
     @Override
     public List<Transaction> findSynced() {
+        return productNames.fillNames(queryCache.getCopied("transactions.findSynced", TRANSACTION_TABLES,
+                this::querySynced, TransactionDAOImpl::copyTransactions));
+    }
+
+    private List<Transaction> querySynced() {
         String sql = """
-            SELECT t.*, p.name as product_name 
+            SELECT t.* 
             FROM transactions t 
-            LEFT JOIN products p ON t.product_id = p.id 
             WHERE t.synced_to_blockchain = true 
             ORDER BY t.timestamp DESC
         """;
         List<Transaction> transactions = new ArrayList<>();
         
-        try (PreparedStatement stmt = DatabaseUtils.prepareStatement(sql);
+        try (Connection conn = DatabaseUtils.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
             
+            RowMapper<Transaction> mapper = RowMappers.TRANSACTION.bind(sql, rs);
             while (rs.next()) {
-                transactions.add(mapResultSetToTransaction(rs));
+                transactions.add(mapper.mapRow(rs));
             }
         } catch (SQLException e) {
             throw new RuntimeException("Error finding synced transactions: " + e.getMessage(), e);
         }
         
-        return transactions;
+        return productNames.fillNames(transactions);
     }
 
     @Override
     public boolean updateBlockchainHash(Long transactionId, String blockchainTxHash) {
         String sql = "UPDATE transactions SET blockchain_tx_hash = ? WHERE id = ?";
         
-        try (PreparedStatement stmt = DatabaseUtils.prepareStatement(sql)) {
+        try (Connection conn = DatabaseUtils.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, blockchainTxHash);
             stmt.setLong(2, transactionId);
             
             int affectedRows = stmt.executeUpdate();
+            queryCache.invalidate(QueryCache.Table.TRANSACTIONS);
+            TransactionTemplate.afterCommit(() -> 
+                recentTransactions.update(transactionId, t -> t.setBlockchainTxHash(blockchainTxHash)));
             return affectedRows > 0;
         } catch (SQLException e) {
             throw new RuntimeException("Error updating blockchain hash: " + e.getMessage(), e);
@@ -264,12 +473,22 @@ public class TransactionDAOImpl implements TransactionDAO {
 
     @Override
     public boolean markAsSynced(Long transactionId) {
-        String sql = "UPDATE transactions SET synced_to_blockchain = true WHERE id = ?";
+        return transactionTemplate.execute(() -> updateSynced(transactionId));
+    }
+
+    private boolean updateSynced(Long transactionId) {
+        // The guard makes affectedRows the number of transactions that actually left the pending state
+        String sql = "UPDATE transactions SET synced_to_blockchain = true WHERE id = ? AND synced_to_blockchain = false";
         
-        try (PreparedStatement stmt = DatabaseUtils.prepareStatement(sql)) {
+        try (Connection conn = DatabaseUtils.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setLong(1, transactionId);
             
             int affectedRows = stmt.executeUpdate();
+            StatsCounters.add(conn, Map.of(StatsCounters.Counter.TRANSACTIONS_PENDING, (long) -affectedRows));
+            queryCache.invalidate(QueryCache.Table.TRANSACTIONS);
+            TransactionTemplate.afterCommit(() -> 
+                recentTransactions.update(transactionId, t -> t.setSyncedToBlockchain(true)));
             return affectedRows > 0;
         } catch (SQLException e) {
             throw new RuntimeException("Error marking transaction as synced: " + e.getMessage(), e);
@@ -278,6 +497,10 @@ public class TransactionDAOImpl implements TransactionDAO {
 
     @Override
     public Transaction update(Transaction transaction) {
+        return transactionTemplate.execute(() -> updateRow(transaction));
+    }
+
+    private Transaction updateRow(Transaction transaction) {
         String sql = """
             UPDATE transactions 
             SET product_id = ?, quantity = ?, transaction_type = ?, description = ?, user_name = ?, 
@@ -285,7 +508,9 @@ public class TransactionDAOImpl implements TransactionDAO {
             WHERE id = ?
         """;
         
-        try (PreparedStatement stmt = DatabaseUtils.prepareStatement(sql)) {
+        try (Connection conn = DatabaseUtils.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            Optional<CountedState> previous = lockCountedState(conn, transaction.getId());
             stmt.setLong(1, transaction.getProductId());
             stmt.setLong(2, transaction.getQuantity());
             stmt.setString(3, transaction.getTransactionType().name());
@@ -299,7 +524,18 @@ public class TransactionDAOImpl implements TransactionDAO {
             if (affectedRows == 0) {
                 throw new SQLException("Updating transaction failed, no rows affected.");
             }
+            if (previous.isPresent()) {
+                Map<StatsCounters.Counter, Long> deltas = counterDeltas(previous.get().type(), previous.get().synced(), -1);
+                counterDeltas(transaction.getTransactionType(), transaction.isSyncedToBlockchain(), 1)
+                    .forEach((counter, delta) -> deltas.merge(counter, delta, Long::sum));
+                StatsCounters.add(conn, deltas);
+            }
             
+            queryCache.invalidate(QueryCache.Table.TRANSACTIONS);
+            TransactionTemplate.afterCommit(() -> {
+                recentTransactions.invalidate();
+                textIndex.replace(transaction);
+            });
             return transaction;
         } catch (SQLException e) {
             throw new RuntimeException("Error updating transaction: " + e.getMessage(), e);
@@ -308,12 +544,28 @@ public class TransactionDAOImpl implements TransactionDAO {
 
     @Override
     public boolean delete(Long id) {
+        return transactionTemplate.execute(() -> deleteRow(id));
+    }
+
+    private boolean deleteRow(Long id) {
         String sql = "DELETE FROM transactions WHERE id = ?";
         
-        try (PreparedStatement stmt = DatabaseUtils.prepareStatement(sql)) {
+        try (Connection conn = DatabaseUtils.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            Optional<CountedState> previous = lockCountedState(conn, id);
             stmt.setLong(1, id);
             
             int affectedRows = stmt.executeUpdate();
+            if (affectedRows > 0) {
+                if (previous.isPresent()) {
+                    StatsCounters.add(conn, counterDeltas(previous.get().type(), previous.get().synced(), -1));
+                }
+                queryCache.invalidate(QueryCache.Table.TRANSACTIONS);
+                TransactionTemplate.afterCommit(() -> {
+                    recentTransactions.invalidate();
+                    textIndex.remove(id);
+                });
+            }
             return affectedRows > 0;
         } catch (SQLException e) {
             throw new RuntimeException("Error deleting transaction: " + e.getMessage(), e);
@@ -322,100 +574,318 @@ public class TransactionDAOImpl implements TransactionDAO {
 
     @Override
     public long count() {
-        String sql = "SELECT COUNT(*) FROM transactions";
-        
-        try (PreparedStatement stmt = DatabaseUtils.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
-            
-            if (rs.next()) {
-                return rs.getLong(1);
-            }
-        } catch (SQLException e) {
-            throw new RuntimeException("Error counting transactions: " + e.getMessage(), e);
-        }
-        
-        return 0;
+        return queryCache.get("transactions.count", TRANSACTION_TABLES, this::queryCount);
+    }
+
+    private long queryCount() {
+        return statsCounters.readAll().get(StatsCounters.Counter.TRANSACTIONS_TOTAL);
     }
 
     @Override
     public long countByType(TransactionType transactionType) {
-        String sql = "SELECT COUNT(*) FROM transactions WHERE transaction_type = ?";
+        return queryCache.get("transactions.countByType", TRANSACTION_TABLES, () -> queryCountByType(transactionType),
+                transactionType);
+    }
+
+    private long queryCountByType(TransactionType transactionType) {
+        return statsCounters.readAll().get(typeCounter(transactionType));
+    }
+
+    @Override
+    public long countPending() {
+        return queryCache.get("transactions.countPending", TRANSACTION_TABLES, this::queryCountPending);
+    }
+
+    private long queryCountPending() {
+        return statsCounters.readAll().get(StatsCounters.Counter.TRANSACTIONS_PENDING);
+    }
+
+    @Override
+    public TransactionCounts getCounts() {
+        return queryCache.get("transactions.getCounts", TRANSACTION_TABLES, this::queryCounts);
+    }
+
+    private TransactionCounts queryCounts() {
+        Map<StatsCounters.Counter, Long> counters = statsCounters.readAll();
+        return new TransactionCounts(counters.get(StatsCounters.Counter.TRANSACTIONS_TOTAL),
+                counters.get(StatsCounters.Counter.TRANSACTIONS_PENDING),
+                counters.get(StatsCounters.Counter.TRANSACTIONS_IN),
+                counters.get(StatsCounters.Counter.TRANSACTIONS_OUT),
+                counters.get(StatsCounters.Counter.TRANSACTIONS_TRANSFER));
+    }
+
+    @Override
+    public List<Transaction> findRecent(int limit) {
+        if (limit <= recentTransactions.getCapacity()) {
+            List<Transaction> recent = recentTransactions.recent(limit);
+            if (recent == null && recentTransactions.warmUp(this::queryRecent)) {
+                recent = recentTransactions.recent(limit);
+            }
+            if (recent != null) {
+                return productNames.fillNames(recent);
+            }
+        }
+        return queryRecent(limit);
+    }
+
+    private List<Transaction> queryRecent(int limit) {
+        String sql = """
+            SELECT t.* 
+            FROM transactions t 
+            ORDER BY t.timestamp DESC 
+            LIMIT ?
+        """;
+        List<Transaction> transactions = new ArrayList<>();
         
-        try (PreparedStatement stmt = DatabaseUtils.prepareStatement(sql)) {
-            stmt.setString(1, transactionType.name());
+        try (Connection conn = DatabaseUtils.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, limit);
             
             try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getLong(1);
+                RowMapper<Transaction> mapper = RowMappers.TRANSACTION.bind(sql, rs);
+                while (rs.next()) {
+                    transactions.add(mapper.mapRow(rs));
                 }
             }
         } catch (SQLException e) {
-            throw new RuntimeException("Error counting transactions by type: " + e.getMessage(), e);
+            throw new RuntimeException("Error finding recent transactions: " + e.getMessage(), e);
         }
         
-        return 0;
+        return productNames.fillNames(transactions);
     }
 
     @Override
-    public long countPending() {
-        String sql = "SELECT COUNT(*) FROM transactions WHERE synced_to_blockchain = false";
+    public Page<Transaction> findPage(PageCursor cursor, int limit) {
+        return findPageWhere(null, cursor, limit, "Error finding transaction page");
+    }
+
+    @Override
+    public Page<Transaction> findPageByProductId(Long productId, PageCursor cursor, int limit) {
+        return findPageWhere("t.product_id = ?", cursor, limit,
+                "Error finding transaction page by product ID", productId);
+    }
+
+    @Override
+    public Page<Transaction> findPageByType(TransactionType transactionType, PageCursor cursor, int limit) {
+        return findPageWhere("t.transaction_type = ?", cursor, limit,
+                "Error finding transaction page by type", transactionType.name());
+    }
+
+    @Override
+    public Page<Transaction> findPageByUser(String user, PageCursor cursor, int limit) {
+        return findPageWhere("t.user_name = ?", cursor, limit,
+                "Error finding transaction page by user", user);
+    }
+
+    @Override
+    public Page<Transaction> findPendingPage(PageCursor cursor, int limit) {
+        return findPageWhere("t.synced_to_blockchain = false", cursor, limit,
+                "Error finding pending transaction page");
+    }
+
+    /**
+     * Seek-based page query: instead of an OFFSET, the cursor condition skips straight
+     * to the rows after (timestamp, id), so deep pages cost the same as the first one.
+     * The leading {@code timestamp <= ?} is the range the index seeks to; the OR alone
+     * leaves some optimizers walking the index from the top.
+     * One extra row is fetched to know whether a next page exists.
+     */
+    private Page<Transaction> findPageWhere(String filter, PageCursor cursor, int limit,
+                                            String errorMessage, Object... filterParams) {
+        StringBuilder sql = new StringBuilder("""
+            SELECT t.* 
+            FROM transactions t 
+            WHERE 1 = 1
+        """);
+        if (filter != null) {
+            sql.append(" AND ").append(filter);
+        }
+        if (cursor != null) {
+            sql.append(" AND t.timestamp <= ? AND (t.timestamp < ? OR t.id < ?)");
+        }
+        sql.append(" ORDER BY t.timestamp DESC, t.id DESC LIMIT ?");
         
-        try (PreparedStatement stmt = DatabaseUtils.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+        List<Transaction> transactions = new ArrayList<>();
+        
+        try (Connection conn = DatabaseUtils.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            int index = 1;
+            for (Object param : filterParams) {
+                stmt.setObject(index++, param);
+            }
+            if (cursor != null) {
+                Timestamp cursorTimestamp = Timestamp.valueOf(cursor.getTimestamp());
+                stmt.setTimestamp(index++, cursorTimestamp);
+                stmt.setTimestamp(index++, cursorTimestamp);
+                stmt.setLong(index++, cursor.getId());
+            }
+            stmt.setInt(index, limit + 1);
             
-            if (rs.next()) {
-                return rs.getLong(1);
+            try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper<Transaction> mapper = RowMappers.TRANSACTION.bind(sql.toString(), rs);
+                while (rs.next()) {
+                    transactions.add(mapper.mapRow(rs));
+                }
             }
         } catch (SQLException e) {
-            throw new RuntimeException("Error counting pending transactions: " + e.getMessage(), e);
+            throw new RuntimeException(errorMessage + ": " + e.getMessage(), e);
         }
         
-        return 0;
+        productNames.fillNames(transactions);
+        if (transactions.size() <= limit) {
+            return new Page<>(transactions, null);
+        }
+        
+        List<Transaction> items = transactions.subList(0, limit);
+        Transaction last = items.get(limit - 1);
+        return new Page<>(items, new PageCursor(last.getTimestamp(), last.getId()));
     }
 
     @Override
-    public List<Transaction> findRecent(int limit) {
+    public long forEach(Consumer<Transaction> action) {
         String sql = """
-            SELECT t.*, p.name as product_name 
+            SELECT t.* 
             FROM transactions t 
-            LEFT JOIN products p ON t.product_id = p.id 
-            ORDER BY t.timestamp DESC 
-            LIMIT ?
+            ORDER BY t.id
         """;
-        List<Transaction> transactions = new ArrayList<>();
+        return streamQuery(sql, action, "Error streaming transactions");
+    }
+
+    @Override
+    public long forEachInDateRange(LocalDateTime startDate, LocalDateTime endDate, Consumer<Transaction> action) {
+        String sql = """
+            SELECT t.* 
+            FROM transactions t 
+            WHERE t.timestamp BETWEEN ? AND ? 
+            ORDER BY t.id
+        """;
+        return streamQuery(sql, action, "Error streaming transactions by date range",
+                Timestamp.valueOf(startDate), Timestamp.valueOf(endDate));
+    }
+
+    /**
+     * Run a forward-only, read-only query and hand rows to the action one at a time.
+     * MySQL Connector/J only streams when the fetch size is Integer.MIN_VALUE; other
+     * drivers (H2) honour a regular fetch size. Memory use stays constant either way.
+     */
+    private long streamQuery(String sql, Consumer<Transaction> action, String errorMessage, Object... params) {
+        long count = 0;
         
-        try (PreparedStatement stmt = DatabaseUtils.prepareStatement(sql)) {
-            stmt.setInt(1, limit);
+        // Rows are named from memory: no other query may run while a MySQL stream is open
+        productNames.ensureLoaded();
+        
+        try (Connection conn = DatabaseUtils.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            boolean mysql = conn.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+            stmt.setFetchSize(mysql ? Integer.MIN_VALUE : STREAM_FETCH_SIZE);
+            for (int i = 0; i < params.length; i++) {
+                stmt.setObject(i + 1, params[i]);
+            }
             
             try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper<Transaction> mapper = RowMappers.TRANSACTION.bind(sql, rs);
                 while (rs.next()) {
-                    transactions.add(mapResultSetToTransaction(rs));
+                    Transaction transaction = mapper.mapRow(rs);
+                    transaction.setProductName(productNames.get(transaction.getProductId()));
+                    action.accept(transaction);
+                    count++;
                 }
             }
         } catch (SQLException e) {
-            throw new RuntimeException("Error finding recent transactions: " + e.getMessage(), e);
+            throw new RuntimeException(errorMessage + ": " + e.getMessage(), e);
         }
         
-        return transactions;
+        return count;
     }
 
-    private Transaction mapResultSetToTransaction(ResultSet rs) throws SQLException {
-        Transaction transaction = new Transaction();
-        transaction.setId(rs.getLong("id"));
-        transaction.setProductId(rs.getLong("product_id"));
-        transaction.setProductName(rs.getString("product_name"));
-        transaction.setQuantity(rs.getLong("quantity"));
-        transaction.setTransactionType(TransactionType.valueOf(rs.getString("transaction_type")));
-        transaction.setDescription(rs.getString("description"));
-        transaction.setUser(rs.getString("user_name"));
-        transaction.setBlockchainTxHash(rs.getString("blockchain_tx_hash"));
-        transaction.setSyncedToBlockchain(rs.getBoolean("synced_to_blockchain"));
+    private void bindInsertParameters(PreparedStatement stmt, Transaction transaction) throws SQLException {
+        stmt.setLong(1, transaction.getProductId());
+        stmt.setLong(2, transaction.getQuantity());
+        stmt.setString(3, transaction.getTransactionType().name());
+        stmt.setString(4, transaction.getDescription());
+        stmt.setString(5, transaction.getUser());
+        stmt.setString(6, transaction.getBlockchainTxHash());
+        stmt.setBoolean(7, transaction.isSyncedToBlockchain());
         
-        Timestamp timestamp = rs.getTimestamp("timestamp");
-        if (timestamp != null) {
-            transaction.setTimestamp(timestamp.toLocalDateTime());
+        // The column keeps whole seconds; truncate first so the model holds exactly what is stored
+        LocalDateTime timestamp = transaction.getTimestamp() != null ? transaction.getTimestamp() : LocalDateTime.now();
+        transaction.setTimestamp(timestamp.truncatedTo(ChronoUnit.SECONDS));
+        stmt.setTimestamp(8, Timestamp.valueOf(transaction.getTimestamp()));
+    }
+
+    /**
+     * Name rows whose product was created after the dictionary was loaded
+     */
+    private List<TransactionRow> withProductNames(List<TransactionRow> rows) {
+        List<Long> unnamed = new ArrayList<>();
+        for (TransactionRow row : rows) {
+            if (row.getProductName() == null) {
+                unnamed.add(row.getProductId());
+            }
+        }
+        if (unnamed.isEmpty()) {
+            return rows;
         }
         
-        return transaction;
+        productNames.resolve(unnamed);
+        rows.replaceAll(row -> row.getProductName() != null 
+            ? row : row.withProductName(productNames.get(row.getProductId())));
+        return rows;
+    }
+
+    private static List<Transaction> copyTransactions(List<Transaction> transactions) {
+        List<Transaction> copies = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            copies.add(new Transaction(transaction.getId(), transaction.getProductId(), transaction.getProductName(),
+                    transaction.getQuantity(), transaction.getTransactionType(), transaction.getDescription(),
+                    transaction.getUser(), transaction.getTimestamp(), transaction.getBlockchainTxHash(),
+                    transaction.isSyncedToBlockchain()));
+        }
+        return copies;
+    }
+
+    /**
+     * Counter deltas for adding (sign 1) or removing (sign -1) one transaction
+     */
+    private static Map<StatsCounters.Counter, Long> counterDeltas(TransactionType type, boolean synced, long sign) {
+        Map<StatsCounters.Counter, Long> deltas = new EnumMap<>(StatsCounters.Counter.class);
+        deltas.put(StatsCounters.Counter.TRANSACTIONS_TOTAL, sign);
+        deltas.put(typeCounter(type), sign);
+        if (!synced) {
+            deltas.put(StatsCounters.Counter.TRANSACTIONS_PENDING, sign);
+        }
+        return deltas;
+    }
+
+    private static StatsCounters.Counter typeCounter(TransactionType type) {
+        switch (type) {
+            case IN:
+                return StatsCounters.Counter.TRANSACTIONS_IN;
+            case OUT:
+                return StatsCounters.Counter.TRANSACTIONS_OUT;
+            case TRANSFER:
+            default:
+                return StatsCounters.Counter.TRANSACTIONS_TRANSFER;
+        }
+    }
+
+    /**
+     * Lock a transaction row and read the columns its counters depend on
+     */
+    private Optional<CountedState> lockCountedState(Connection conn, Long id) throws SQLException {
+        String sql = "SELECT transaction_type, synced_to_blockchain FROM transactions WHERE id = ? FOR UPDATE";
+        
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(new CountedState(TransactionType.valueOf(rs.getString(1)), rs.getBoolean(2)));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private record CountedState(TransactionType type, boolean synced) {
     }
 }
\ No newline at end of file
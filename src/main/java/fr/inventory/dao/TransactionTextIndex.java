@@ -0,0 +1,769 @@
+package fr.inventory.dao;
+
+import fr.inventory.model.Transaction;
+import fr.inventory.utils.DatabaseUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Inverted index over the description and user of transactions.
+ * Terms are lower-cased and stripped of accents; a query matches the transactions
+ * containing all of its terms. Hits are returned newest (highest ID) first.
+ *
+ * The index is persisted under {@code inventory.search.dir} (default ~/.inventory/search)
+ * as a checksummed segment file plus an append-only log of the changes made since.
+ * Changes are buffered in memory and written to the log by a background thread every
+ * {@code inventory.search.flushIntervalMillis} (default 1000) and by {@link #flush()}.
+ * The segment records a watermark of the table it reflects: the indexed IDs, the highest ID
+ * and the latest {@code updated_at} at the time it was written. On first use the segment is
+ * read and the log replayed, then transactions above the highest ID or updated since the
+ * watermark are indexed from the database; if the table then holds a different number of rows
+ * than the index (rows deleted behind the application's back), the index is rebuilt from the
+ * table. The log is folded into a new segment once it holds
+ * {@code inventory.search.compactThreshold} records (default 10000). That compaction runs on
+ * the background thread: the postings are copied under the read lock, so searches go on and
+ * writers only wait for the copy, and the segment is written and the watermark read outside
+ * any lock. The log is set aside as {@code transactions.log.old} until the new segment is in
+ * place; a start that finds it replays it before the current log.
+ * Each indexed ID keeps its own term list, so replacing or removing a transaction only
+ * touches the postings of its terms.
+ * If the files cannot be read or written the index keeps working from memory and is rebuilt
+ * from the database at the next start.
+ * {@link TransactionDAOImpl} reports creates, updates and deletes after commit.
+ */
+public class TransactionTextIndex {
+    private static final Logger logger = LoggerFactory.getLogger(TransactionTextIndex.class);
+
+    private static final int SEGMENT_MAGIC = 0x54584958;
+    private static final int SEGMENT_VERSION = 2;
+    private static final long NO_WATERMARK = Long.MIN_VALUE;
+    // Rows updated this long before the watermark are indexed again at load, in case their
+    // change was committed but not yet reported when the segment was written
+    private static final long WATERMARK_MARGIN_MILLIS = 60_000;
+    private static final byte LOG_ADD = 1;
+    private static final byte LOG_REMOVE = 2;
+    private static final int DEFAULT_COMPACT_THRESHOLD = 10_000;
+    private static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1_000;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final TransactionTextIndex shared = new TransactionTextIndex(
+            Paths.get(System.getProperty("inventory.search.dir",
+                    Paths.get(System.getProperty("user.home"), ".inventory", "search").toString())),
+            Integer.getInteger("inventory.search.compactThreshold", DEFAULT_COMPACT_THRESHOLD),
+            Long.getLong("inventory.search.flushIntervalMillis", DEFAULT_FLUSH_INTERVAL_MILLIS));
+
+    private final Path segmentFile;
+    private final Path logFile;
+    private final Path oldLogFile;
+    private final int compactThreshold;
+    private final long flushIntervalMillis;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, String[]> termsById = new HashMap<>();
+    private long maxIndexedId = 0;
+    private long updatedWatermark = NO_WATERMARK;
+    private int logRecords = 0;
+    private volatile boolean persistent = true;
+    private volatile boolean loaded = false;
+    private volatile boolean compactionQueued = false;
+
+    // Lock order: index lock, then logFileLock, then pendingLock.
+    // Segments are only written by the load and then by the flusher thread, one at a time
+    private final Object logFileLock = new Object();
+    private final Object pendingLock = new Object();
+    private final ByteArrayOutputStream pendingLog = new ByteArrayOutputStream();
+    private final DataOutputStream pendingOut = new DataOutputStream(pendingLog);
+    private ScheduledExecutorService flusher;
+
+    TransactionTextIndex(Path directory, int compactThreshold) {
+        this(directory, compactThreshold, DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+    TransactionTextIndex(Path directory, int compactThreshold, long flushIntervalMillis) {
+        this.segmentFile = directory.resolve("transactions.seg");
+        this.logFile = directory.resolve("transactions.log");
+        this.oldLogFile = directory.resolve("transactions.log.old");
+        this.compactThreshold = compactThreshold;
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    /**
+     * Index shared by the DAOs of this application.
+     */
+    public static TransactionTextIndex shared() {
+        return shared;
+    }
+
+    /**
+     * Transactions whose description or user contain every term of the query
+     * @param query free text; accents and case are ignored
+     * @param afterId ID returned by the previous page, or null for the first page
+     * @param limit maximum number of IDs in the page
+     */
+    public SearchPage search(String query, Long afterId, int limit) {
+        ensureLoaded();
+        Set<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return new SearchPage(List.of(), 0, null);
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Postings> lists = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Postings list = postings.get(term);
+                if (list == null) {
+                    return new SearchPage(List.of(), 0, null);
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+
+            Postings smallest = lists.get(0);
+            List<Long> ids = new ArrayList<>(limit);
+            long totalHits = 0;
+            Long nextAfterId = null;
+            for (int i = smallest.size - 1; i >= 0; i--) {
+                long id = smallest.ids[i];
+                if (!containsAll(lists, id)) {
+                    continue;
+                }
+                totalHits++;
+                if (afterId != null && id >= afterId) {
+                    continue;
+                }
+                if (ids.size() < limit) {
+                    ids.add(id);
+                } else if (nextAfterId == null) {
+                    nextAfterId = ids.get(ids.size() - 1);
+                }
+            }
+            return new SearchPage(ids, totalHits, nextAfterId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Load the index if that has not been done yet.
+     */
+    public void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                load();
+                loaded = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void add(Collection<Transaction> transactions) {
+        lock.writeLock().lock();
+        try {
+            List<LogRecord> records = new ArrayList<>(transactions.size());
+            for (Transaction transaction : transactions) {
+                records.add(LogRecord.add(transaction.getId(), termsOf(transaction.getDescription(), transaction.getUser())));
+            }
+            apply(records);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void replace(Transaction transaction) {
+        lock.writeLock().lock();
+        try {
+            // An add replaces the terms previously indexed for the ID
+            apply(List.of(LogRecord.add(transaction.getId(), termsOf(transaction.getDescription(), transaction.getUser()))));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Long transactionId) {
+        lock.writeLock().lock();
+        try {
+            apply(List.of(LogRecord.remove(transactionId)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Log the changes and, once loaded, apply them in memory.
+     * Before the first load the log alone carries them; loading replays it.
+     */
+    private void apply(List<LogRecord> records) {
+        if (loaded) {
+            for (LogRecord record : records) {
+                applyInMemory(record);
+            }
+        }
+        appendToLog(records);
+        if (loaded && persistent && logRecords >= compactThreshold && !compactionQueued) {
+            compactionQueued = true;
+            flusher.execute(this::compactInBackground);
+        }
+    }
+
+    /**
+     * Apply an add (replacing the ID's previous terms) or a remove
+     */
+    private void applyInMemory(LogRecord record) {
+        String[] previous = record.type == LOG_ADD ? termsById.put(record.id, record.terms) : termsById.remove(record.id);
+        if (previous != null) {
+            for (String term : previous) {
+                Postings list = postings.get(term);
+                if (list != null && list.remove(record.id) && list.size == 0) {
+                    postings.remove(term);
+                }
+            }
+        }
+        if (record.type == LOG_ADD) {
+            for (String term : record.terms) {
+                postings.computeIfAbsent(term, key -> new Postings()).add(record.id);
+            }
+            maxIndexedId = Math.max(maxIndexedId, record.id);
+        }
+    }
+
+    private void load() {
+        boolean segmentRead = readSegment();
+        // Changes logged before the first load may still be buffered
+        flush();
+
+        try {
+            if (segmentRead) {
+                // A compaction interrupted by a crash leaves the older part of the log aside
+                replayLog(oldLogFile);
+                replayLog(logFile);
+                indexChangedRows();
+                long tableRows = countRows();
+                if (tableRows != termsById.size()) {
+                    logger.info("Search index covers {} transactions but the table holds {}, rebuilding it",
+                            termsById.size(), tableRows);
+                    clearMemory();
+                    indexRows("SELECT id, description, user_name FROM transactions");
+                }
+            } else {
+                indexRows("SELECT id, description, user_name FROM transactions");
+            }
+        } catch (SQLException e) {
+            clearMemory();
+            throw new RuntimeException("Error loading transaction search index: " + e.getMessage(), e);
+        }
+
+        compact();
+    }
+
+    /**
+     * Index the rows inserted or updated since the segment's watermark
+     */
+    private void indexChangedRows() throws SQLException {
+        indexRows("SELECT id, description, user_name FROM transactions WHERE id > ? OR updated_at >= ?",
+                maxIndexedId, new Timestamp(updatedWatermark));
+    }
+
+    private void indexRows(String sql, Object... params) throws SQLException {
+        try (Connection conn = DatabaseUtils.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                stmt.setObject(i + 1, params[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    applyInMemory(LogRecord.add(rs.getLong(1), termsOf(rs.getString(2), rs.getString(3))));
+                }
+            }
+        }
+    }
+
+    private long countRows() throws SQLException {
+        try (Connection conn = DatabaseUtils.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT COUNT(*) FROM transactions");
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * Latest update time of the table, minus the safety margin, as the watermark of a new segment
+     */
+    private long readUpdatedWatermark() {
+        try (Connection conn = DatabaseUtils.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT MAX(updated_at) FROM transactions");
+             ResultSet rs = stmt.executeQuery()) {
+            Timestamp latest = rs.next() ? rs.getTimestamp(1) : null;
+            return latest != null ? latest.getTime() - WATERMARK_MARGIN_MILLIS : 0;
+        } catch (SQLException | RuntimeException e) {
+            // Without a watermark the next start rebuilds the index from the table
+            logger.warn("Could not read the search index watermark: {}", e.getMessage());
+            return NO_WATERMARK;
+        }
+    }
+
+    private void clearMemory() {
+        postings.clear();
+        termsById.clear();
+        maxIndexedId = 0;
+    }
+
+    /**
+     * @return true if a usable segment with a watermark was read; false to rebuild from the table
+     */
+    private boolean readSegment() {
+        CRC32 crc = new CRC32();
+        try (DataInputStream in = new DataInputStream(new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(segmentFile)), crc))) {
+            if (in.readInt() != SEGMENT_MAGIC || in.readInt() != SEGMENT_VERSION) {
+                throw new IOException("unknown segment format");
+            }
+            long segmentMaxId = in.readLong();
+            long segmentWatermark = in.readLong();
+            int docCount = in.readInt();
+            long[] docIds = new long[docCount];
+            long id = 0;
+            for (int i = 0; i < docCount; i++) {
+                id += readVarLong(in);
+                docIds[i] = id;
+            }
+            int termCount = in.readInt();
+            Map<String, Postings> loadedPostings = new HashMap<>(termCount * 2);
+            for (int t = 0; t < termCount; t++) {
+                String term = in.readUTF();
+                int size = in.readInt();
+                Postings list = new Postings(size);
+                id = 0;
+                for (int i = 0; i < size; i++) {
+                    id += readVarLong(in);
+                    list.ids[i] = id;
+                }
+                list.size = size;
+                loadedPostings.put(term, list);
+            }
+            long expected = crc.getValue();
+            if (in.readLong() != expected) {
+                throw new IOException("checksum mismatch");
+            }
+            if (segmentWatermark == NO_WATERMARK) {
+                return false;
+            }
+
+            postings.putAll(loadedPostings);
+            indexTermsById(docIds);
+            maxIndexedId = segmentMaxId;
+            updatedWatermark = segmentWatermark;
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable search segment {}, rebuilding from the database: {}", segmentFile, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Rebuild the per-ID term lists from the postings
+     * @param docIds every indexed ID, including those without terms
+     */
+    private void indexTermsById(long[] docIds) {
+        Map<Long, List<String>> terms = new HashMap<>(docIds.length * 2);
+        for (long docId : docIds) {
+            terms.put(docId, new ArrayList<>(4));
+        }
+        for (Map.Entry<String, Postings> entry : postings.entrySet()) {
+            Postings list = entry.getValue();
+            for (int i = 0; i < list.size; i++) {
+                terms.computeIfAbsent(list.ids[i], id -> new ArrayList<>(4)).add(entry.getKey());
+            }
+        }
+        termsById.clear();
+        for (Map.Entry<Long, List<String>> entry : terms.entrySet()) {
+            termsById.put(entry.getKey(), entry.getValue().toArray(new String[0]));
+        }
+    }
+
+    private void replayLog(Path logFile) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(logFile)))) {
+            while (true) {
+                LogRecord record;
+                try {
+                    record = LogRecord.read(in);
+                } catch (EOFException e) {
+                    // End of log, or a record cut short by a crash
+                    break;
+                }
+                applyInMemory(record);
+            }
+        } catch (NoSuchFileException e) {
+            // Nothing logged since the last segment
+        } catch (IOException e) {
+            logger.warn("Could not replay search log {}: {}", logFile, e.getMessage());
+        }
+    }
+
+    /**
+     * Buffer the records for the log; the committing thread does no file I/O
+     */
+    private void appendToLog(List<LogRecord> records) {
+        if (!persistent) {
+            return;
+        }
+        synchronized (pendingLock) {
+            try {
+                for (LogRecord record : records) {
+                    record.write(pendingOut);
+                }
+            } catch (IOException e) {
+                // Writing to memory does not fail
+                throw new IllegalStateException(e);
+            }
+        }
+        logRecords += records.size();
+        startFlusher();
+    }
+
+    private void startFlusher() {
+        if (flusher != null) {
+            return;
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-log-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Write the buffered changes to the log file.
+     * Runs periodically in the background; the application also calls it before exiting.
+     */
+    public void flush() {
+        synchronized (logFileLock) {
+            byte[] bytes;
+            synchronized (pendingLock) {
+                if (pendingLog.size() == 0) {
+                    return;
+                }
+                bytes = pendingLog.toByteArray();
+                pendingLog.reset();
+            }
+            if (!persistent) {
+                return;
+            }
+            try {
+                Files.createDirectories(logFile.getParent());
+                Files.write(logFile, bytes, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                disablePersistence(e);
+            }
+        }
+    }
+
+    /**
+     * Write the whole index as a new segment and start an empty log, on the calling thread.
+     * Called by the load, under the index lock.
+     */
+    private void compact() {
+        writeSegment(snapshotAndRotateLog(), readUpdatedWatermark());
+    }
+
+    /**
+     * Compaction run by the flusher thread once the log is long enough
+     */
+    private void compactInBackground() {
+        try {
+            // Read before the copy: rows updated after it are above the watermark anyway
+            long watermark = readUpdatedWatermark();
+            Snapshot snapshot;
+            lock.readLock().lock();
+            try {
+                snapshot = snapshotAndRotateLog();
+            } finally {
+                lock.readLock().unlock();
+            }
+            writeSegment(snapshot, watermark);
+        } finally {
+            compactionQueued = false;
+        }
+    }
+
+    /**
+     * Copy the index for a new segment and start a new log. Called under the index lock, so
+     * no change is applied meanwhile: the buffered changes and the current log are all in the
+     * copy. The current log is kept aside until the segment is written.
+     */
+    private Snapshot snapshotAndRotateLog() {
+        Map<String, long[]> terms = new HashMap<>(postings.size() * 2);
+        for (Map.Entry<String, Postings> entry : postings.entrySet()) {
+            Postings list = entry.getValue();
+            terms.put(entry.getKey(), Arrays.copyOf(list.ids, list.size));
+        }
+        long[] docIds = termsById.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+
+        synchronized (logFileLock) {
+            synchronized (pendingLock) {
+                pendingLog.reset();
+            }
+            if (persistent) {
+                try {
+                    Files.move(logFile, oldLogFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (NoSuchFileException e) {
+                    // Nothing flushed since the last segment
+                } catch (IOException e) {
+                    disablePersistence(e);
+                }
+            }
+        }
+        logRecords = 0;
+        return new Snapshot(maxIndexedId, docIds, terms);
+    }
+
+    /**
+     * Wait for the compaction and log writes queued so far
+     */
+    void awaitBackgroundWork() throws InterruptedException, ExecutionException {
+        if (flusher != null) {
+            flusher.submit(() -> { }).get();
+        }
+    }
+
+    private void writeSegment(Snapshot snapshot, long watermark) {
+        if (!persistent) {
+            return;
+        }
+        Path tempFile = segmentFile.resolveSibling(segmentFile.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(segmentFile.getParent());
+            CRC32 crc = new CRC32();
+            try (DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tempFile)), crc))) {
+                out.writeInt(SEGMENT_MAGIC);
+                out.writeInt(SEGMENT_VERSION);
+                out.writeLong(snapshot.maxIndexedId);
+                out.writeLong(watermark);
+                out.writeInt(snapshot.docIds.length);
+                long previousDoc = 0;
+                for (long docId : snapshot.docIds) {
+                    writeVarLong(out, docId - previousDoc);
+                    previousDoc = docId;
+                }
+                out.writeInt(snapshot.postings.size());
+                for (Map.Entry<String, long[]> entry : snapshot.postings.entrySet()) {
+                    long[] ids = entry.getValue();
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(ids.length);
+                    long previous = 0;
+                    for (long id : ids) {
+                        writeVarLong(out, id - previous);
+                        previous = id;
+                    }
+                }
+                out.writeLong(crc.getValue());
+            }
+            Files.move(tempFile, segmentFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.deleteIfExists(oldLogFile);
+        } catch (IOException e) {
+            disablePersistence(e);
+        }
+    }
+
+    private void disablePersistence(IOException e) {
+        persistent = false;
+        logger.warn("Transaction search index is no longer persisted to {}: {}", segmentFile.getParent(), e.getMessage());
+        try {
+            // A stale segment must not be trusted at the next start
+            Files.deleteIfExists(segmentFile);
+        } catch (IOException ignored) {
+            // The checksum still rejects a half-written segment
+        }
+    }
+
+    private static boolean containsAll(List<Postings> lists, long id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String[] termsOf(String description, String user) {
+        Set<String> terms = tokenize(description);
+        terms.addAll(tokenize(user));
+        return terms.toArray(new String[0]);
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text == null) {
+            return terms;
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        for (String term : SEPARATORS.split(folded.toLowerCase(Locale.ROOT))) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("malformed variable-length integer");
+    }
+
+    /**
+     * Copy of the index written to a segment
+     */
+    private record Snapshot(long maxIndexedId, long[] docIds, Map<String, long[]> postings) {
+    }
+
+    /**
+     * Sorted, growable array of transaction IDs
+     */
+    private static final class Postings {
+        private long[] ids;
+        private int size;
+
+        private Postings() {
+            this(4);
+        }
+
+        private Postings(int capacity) {
+            this.ids = new long[Math.max(capacity, 1)];
+        }
+
+        private void add(long id) {
+            // New transactions have the highest ID, so this is an append in the common case
+            int index = size > 0 && ids[size - 1] < id ? -size - 1 : Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            int insertAt = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        private boolean remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        private boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+
+    private static final class LogRecord {
+        private final byte type;
+        private final long id;
+        private final String[] terms;
+
+        private LogRecord(byte type, long id, String[] terms) {
+            this.type = type;
+            this.id = id;
+            this.terms = terms;
+        }
+
+        private static LogRecord add(long id, String[] terms) {
+            return new LogRecord(LOG_ADD, id, terms);
+        }
+
+        private static LogRecord remove(long id) {
+            return new LogRecord(LOG_REMOVE, id, new String[0]);
+        }
+
+        private void write(DataOutputStream out) throws IOException {
+            out.writeByte(type);
+            out.writeLong(id);
+            out.writeInt(terms.length);
+            for (String term : terms) {
+                out.writeUTF(term);
+            }
+        }
+
+        private static LogRecord read(DataInputStream in) throws IOException {
+            byte type = in.readByte();
+            long id = in.readLong();
+            String[] terms = new String[in.readInt()];
+            for (int i = 0; i < terms.length; i++) {
+                terms[i] = in.readUTF();
+            }
+            return new LogRecord(type, id, terms);
+        }
+    }
+}
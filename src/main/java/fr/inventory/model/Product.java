@@ -30,6 +30,22 @@ public class Product {
         this.price = price;
     }
 
+    /**
+     * Constructor for a product loaded from the database; the setters would re-stamp updatedAt
+     */
+    public Product(Long id, String name, String description, Long currentStock, Long minStock, BigDecimal price,
+                   boolean isActive, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.currentStock = currentStock;
+        this.minStock = minStock;
+        this.price = price;
+        this.isActive = isActive;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
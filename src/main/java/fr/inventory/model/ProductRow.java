@@ -0,0 +1,67 @@
+package fr.inventory.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a product for list and table views.
+ * Rows read from the database carry no description (null): views load previews of
+ * {@link #DESCRIPTION_PREVIEW_LENGTH} characters for the rows they display, or the
+ * {@link Product} for the full text.
+ */
+public final class ProductRow {
+    public static final int DESCRIPTION_PREVIEW_LENGTH = 100;
+
+    private final Long id;
+    private final String name;
+    private final String description;
+    private final Long currentStock;
+    private final Long minStock;
+    private final BigDecimal price;
+    private final boolean active;
+    private final LocalDateTime createdAt;
+
+    public ProductRow(Long id, String name, String description, Long currentStock, Long minStock,
+                      BigDecimal price, boolean active, LocalDateTime createdAt) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.currentStock = currentStock;
+        this.minStock = minStock;
+        this.price = price;
+        this.active = active;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() { return id; }
+    public String getName() { return name; }
+    public String getDescription() { return description; }
+    public Long getCurrentStock() { return currentStock; }
+    public Long getMinStock() { return minStock; }
+    public BigDecimal getPrice() { return price; }
+    public boolean isActive() { return active; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public boolean isStockLow() {
+        return currentStock != null && minStock != null && currentStock <= minStock;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ProductRow{id=%d, name='%s', currentStock=%d, minStock=%d, isActive=%s}",
+                id, name, currentStock, minStock, active);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ProductRow that = (ProductRow) o;
+        return id != null && id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return id != null ? id.hashCode() : 0;
+    }
+}
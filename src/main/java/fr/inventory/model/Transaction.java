@@ -29,6 +29,24 @@ public class Transaction {
         this.user = user;
     }
 
+    /**
+     * Constructor for a transaction loaded from the database; the timestamp is kept as stored
+     */
+    public Transaction(Long id, Long productId, String productName, Long quantity, TransactionType transactionType,
+                       String description, String user, LocalDateTime timestamp, String blockchainTxHash,
+                       boolean syncedToBlockchain) {
+        this.id = id;
+        this.productId = productId;
+        this.productName = productName;
+        this.quantity = quantity;
+        this.transactionType = transactionType;
+        this.description = description;
+        this.user = user;
+        this.timestamp = timestamp;
+        this.blockchainTxHash = blockchainTxHash;
+        this.syncedToBlockchain = syncedToBlockchain;
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
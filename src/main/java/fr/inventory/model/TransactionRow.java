@@ -0,0 +1,91 @@
+package fr.inventory.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a transaction for list and table views.
+ * The blockchain hash is left out; rows read from the database carry no description
+ * (null), views load previews of {@link #DESCRIPTION_PREVIEW_LENGTH} characters for the
+ * rows they display. Load the {@link Transaction} for the full values.
+ */
+public final class TransactionRow {
+    public static final int DESCRIPTION_PREVIEW_LENGTH = 100;
+
+    private final Long id;
+    private final Long productId;
+    private final String productName;
+    private final Long quantity;
+    private final TransactionType transactionType;
+    private final String description;
+    private final String user;
+    private final LocalDateTime timestamp;
+    private final boolean syncedToBlockchain;
+
+    public TransactionRow(Long id, Long productId, String productName, Long quantity, TransactionType transactionType,
+                          String description, String user, LocalDateTime timestamp, boolean syncedToBlockchain) {
+        this.id = id;
+        this.productId = productId;
+        this.productName = productName;
+        this.quantity = quantity;
+        this.transactionType = transactionType;
+        this.description = description;
+        this.user = user;
+        this.timestamp = timestamp;
+        this.syncedToBlockchain = syncedToBlockchain;
+    }
+
+    /**
+     * Summary of an already loaded transaction
+     */
+    public static TransactionRow of(Transaction transaction) {
+        String description = transaction.getDescription();
+        if (description != null && description.length() > DESCRIPTION_PREVIEW_LENGTH) {
+            description = description.substring(0, DESCRIPTION_PREVIEW_LENGTH);
+        }
+        return new TransactionRow(transaction.getId(), transaction.getProductId(), transaction.getProductName(),
+                transaction.getQuantity(), transaction.getTransactionType(), description, transaction.getUser(),
+                transaction.getTimestamp(), transaction.isSyncedToBlockchain());
+    }
+
+    public TransactionRow withProductName(String productName) {
+        return new TransactionRow(id, productId, productName, quantity, transactionType,
+                description, user, timestamp, syncedToBlockchain);
+    }
+
+    public Long getId() { return id; }
+    public Long getProductId() { return productId; }
+    public String getProductName() { return productName; }
+    public Long getQuantity() { return quantity; }
+    public TransactionType getTransactionType() { return transactionType; }
+    public String getDescription() { return description; }
+    public String getUser() { return user; }
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public boolean isSyncedToBlockchain() { return syncedToBlockchain; }
+
+    public boolean isPending() {
+        return !syncedToBlockchain;
+    }
+
+    public String getFormattedType() {
+        return transactionType != null ? transactionType.getDisplayName() : "Unknown";
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TransactionRow{id=%d, productId=%d, quantity=%d, type=%s, user='%s', timestamp=%s, synced=%s}",
+                id, productId, quantity, transactionType, user, timestamp, syncedToBlockchain);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TransactionRow that = (TransactionRow) o;
+        return id != null && id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return id != null ? id.hashCode() : 0;
+    }
+}
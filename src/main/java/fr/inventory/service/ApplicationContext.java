@@ -0,0 +1,137 @@
+package fr.inventory.service;
+
+import fr.inventory.blockchain.BlockchainService;
+import fr.inventory.dao.ProductCache;
+import fr.inventory.dao.ProductDAO;
+import fr.inventory.dao.TransactionDAO;
+import fr.inventory.dao.TransactionDAOImpl;
+import fr.inventory.dao.TransactionTextIndex;
+
+/**
+ * Single owner of the application's long-lived components.
+ * Each component is created once, on first request, and shared by every service and
+ * controller: in particular there is one {@link BlockchainService}, so one Ganache
+ * handshake, one HTTP client and one contract address for the whole application.
+ */
+public class ApplicationContext {
+    private static final ApplicationContext shared = new ApplicationContext();
+
+    private volatile BlockchainService blockchainService;
+    private volatile TransactionDAO transactionDAO;
+    private volatile ProductService productService;
+    private volatile TransactionService transactionService;
+    private volatile StatsVerificationService statsVerificationService;
+    private volatile LowStockResyncService lowStockResyncService;
+
+    /**
+     * Context shared by the whole application.
+     */
+    public static ApplicationContext shared() {
+        return shared;
+    }
+
+    public BlockchainService getBlockchainService() {
+        BlockchainService service = blockchainService;
+        if (service == null) {
+            synchronized (this) {
+                service = blockchainService;
+                if (service == null) {
+                    service = new BlockchainService();
+                    blockchainService = service;
+                }
+            }
+        }
+        return service;
+    }
+
+    public ProductDAO getProductDAO() {
+        return ProductCache.shared();
+    }
+
+    public TransactionDAO getTransactionDAO() {
+        TransactionDAO dao = transactionDAO;
+        if (dao == null) {
+            synchronized (this) {
+                dao = transactionDAO;
+                if (dao == null) {
+                    dao = new TransactionDAOImpl();
+                    transactionDAO = dao;
+                }
+            }
+        }
+        return dao;
+    }
+
+    public ProductService getProductService() {
+        ProductService service = productService;
+        if (service == null) {
+            synchronized (this) {
+                service = productService;
+                if (service == null) {
+                    service = new ProductService(getProductDAO(), getBlockchainService());
+                    productService = service;
+                }
+            }
+        }
+        return service;
+    }
+
+    public TransactionService getTransactionService() {
+        TransactionService service = transactionService;
+        if (service == null) {
+            synchronized (this) {
+                service = transactionService;
+                if (service == null) {
+                    service = new TransactionService(getTransactionDAO(), getProductDAO(), getBlockchainService());
+                    transactionService = service;
+                }
+            }
+        }
+        return service;
+    }
+
+    public StatsVerificationService getStatsVerificationService() {
+        StatsVerificationService service = statsVerificationService;
+        if (service == null) {
+            synchronized (this) {
+                service = statsVerificationService;
+                if (service == null) {
+                    service = new StatsVerificationService();
+                    statsVerificationService = service;
+                }
+            }
+        }
+        return service;
+    }
+
+    public LowStockResyncService getLowStockResyncService() {
+        LowStockResyncService service = lowStockResyncService;
+        if (service == null) {
+            synchronized (this) {
+                service = lowStockResyncService;
+                if (service == null) {
+                    service = new LowStockResyncService();
+                    lowStockResyncService = service;
+                }
+            }
+        }
+        return service;
+    }
+
+    /**
+     * Stop background work, write the buffered search log and release the blockchain client;
+     * components never created are left alone.
+     */
+    public synchronized void shutdown() {
+        TransactionTextIndex.shared().flush();
+        if (statsVerificationService != null) {
+            statsVerificationService.stop();
+        }
+        if (lowStockResyncService != null) {
+            lowStockResyncService.stop();
+        }
+        if (blockchainService != null) {
+            blockchainService.shutdown();
+        }
+    }
+}
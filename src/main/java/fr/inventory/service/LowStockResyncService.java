@@ -0,0 +1,66 @@
+package fr.inventory.service;
+
+import fr.inventory.dao.LowStockMonitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically re-reads the products into the low-stock monitor and corrects any drift.
+ * The interval is {@code inventory.lowstock.resyncIntervalMinutes} (default 15); the first
+ * resync runs one interval after {@link #start()}.
+ */
+public class LowStockResyncService {
+    private static final Logger logger = LoggerFactory.getLogger(LowStockResyncService.class);
+    private static final long DEFAULT_INTERVAL_MINUTES = 15;
+
+    private final LowStockMonitor monitor;
+    private final long intervalMinutes;
+    private ScheduledExecutorService scheduler;
+
+    public LowStockResyncService() {
+        this(LowStockMonitor.shared(), Long.getLong("inventory.lowstock.resyncIntervalMinutes", DEFAULT_INTERVAL_MINUTES));
+    }
+
+    public LowStockResyncService(LowStockMonitor monitor, long intervalMinutes) {
+        if (intervalMinutes <= 0) {
+            throw new IllegalArgumentException("Resync interval must be positive");
+        }
+        this.monitor = monitor;
+        this.intervalMinutes = intervalMinutes;
+    }
+
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "low-stock-resync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::resync, intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private void resync() {
+        // A failed run must not cancel the following ones
+        try {
+            int corrected = monitor.resync();
+            if (corrected > 0) {
+                logger.info("Corrected the stock levels of {} products", corrected);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Low stock resync failed", e);
+        }
+    }
+}
@@ -1,22 +1,29 @@
 package fr.inventory.service;
 
 import fr.inventory.blockchain.BlockchainService;
+import fr.inventory.dao.LowStockMonitor;
+import fr.inventory.dao.ProductCompletionIndex;
+import fr.inventory.dao.ProductCounts;
 import fr.inventory.dao.ProductDAO;
-import fr.inventory.dao.ProductDAOImpl;
+import fr.inventory.dao.StockLevel;
 import fr.inventory.model.Product;
+import fr.inventory.model.ProductRow;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 public class ProductService {
     private final ProductDAO productDAO;
     private final BlockchainService blockchainService;
+    private final ProductCompletionIndex completions = ProductCompletionIndex.shared();
+    private final LowStockMonitor lowStock = LowStockMonitor.shared();
 
     public ProductService() {
-        this.productDAO = new ProductDAOImpl();
-        this.blockchainService = new BlockchainService();
+        this(ApplicationContext.shared().getProductDAO(), ApplicationContext.shared().getBlockchainService());
     }
 
     public ProductService(ProductDAO productDAO, BlockchainService blockchainService) {
@@ -97,6 +104,72 @@ public class ProductService {
         return productDAO.findByNameContaining(name.trim());
     }
 
+    /**
+     * Get all products as table rows
+     */
+    public List<ProductRow> getAllProductRows() {
+        return productDAO.findAllRows();
+    }
+
+    /**
+     * Get active products as table rows
+     */
+    public List<ProductRow> getActiveProductRows() {
+        return productDAO.findActiveRows();
+    }
+
+    /**
+     * Get products with low stock as table rows
+     */
+    public List<ProductRow> getLowStockProductRows() {
+        return productDAO.findLowStockRows();
+    }
+
+    /**
+     * Get the truncated descriptions of the given products, for the rows on screen
+     */
+    public Map<Long, String> getDescriptionPreviews(List<Long> ids) {
+        return productDAO.findDescriptionPreviews(ids);
+    }
+
+    /**
+     * Get stock levels of low stock products from memory, furthest below minimum first
+     */
+    public List<StockLevel> getLowStockLevels() {
+        return lowStock.lowStock();
+    }
+
+    /**
+     * Be told when a product enters or leaves low stock, or changes while low.
+     * The listener runs on the thread that committed the change.
+     */
+    public void addLowStockListener(LowStockMonitor.Listener listener) {
+        lowStock.addListener(listener);
+    }
+
+    public void removeLowStockListener(LowStockMonitor.Listener listener) {
+        lowStock.removeListener(listener);
+    }
+
+    /**
+     * Search products by name, returning table rows
+     */
+    public List<ProductRow> searchProductRows(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            return getAllProductRows();
+        }
+        return productDAO.findRowsByNameContaining(name.trim());
+    }
+
+    /**
+     * Active products whose name starts with the given text, most used in recent transactions first.
+     * Served from memory (names and stock as last committed), so it can run on every keystroke.
+     */
+    public List<StockLevel> completeActiveProducts(String prefix, int limit) {
+        List<Long> ids = completions.complete(prefix != null ? prefix : "", limit);
+        return lowStock.levels(ids);
+    }
+
     /**
      * Update product and sync to blockchain
      */
@@ -169,6 +242,65 @@ public class ProductService {
         });
     }
 
+    /**
+     * Update the stock of several products in one round trip
+     */
+    public CompletableFuture<Integer> updateStocks(Map<Long, Long> newStockByProduct) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                if (newStockByProduct == null || newStockByProduct.isEmpty()) {
+                    return 0;
+                }
+                for (Map.Entry<Long, Long> entry : newStockByProduct.entrySet()) {
+                    validateProductId(entry.getKey());
+                    if (entry.getValue() == null || entry.getValue() < 0) {
+                        throw new IllegalArgumentException("Stock cannot be negative");
+                    }
+                }
+                
+                // Update in database
+                int updated = productDAO.updateStocks(newStockByProduct);
+                
+                if (updated > 0 && blockchainService.isConnected()) {
+                    // Update on blockchain
+                    newStockByProduct.forEach((productId, newStock) ->
+                        blockchainService.updateProductStock(productId, newStock)
+                            .exceptionally(throwable -> {
+                                System.err.println("Failed to update stock on blockchain: " + throwable.getMessage());
+                                return null;
+                            }));
+                }
+                
+                return updated;
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to update stocks: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * Update the price of several products in one round trip
+     */
+    public CompletableFuture<Integer> updatePrices(Map<Long, BigDecimal> newPriceByProduct) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                if (newPriceByProduct == null || newPriceByProduct.isEmpty()) {
+                    return 0;
+                }
+                for (Map.Entry<Long, BigDecimal> entry : newPriceByProduct.entrySet()) {
+                    validateProductId(entry.getKey());
+                    if (entry.getValue() == null || entry.getValue().compareTo(BigDecimal.ZERO) < 0) {
+                        throw new IllegalArgumentException("Price cannot be negative");
+                    }
+                }
+                
+                return productDAO.updatePrices(newPriceByProduct);
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to update prices: " + e.getMessage(), e);
+            }
+        });
+    }
+
     /**
      * Deactivate product
      */
@@ -189,6 +321,28 @@ public class ProductService {
         return productDAO.activate(productId);
     }
 
+    /**
+     * Deactivate several products with a single statement
+     */
+    public int deactivateProducts(Collection<Long> productIds) {
+        if (productIds == null || productIds.isEmpty()) {
+            return 0;
+        }
+        productIds.forEach(this::validateProductId);
+        return productDAO.deactivateAll(productIds);
+    }
+
+    /**
+     * Activate several products with a single statement
+     */
+    public int activateProducts(Collection<Long> productIds) {
+        if (productIds == null || productIds.isEmpty()) {
+            return 0;
+        }
+        productIds.forEach(this::validateProductId);
+        return productDAO.activateAll(productIds);
+    }
+
     /**
      * Delete product (hard delete)
      */
@@ -203,11 +357,9 @@ public class ProductService {
      * Get product statistics
      */
     public ProductStats getProductStats() {
-        long totalProducts = productDAO.count();
-        long activeProducts = productDAO.countActive();
-        List<Product> lowStockProducts = getLowStockProducts();
+        ProductCounts counts = productDAO.getCounts();
         
-        return new ProductStats(totalProducts, activeProducts, lowStockProducts.size());
+        return new ProductStats(counts.getTotal(), counts.getActive(), counts.getLowStock());
     }
 
     /**
@@ -225,6 +377,12 @@ public class ProductService {
     }
 
     // Validation methods
+    private void validateProductId(Long productId) {
+        if (productId == null || productId <= 0) {
+            throw new IllegalArgumentException("Invalid product ID");
+        }
+    }
+
     private void validateProductInput(String name, String description, Long initialStock, Long minStock, BigDecimal price) {
         if (name == null || name.trim().isEmpty()) {
             throw new IllegalArgumentException("Product name is required");
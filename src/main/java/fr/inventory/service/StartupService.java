@@ -0,0 +1,97 @@
+package fr.inventory.service;
+
+import fr.inventory.utils.DatabaseUtils;
+import javafx.concurrent.Service;
+import javafx.concurrent.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Background bootstrap of the database (driver, pool, schema migrations).
+ * Progress and message properties can be bound to the UI; the task fails with a
+ * {@link TimeoutException} if the database does not answer within the configured delay.
+ * The timeout can be overridden with {@code -Dinventory.startup.timeoutMillis}.
+ * On timeout the initialization thread is interrupted; a failed service can be started
+ * again with {@link #restart()}.
+ */
+public class StartupService extends Service<Void> {
+    private static final Logger logger = LoggerFactory.getLogger(StartupService.class);
+
+    private static final long DEFAULT_TIMEOUT_MILLIS = 15_000;
+
+    private final long timeoutMillis;
+    private volatile long startupMillis = -1;
+
+    public StartupService() {
+        this(Long.getLong("inventory.startup.timeoutMillis", DEFAULT_TIMEOUT_MILLIS));
+    }
+
+    public StartupService(long timeoutMillis) {
+        if (timeoutMillis <= 0) {
+            throw new IllegalArgumentException("Startup timeout must be positive");
+        }
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    protected Task<Void> createTask() {
+        return new Task<>() {
+            @Override
+            protected Void call() throws Exception {
+                long start = System.nanoTime();
+                updateMessage("Initialisation de la base de données...");
+
+                // Initialization runs on a thread owned by this task so a database that never answers
+                // cannot hold the task past the timeout, and the thread can be interrupted afterwards
+                FutureTask<Void> initialization = new FutureTask<>(() -> {
+                    DatabaseUtils.initialize((fraction, message) -> {
+                        updateProgress(fraction, 1.0);
+                        updateMessage(message);
+                        logger.debug("Startup: {} ({} ms)", message, elapsedMillis(start));
+                    });
+                    return null;
+                });
+                Thread initThread = new Thread(initialization, "database-init");
+                initThread.setDaemon(true);
+                initThread.start();
+
+                try {
+                    initialization.get(timeoutMillis, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    initialization.cancel(true);
+                    throw new TimeoutException("La base de données n'a pas répondu en " + timeoutMillis + " ms");
+                } catch (InterruptedException e) {
+                    // The task itself was cancelled
+                    initialization.cancel(true);
+                    throw e;
+                } catch (ExecutionException e) {
+                    throw e.getCause() instanceof Exception cause ? cause : e;
+                }
+
+                startupMillis = elapsedMillis(start);
+                logger.info("Database ready in {} ms", startupMillis);
+                return null;
+            }
+        };
+    }
+
+    /**
+     * @return duration of the last successful initialization in milliseconds, or -1
+     */
+    public long getStartupMillis() {
+        return startupMillis;
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
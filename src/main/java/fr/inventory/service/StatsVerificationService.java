@@ -0,0 +1,66 @@
+package fr.inventory.service;
+
+import fr.inventory.dao.StatsCounters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically checks the stats counters against the tables and corrects any drift.
+ * The interval is {@code inventory.stats.verifyIntervalMinutes} (default 60); the first
+ * check runs one interval after {@link #start()}.
+ */
+public class StatsVerificationService {
+    private static final Logger logger = LoggerFactory.getLogger(StatsVerificationService.class);
+    private static final long DEFAULT_INTERVAL_MINUTES = 60;
+
+    private final StatsCounters statsCounters;
+    private final long intervalMinutes;
+    private ScheduledExecutorService scheduler;
+
+    public StatsVerificationService() {
+        this(new StatsCounters(), Long.getLong("inventory.stats.verifyIntervalMinutes", DEFAULT_INTERVAL_MINUTES));
+    }
+
+    public StatsVerificationService(StatsCounters statsCounters, long intervalMinutes) {
+        if (intervalMinutes <= 0) {
+            throw new IllegalArgumentException("Verification interval must be positive");
+        }
+        this.statsCounters = statsCounters;
+        this.intervalMinutes = intervalMinutes;
+    }
+
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stats-verifier");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::verify, intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private void verify() {
+        // A failed run must not cancel the following ones
+        try {
+            int corrected = statsCounters.verify();
+            if (corrected > 0) {
+                logger.info("Corrected {} drifted stats counters", corrected);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Stats counters verification failed", e);
+        }
+    }
+}
@@ -2,27 +2,41 @@ package fr.inventory.service;
 
 import fr.inventory.blockchain.BlockchainService;
 import fr.inventory.dao.ProductDAO;
-import fr.inventory.dao.ProductDAOImpl;
+import fr.inventory.dao.Page;
+import fr.inventory.dao.PageCursor;
+import fr.inventory.dao.SearchPage;
+import fr.inventory.dao.TransactionCounts;
 import fr.inventory.dao.TransactionDAO;
-import fr.inventory.dao.TransactionDAOImpl;
+import fr.inventory.dao.TransactionTextIndex;
 import fr.inventory.model.Product;
 import fr.inventory.model.Transaction;
+import fr.inventory.model.TransactionRow;
 import fr.inventory.model.TransactionType;
+import fr.inventory.utils.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public class TransactionService {
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final TransactionDAO transactionDAO;
     private final ProductDAO productDAO;
     private final BlockchainService blockchainService;
+    private final TransactionTemplate transactionTemplate = new TransactionTemplate();
+    private final TransactionTextIndex textIndex = TransactionTextIndex.shared();
 
     public TransactionService() {
-        this.transactionDAO = new TransactionDAOImpl();
-        this.productDAO = new ProductDAOImpl();
-        this.blockchainService = new BlockchainService();
+        this(ApplicationContext.shared().getTransactionDAO(), ApplicationContext.shared().getProductDAO(),
+                ApplicationContext.shared().getBlockchainService());
     }
 
     public TransactionService(TransactionDAO transactionDAO, ProductDAO productDAO, BlockchainService blockchainService) {
@@ -40,36 +54,26 @@ public class TransactionService {
                 // Validate input
                 validateTransactionInput(productId, quantity, type, user);
                 
-                // Get product and verify it exists
-                Optional<Product> productOpt = productDAO.findById(productId);
-                if (productOpt.isEmpty()) {
-                    throw new IllegalArgumentException("Product not found with ID: " + productId);
-                }
-                
-                Product product = productOpt.get();
-                if (!product.isActive()) {
-                    throw new IllegalArgumentException("Cannot create transaction for inactive product");
-                }
-                
-                // Check stock for OUT transactions
-                if (type == TransactionType.OUT && product.getCurrentStock() < quantity) {
-                    throw new IllegalArgumentException("Insufficient stock. Available: " + product.getCurrentStock() + ", Requested: " + quantity);
-                }
-                
-                // Create transaction
-                Transaction transaction = new Transaction(productId, quantity, type, description, user);
-                Transaction savedTransaction = transactionDAO.create(transaction);
-                
-                // Update product stock
-                updateProductStockForTransaction(product, quantity, type);
+                // Stock change and transaction row commit together or not at all
+                Transaction savedTransaction = transactionTemplate.execute(() -> {
+                    // Apply the stock change atomically; the guard rejects missing,
+                    // inactive or insufficient-stock products in the same statement
+                    long delta = stockDeltaFor(quantity, type);
+                    if (productDAO.adjustStock(productId, delta).isEmpty()) {
+                        throw stockRejection(productId, quantity);
+                    }
+                    
+                    // Create transaction
+                    Transaction transaction = new Transaction(productId, quantity, type, description, user);
+                    return transactionDAO.create(transaction);
+                });
                 
                 // Record on blockchain asynchronously
                 if (blockchainService.isConnected()) {
                     blockchainService.recordTransactionOnBlockchain(savedTransaction)
                         .thenAccept(txHash -> {
                             // Update transaction with blockchain hash
-                            transactionDAO.updateBlockchainHash(savedTransaction.getId(), txHash);
-                            transactionDAO.markAsSynced(savedTransaction.getId());
+                            markSynced(savedTransaction.getId(), txHash);
                             savedTransaction.setBlockchainTxHash(txHash);
                             savedTransaction.setSyncedToBlockchain(true);
                             System.out.println("Transaction recorded on blockchain with hash: " + txHash);
@@ -88,6 +92,45 @@ public class TransactionService {
         });
     }
 
+    /**
+     * Record a batch of transactions (pallet reception, ERP import...) in one unit of work.
+     * Every line is validated first, then each product's stock is adjusted once by the
+     * net quantity of its lines and all rows are inserted with JDBC batches.
+     * The new transactions stay pending and are pushed by {@link #syncPendingTransactions()}.
+     */
+    public CompletableFuture<List<Transaction>> recordTransactions(List<Transaction> transactions) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                if (transactions == null || transactions.isEmpty()) {
+                    throw new IllegalArgumentException("No transactions to record");
+                }
+                
+                // Validate every line and aggregate stock deltas per product;
+                // a sorted map gives a stable row-lock order across concurrent batches
+                Map<Long, Long> deltasByProduct = new TreeMap<>();
+                for (Transaction transaction : transactions) {
+                    validateTransactionInput(transaction.getProductId(), transaction.getQuantity(),
+                                             transaction.getTransactionType(), transaction.getUser());
+                    deltasByProduct.merge(transaction.getProductId(),
+                                          stockDeltaFor(transaction.getQuantity(), transaction.getTransactionType()),
+                                          Long::sum);
+                }
+                
+                return transactionTemplate.execute(() -> {
+                    for (Map.Entry<Long, Long> entry : deltasByProduct.entrySet()) {
+                        if (productDAO.adjustStock(entry.getKey(), entry.getValue()).isEmpty()) {
+                            throw stockRejection(entry.getKey(), Math.max(0, -entry.getValue()));
+                        }
+                    }
+                    return transactionDAO.createAll(transactions);
+                });
+                
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to record transactions: " + e.getMessage(), e);
+            }
+        });
+    }
+
     /**
      * Record stock input (IN transaction)
      */
@@ -193,6 +236,135 @@ public class TransactionService {
         return transactionDAO.findRecent(limit);
     }
 
+    /**
+     * Get all transactions as table rows
+     */
+    public List<TransactionRow> getAllTransactionRows() {
+        return transactionDAO.findAllRows();
+    }
+
+    /**
+     * Get the truncated descriptions of the given transactions, for the rows on screen
+     */
+    public Map<Long, String> getDescriptionPreviews(List<Long> ids) {
+        return transactionDAO.findDescriptionPreviews(ids);
+    }
+
+    /**
+     * Get recent transactions as table rows (served from the in-memory buffer when possible)
+     */
+    public List<TransactionRow> getRecentTransactionRows(int limit) {
+        return getRecentTransactions(limit).stream()
+            .map(TransactionRow::of)
+            .toList();
+    }
+
+    /**
+     * Get a page of transactions (pass the previous page's next cursor, or null for the first page)
+     */
+    public Page<Transaction> getTransactionsPage(PageCursor cursor, int limit) {
+        validatePageLimit(limit);
+        return transactionDAO.findPage(cursor, limit);
+    }
+
+    /**
+     * Get a page of transactions by product ID
+     */
+    public Page<Transaction> getTransactionsPageByProduct(Long productId, PageCursor cursor, int limit) {
+        if (productId == null || productId <= 0) {
+            throw new IllegalArgumentException("Invalid product ID");
+        }
+        validatePageLimit(limit);
+        return transactionDAO.findPageByProductId(productId, cursor, limit);
+    }
+
+    /**
+     * Get a page of transactions by type
+     */
+    public Page<Transaction> getTransactionsPageByType(TransactionType type, PageCursor cursor, int limit) {
+        if (type == null) {
+            throw new IllegalArgumentException("Transaction type cannot be null");
+        }
+        validatePageLimit(limit);
+        return transactionDAO.findPageByType(type, cursor, limit);
+    }
+
+    /**
+     * Get a page of transactions by user
+     */
+    public Page<Transaction> getTransactionsPageByUser(String user, PageCursor cursor, int limit) {
+        if (user == null || user.trim().isEmpty()) {
+            throw new IllegalArgumentException("User cannot be null or empty");
+        }
+        validatePageLimit(limit);
+        return transactionDAO.findPageByUser(user.trim(), cursor, limit);
+    }
+
+    /**
+     * Get a page of pending transactions (not synced to blockchain)
+     */
+    public Page<Transaction> getPendingTransactionsPage(PageCursor cursor, int limit) {
+        validatePageLimit(limit);
+        return transactionDAO.findPendingPage(cursor, limit);
+    }
+
+    /**
+     * Search transactions by free text in their description and user (all terms must match).
+     * Pass the previous page's next ID, or null for the first page.
+     */
+    public SearchPage searchTransactions(String query, Long afterId, int limit) {
+        if (query == null || query.trim().isEmpty()) {
+            throw new IllegalArgumentException("Search query cannot be null or empty");
+        }
+        validatePageLimit(limit);
+        return textIndex.search(query, afterId, limit);
+    }
+
+    /**
+     * Stream the full transaction history (reconciliation, reporting) in constant memory
+     */
+    public long forEachTransaction(Consumer<Transaction> action) {
+        if (action == null) {
+            throw new IllegalArgumentException("Action cannot be null");
+        }
+        return transactionDAO.forEach(action);
+    }
+
+    /**
+     * Stream transactions within a date range in constant memory
+     */
+    public long forEachTransactionInDateRange(LocalDateTime startDate, LocalDateTime endDate, Consumer<Transaction> action) {
+        if (startDate == null || endDate == null) {
+            throw new IllegalArgumentException("Start date and end date cannot be null");
+        }
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date cannot be after end date");
+        }
+        if (action == null) {
+            throw new IllegalArgumentException("Action cannot be null");
+        }
+        return transactionDAO.forEachInDateRange(startDate, endDate, action);
+    }
+
+    /**
+     * Export the full transaction history as CSV without loading it into memory
+     * @return number of exported transactions
+     */
+    public long exportTransactionsToCsv(Writer writer) throws IOException {
+        writer.write("id,product_id,product_name,quantity,type,user,timestamp,blockchain_tx_hash,synced,description\n");
+        try {
+            return transactionDAO.forEach(transaction -> {
+                try {
+                    writer.write(toCsvLine(transaction));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
     /**
      * Sync pending transactions to blockchain
      */
@@ -208,8 +380,7 @@ public class TransactionService {
             for (Transaction transaction : pendingTransactions) {
                 try {
                     String txHash = blockchainService.recordTransactionOnBlockchain(transaction).get();
-                    transactionDAO.updateBlockchainHash(transaction.getId(), txHash);
-                    transactionDAO.markAsSynced(transaction.getId());
+                    markSynced(transaction.getId(), txHash);
                     syncedCount++;
                     System.out.println("Synced transaction " + transaction.getId() + " with hash: " + txHash);
                 } catch (Exception e) {
@@ -248,14 +419,10 @@ public class TransactionService {
      * Get transaction statistics
      */
     public TransactionStats getTransactionStats() {
-        long totalTransactions = transactionDAO.count();
-        long pendingTransactions = transactionDAO.countPending();
-        long inTransactions = transactionDAO.countByType(TransactionType.IN);
-        long outTransactions = transactionDAO.countByType(TransactionType.OUT);
-        long transferTransactions = transactionDAO.countByType(TransactionType.TRANSFER);
+        TransactionCounts counts = transactionDAO.getCounts();
         
-        return new TransactionStats(totalTransactions, pendingTransactions, 
-                                  inTransactions, outTransactions, transferTransactions);
+        return new TransactionStats(counts.getTotal(), counts.getPending(), 
+                                  counts.getIn(), counts.getOut(), counts.getTransfer());
     }
 
     /**
@@ -276,24 +443,69 @@ public class TransactionService {
     }
 
     // Private helper methods
-    private void updateProductStockForTransaction(Product product, Long quantity, TransactionType type) {
-        Long currentStock = product.getCurrentStock();
-        Long newStock = currentStock;
-        
+    private void markSynced(Long transactionId, String txHash) {
+        transactionTemplate.execute(() -> {
+            transactionDAO.updateBlockchainHash(transactionId, txHash);
+            return transactionDAO.markAsSynced(transactionId);
+        });
+    }
+
+    private long stockDeltaFor(Long quantity, TransactionType type) {
         switch (type) {
             case IN:
-                newStock = currentStock + quantity;
-                break;
+                return quantity;
             case OUT:
-                newStock = currentStock - quantity;
-                break;
+                return -quantity;
             case TRANSFER:
+            default:
                 // For transfers, stock level might remain the same or be handled differently
                 // This depends on business logic
-                break;
+                return 0;
+        }
+    }
+
+    // Only called on the failure path, to explain why the guarded update matched no row
+    private IllegalArgumentException stockRejection(Long productId, Long quantity) {
+        Optional<Product> productOpt = productDAO.findById(productId);
+        if (productOpt.isEmpty()) {
+            return new IllegalArgumentException("Product not found with ID: " + productId);
         }
         
-        productDAO.updateStock(product.getId(), newStock);
+        Product product = productOpt.get();
+        if (!product.isActive()) {
+            return new IllegalArgumentException("Cannot create transaction for inactive product");
+        }
+        return new IllegalArgumentException("Insufficient stock. Available: " + product.getCurrentStock() + ", Requested: " + quantity);
+    }
+
+    private String toCsvLine(Transaction transaction) {
+        return String.join(",",
+                String.valueOf(transaction.getId()),
+                String.valueOf(transaction.getProductId()),
+                csvField(transaction.getProductName()),
+                String.valueOf(transaction.getQuantity()),
+                transaction.getTransactionType().name(),
+                csvField(transaction.getUser()),
+                String.valueOf(transaction.getTimestamp()),
+                csvField(transaction.getBlockchainTxHash()),
+                String.valueOf(transaction.isSyncedToBlockchain()),
+                csvField(transaction.getDescription())) + "\n";
+    }
+
+    private String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    private void validatePageLimit(int limit) {
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
     }
 
     private void validateTransactionInput(Long productId, Long quantity, TransactionType type, String user) {
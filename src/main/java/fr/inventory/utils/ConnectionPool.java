@@ -0,0 +1,507 @@
+package fr.inventory.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded JDBC connection pool.
+ * Connections handed out by {@link #getConnection()} are proxies whose {@code close()}
+ * returns the physical connection to the pool instead of closing it.
+ */
+public class ConnectionPool implements DataSource {
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPool.class);
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final PoolConfig config;
+
+    private final LinkedBlockingDeque<PooledConnection> idleConnections = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowedConnections = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed = false;
+
+    // Metrics
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong totalBorrowWaitNanos = new AtomicLong();
+    private final AtomicLong maxBorrowWaitNanos = new AtomicLong();
+    private final AtomicLong borrowTimeouts = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong validationFailures = new AtomicLong();
+    private final AtomicLong evictedCount = new AtomicLong();
+    private final AtomicLong leaksDetected = new AtomicLong();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+    private final AtomicLong statementCacheEvictions = new AtomicLong();
+
+    public ConnectionPool(String url, String user, String password, PoolConfig config) throws SQLException {
+        config.validate();
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.config = config;
+
+        fillToMinimum();
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "db-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = config.getHousekeepingIntervalMillis();
+        housekeeper.scheduleWithFixedDelay(this::housekeep, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(config.getConnectionTimeoutMillis());
+
+        while (true) {
+            if (closed) {
+                throw new SQLException("Connection pool is closed");
+            }
+
+            PooledConnection pooled = idleConnections.pollFirst();
+            if (pooled == null && reserveSlot()) {
+                try {
+                    pooled = createConnection();
+                } catch (SQLException e) {
+                    totalConnections.decrementAndGet();
+                    throw e;
+                }
+            } else if (pooled == null) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    borrowTimeouts.incrementAndGet();
+                    throw new SQLTimeoutException("Timed out after " + config.getConnectionTimeoutMillis()
+                            + "ms waiting for a database connection (active=" + borrowedConnections.size()
+                            + ", max=" + config.getMaxSize() + ")");
+                }
+                try {
+                    pooled = idleConnections.pollFirst(remaining, TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted while waiting for a database connection", e);
+                }
+                if (pooled == null) {
+                    continue;
+                }
+            }
+
+            if (!isUsable(pooled)) {
+                validationFailures.incrementAndGet();
+                discard(pooled);
+                continue;
+            }
+
+            recordBorrowWait(System.nanoTime() - start);
+            pooled.markBorrowed();
+            borrowedConnections.add(pooled);
+            return pooled.newHandle();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Connection pool uses fixed credentials");
+    }
+
+    /**
+     * Close every idle connection and stop housekeeping.
+     * Borrowed connections are closed when they are returned.
+     */
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idleConnections.pollFirst()) != null) {
+            discard(pooled);
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public PoolConfig getConfig() {
+        return config;
+    }
+
+    public PoolStats getStats() {
+        return new PoolStats(totalConnections.get(), idleConnections.size(), borrowedConnections.size(),
+                borrowCount.get(), totalBorrowWaitNanos.get(), maxBorrowWaitNanos.get(), borrowTimeouts.get(),
+                createdCount.get(), validationFailures.get(), evictedCount.get(), leaksDetected.get(),
+                statementCacheHits.get(), statementCacheMisses.get(), statementCacheEvictions.get());
+    }
+
+    // Pool internals
+    private boolean reserveSlot() {
+        while (true) {
+            int current = totalConnections.get();
+            if (current >= config.getMaxSize()) {
+                return false;
+            }
+            if (totalConnections.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private PooledConnection createConnection() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, user, password);
+        physical.setAutoCommit(true);
+        createdCount.incrementAndGet();
+        return new PooledConnection(physical);
+    }
+
+    private void fillToMinimum() throws SQLException {
+        while (totalConnections.get() < config.getMinSize() && !closed) {
+            if (!reserveSlot()) {
+                return;
+            }
+            try {
+                idleConnections.offerLast(createConnection());
+            } catch (SQLException e) {
+                totalConnections.decrementAndGet();
+                throw e;
+            }
+        }
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        long idleMillis = System.currentTimeMillis() - pooled.lastReturnedAt;
+        if (idleMillis < config.getValidationIntervalMillis()) {
+            return true;
+        }
+        try {
+            return pooled.physical.isValid(config.getValidationTimeoutSeconds());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void release(PooledConnection pooled) {
+        borrowedConnections.remove(pooled);
+
+        if (closed) {
+            discard(pooled);
+            return;
+        }
+
+        try {
+            if (pooled.physical.isClosed()) {
+                discard(pooled);
+                return;
+            }
+            if (!pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            pooled.physical.clearWarnings();
+        } catch (SQLException e) {
+            logger.warn("Discarding connection that failed to reset: {}", e.getMessage());
+            discard(pooled);
+            return;
+        }
+
+        pooled.lastReturnedAt = System.currentTimeMillis();
+        // LIFO: the most recently used connection is the most likely to still be warm
+        idleConnections.offerFirst(pooled);
+    }
+
+    private void discard(PooledConnection pooled) {
+        totalConnections.decrementAndGet();
+        if (pooled.statementCache != null) {
+            pooled.statementCache.closeAll();
+        }
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            logger.debug("Error closing pooled connection: {}", e.getMessage());
+        }
+    }
+
+    private void recordBorrowWait(long waitNanos) {
+        borrowCount.incrementAndGet();
+        totalBorrowWaitNanos.addAndGet(waitNanos);
+        maxBorrowWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    private void housekeep() {
+        try {
+            evictIdleConnections();
+            detectLeaks();
+            fillToMinimum();
+        } catch (Exception e) {
+            logger.warn("Connection pool housekeeping failed: {}", e.getMessage());
+        }
+    }
+
+    private void evictIdleConnections() {
+        long idleTimeout = config.getIdleTimeoutMillis();
+        if (idleTimeout <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (PooledConnection pooled : idleConnections) {
+            if (totalConnections.get() <= config.getMinSize()) {
+                return;
+            }
+            if (now - pooled.lastReturnedAt > idleTimeout && idleConnections.remove(pooled)) {
+                evictedCount.incrementAndGet();
+                discard(pooled);
+            }
+        }
+    }
+
+    private void detectLeaks() {
+        long threshold = config.getLeakDetectionThresholdMillis();
+        if (threshold <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (PooledConnection pooled : borrowedConnections) {
+            if (!pooled.leakReported && now - pooled.borrowedAt > threshold) {
+                pooled.leakReported = true;
+                leaksDetected.incrementAndGet();
+                logger.warn("Possible connection leak: connection held for {}ms by thread {}",
+                        now - pooled.borrowedAt, pooled.borrowerThread, pooled.borrowSite);
+            }
+        }
+    }
+
+    // DataSource boilerplate
+    @Override
+    public PrintWriter getLogWriter() {
+        return null;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        // Logging goes through slf4j
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        // Connection timeout is configured through PoolConfig
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return (int) TimeUnit.MILLISECONDS.toSeconds(config.getConnectionTimeoutMillis());
+    }
+
+    @Override
+    public java.util.logging.Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException("Parent logger is not supported");
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("Connection pool does not wrap " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+
+    /**
+     * A physical connection owned by the pool.
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private final StatementCache statementCache;
+        private volatile long lastReturnedAt = System.currentTimeMillis();
+        private volatile long borrowedAt;
+        private volatile String borrowerThread;
+        private volatile Throwable borrowSite;
+        private volatile boolean leakReported;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.statementCache = config.getStatementCacheSize() > 0
+                    ? new StatementCache(physical, config.getStatementCacheSize(),
+                            statementCacheHits, statementCacheMisses, statementCacheEvictions)
+                    : null;
+        }
+
+        private void markBorrowed() {
+            borrowedAt = System.currentTimeMillis();
+            borrowerThread = Thread.currentThread().getName();
+            borrowSite = config.getLeakDetectionThresholdMillis() > 0
+                    ? new Throwable("Connection borrowed here") : null;
+            leakReported = false;
+        }
+
+        private Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new ConnectionHandle(this));
+        }
+    }
+
+    /**
+     * Per-borrow view of a pooled connection; closing it returns the connection to the pool once.
+     */
+    private final class ConnectionHandle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean returned = false;
+
+        private ConnectionHandle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || pooled.physical.isClosed();
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + "]";
+                default:
+                    break;
+            }
+
+            if (returned) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            if (pooled.statementCache != null && method.getName().equals("prepareStatement")) {
+                PreparedStatement cached = prepareCached(proxy, method, args);
+                if (cached != null) {
+                    return cached;
+                }
+            }
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        // Only prepareStatement(sql) and prepareStatement(sql, autoGeneratedKeys) are cached
+        private PreparedStatement prepareCached(Object proxy, Method method, Object[] args) throws SQLException {
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            if (parameterTypes.length == 1) {
+                return pooled.statementCache.prepare((Connection) proxy, (String) args[0], Statement.NO_GENERATED_KEYS);
+            }
+            if (parameterTypes.length == 2 && parameterTypes[1] == int.class) {
+                return pooled.statementCache.prepare((Connection) proxy, (String) args[0], (Integer) args[1]);
+            }
+            return null;
+        }
+    }
+
+    // Inner class for statistics
+    public static class PoolStats {
+        private final int totalConnections;
+        private final int idleConnections;
+        private final int activeConnections;
+        private final long borrowCount;
+        private final long totalBorrowWaitNanos;
+        private final long maxBorrowWaitNanos;
+        private final long borrowTimeouts;
+        private final long createdConnections;
+        private final long validationFailures;
+        private final long evictedConnections;
+        private final long leaksDetected;
+        private final long statementCacheHits;
+        private final long statementCacheMisses;
+        private final long statementCacheEvictions;
+
+        public PoolStats(int totalConnections, int idleConnections, int activeConnections,
+                         long borrowCount, long totalBorrowWaitNanos, long maxBorrowWaitNanos, long borrowTimeouts,
+                         long createdConnections, long validationFailures, long evictedConnections, long leaksDetected,
+                         long statementCacheHits, long statementCacheMisses, long statementCacheEvictions) {
+            this.totalConnections = totalConnections;
+            this.idleConnections = idleConnections;
+            this.activeConnections = activeConnections;
+            this.borrowCount = borrowCount;
+            this.totalBorrowWaitNanos = totalBorrowWaitNanos;
+            this.maxBorrowWaitNanos = maxBorrowWaitNanos;
+            this.borrowTimeouts = borrowTimeouts;
+            this.createdConnections = createdConnections;
+            this.validationFailures = validationFailures;
+            this.evictedConnections = evictedConnections;
+            this.leaksDetected = leaksDetected;
+            this.statementCacheHits = statementCacheHits;
+            this.statementCacheMisses = statementCacheMisses;
+            this.statementCacheEvictions = statementCacheEvictions;
+        }
+
+        public int getTotalConnections() { return totalConnections; }
+        public int getIdleConnections() { return idleConnections; }
+        public int getActiveConnections() { return activeConnections; }
+        public long getBorrowCount() { return borrowCount; }
+        public long getTotalBorrowWaitNanos() { return totalBorrowWaitNanos; }
+        public long getMaxBorrowWaitNanos() { return maxBorrowWaitNanos; }
+        public long getBorrowTimeouts() { return borrowTimeouts; }
+        public long getCreatedConnections() { return createdConnections; }
+        public long getValidationFailures() { return validationFailures; }
+        public long getEvictedConnections() { return evictedConnections; }
+        public long getLeaksDetected() { return leaksDetected; }
+        public long getStatementCacheHits() { return statementCacheHits; }
+        public long getStatementCacheMisses() { return statementCacheMisses; }
+        public long getStatementCacheEvictions() { return statementCacheEvictions; }
+
+        public double getStatementCacheHitRate() {
+            long lookups = statementCacheHits + statementCacheMisses;
+            return lookups == 0 ? 0 : statementCacheHits / (double) lookups;
+        }
+
+        public double getAverageBorrowWaitMillis() {
+            return borrowCount == 0 ? 0 : totalBorrowWaitNanos / (double) borrowCount / 1_000_000;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("PoolStats{total=%d, idle=%d, active=%d, borrows=%d, avgWait=%.3fms, maxWait=%.3fms, timeouts=%d, leaks=%d, stmtHitRate=%.2f}",
+                    totalConnections, idleConnections, activeConnections, borrowCount,
+                    getAverageBorrowWaitMillis(), maxBorrowWaitNanos / 1_000_000.0, borrowTimeouts, leaksDetected,
+                    getStatementCacheHitRate());
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package fr.inventory.utils;
 
+import javax.sql.DataSource;
 import java.sql.*;
-import java.util.Properties;
 
 public class DatabaseUtils {
     // private static final String H2_URL = "jdbc:h2:mem:inventory;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS INVENTORY";
@@ -9,75 +9,103 @@ public class DatabaseUtils {
     //private static final String H2_PASSWORD = "";
     
     //MySQL configuration (commented for now, using H2 for simplicity)
-    private static final String MYSQL_URL = "jdbc:mysql://localhost:3306/inventory_db";
+    // rewriteBatchedStatements turns a JDBC batch into multi-row statements (one round trip per batch);
+    // connectTimeout bounds opening a connection to a server that does not answer (the driver default waits forever)
+    private static final String MYSQL_URL = "jdbc:mysql://localhost:3306/inventory_db"
+            + "?rewriteBatchedStatements=true&connectTimeout=10000";
     private static final String MYSQL_USER = "root";
     private static final String MYSQL_PASSWORD = "";
 
-    private static Connection connection;
+    private static volatile ConnectionPool pool;
 
-    static {
+    /**
+     * Receives progress updates while the database is initialized.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(double fraction, String message);
+    }
+
+    /**
+     * Load the driver, open the pool, migrate the schema and check the sample data.
+     * Does nothing if the database is already initialized. The application calls this
+     * from a background thread at startup; otherwise the first connection request triggers it.
+     * An interrupted initialization stops between steps, closes its pool and fails.
+     */
+    public static synchronized void initialize(ProgressListener listener) throws SQLException {
+        if (pool != null) {
+            return;
+        }
+
+        listener.onProgress(0.1, "Chargement du pilote JDBC...");
         try {
             // Load H2 driver
             Class.forName("org.h2.Driver");
-            initializeDatabase();
         } catch (ClassNotFoundException e) {
-            throw new RuntimeException("H2 database driver not found", e);
-        } catch (SQLException e) {
-            throw new RuntimeException("Failed to initialize database", e);
+            throw new SQLException("H2 database driver not found", e);
+        }
+
+        listener.onProgress(0.3, "Ouverture du pool de connexions...");
+        // The tests point these at an in-memory H2 database
+        ConnectionPool newPool = new ConnectionPool(System.getProperty("inventory.db.url", MYSQL_URL),
+                System.getProperty("inventory.db.user", MYSQL_USER),
+                System.getProperty("inventory.db.password", MYSQL_PASSWORD), PoolConfig.fromSystemProperties());
+        try (Connection conn = newPool.getConnection()) {
+            checkNotInterrupted();
+            listener.onProgress(0.6, "Migration du schéma...");
+            new SchemaMigrator(conn).migrate();
+
+            checkNotInterrupted();
+            listener.onProgress(0.9, "Vérification des données...");
+            insertSampleData(conn);
+            checkNotInterrupted();
+        } catch (SQLException | RuntimeException e) {
+            newPool.close();
+            throw e;
         }
+
+        pool = newPool;
+        listener.onProgress(1.0, "Base de données prête");
     }
 
-    public static Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            connection = DriverManager.getConnection(MYSQL_URL, MYSQL_USER, MYSQL_PASSWORD);
-            connection.setAutoCommit(true);
+    private static void checkNotInterrupted() throws SQLException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new SQLException("Database initialization interrupted");
         }
-        return connection;
     }
 
-    private static void initializeDatabase() throws SQLException {
-        try (Connection conn = getConnection()) {
-            createTables(conn);
-            insertSampleData(conn);
+    public static boolean isInitialized() {
+        return pool != null;
+    }
+
+    /**
+     * Borrow a connection from the pool. Callers must close it (try-with-resources)
+     * to hand it back; closing does not close the physical connection.
+     * Inside a {@link TransactionTemplate} unit of work, the thread's bound connection is returned.
+     */
+    public static Connection getConnection() throws SQLException {
+        Connection bound = TransactionTemplate.currentConnection();
+        if (bound != null) {
+            return bound;
         }
+        return pool().getConnection();
+    }
+
+    public static DataSource getDataSource() throws SQLException {
+        return pool();
+    }
+
+    public static ConnectionPool.PoolStats getPoolStats() throws SQLException {
+        return pool().getStats();
     }
 
-    private static void createTables(Connection conn) throws SQLException {
-        // Create Products table
-        String createProductsTable = """
-            CREATE TABLE IF NOT EXISTS products (
-                id BIGINT AUTO_INCREMENT PRIMARY KEY,
-                name VARCHAR(255) NOT NULL,
-                description TEXT,
-                current_stock BIGINT NOT NULL DEFAULT 0,
-                min_stock BIGINT NOT NULL DEFAULT 0,
-                price DECIMAL(10,2) NOT NULL DEFAULT 0.00,
-                is_active BOOLEAN NOT NULL DEFAULT TRUE,
-                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
-            )
-        """;
-
-        // Create Transactions table
-        String createTransactionsTable = """
-            CREATE TABLE IF NOT EXISTS transactions (
-                id BIGINT AUTO_INCREMENT PRIMARY KEY,
-                product_id BIGINT NOT NULL,
-                quantity BIGINT NOT NULL,
-                transaction_type VARCHAR(20) NOT NULL,
-                description TEXT,
-                user_name VARCHAR(100),
-                timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                blockchain_tx_hash VARCHAR(255),
-                synced_to_blockchain BOOLEAN NOT NULL DEFAULT FALSE,
-                FOREIGN KEY (product_id) REFERENCES products(id)
-            )
-        """;
-
-        try (Statement stmt = conn.createStatement()) {
-            stmt.execute(createProductsTable);
-            stmt.execute(createTransactionsTable);
+    private static ConnectionPool pool() throws SQLException {
+        ConnectionPool current = pool;
+        if (current == null) {
+            initialize((fraction, message) -> { });
+            current = pool;
         }
+        return current;
     }
 
     private static void insertSampleData(Connection conn) throws SQLException {
@@ -93,22 +121,15 @@ public class DatabaseUtils {
     }
 
     public static void closeConnection() {
+        ConnectionPool pool = DatabaseUtils.pool;
+        if (pool == null) {
+            return;
+        }
         try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-            }
-        } catch (SQLException e) {
-            System.err.println("Error closing database connection: " + e.getMessage());
+            System.out.println("Closing connection pool: " + pool.getStats());
+            pool.close();
+        } catch (Exception e) {
+            System.err.println("Error closing database connection pool: " + e.getMessage());
         }
     }
-
-    // Utility method to execute queries with parameters
-    public static PreparedStatement prepareStatement(String sql) throws SQLException {
-        return getConnection().prepareStatement(sql);
-    }
-
-    // Utility method to execute queries and return generated keys
-    public static PreparedStatement prepareStatementWithGeneratedKeys(String sql) throws SQLException {
-        return getConnection().prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-    }
 }
\ No newline at end of file
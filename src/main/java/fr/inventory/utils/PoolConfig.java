@@ -0,0 +1,135 @@
+package fr.inventory.utils;
+
+/**
+ * Sizing and housekeeping settings for {@link ConnectionPool}.
+ * Every value can be overridden with a system property prefixed by
+ * {@code inventory.db.pool.} (e.g. {@code -Dinventory.db.pool.maxSize=32}).
+ */
+public class PoolConfig {
+    private static final String PROPERTY_PREFIX = "inventory.db.pool.";
+
+    private int minSize = 2;
+    private int maxSize = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+    private long connectionTimeoutMillis = 30_000;
+    private long idleTimeoutMillis = 600_000;
+    private long validationIntervalMillis = 5_000;
+    private int validationTimeoutSeconds = 5;
+    private long leakDetectionThresholdMillis = 60_000;
+    private long housekeepingIntervalMillis = 30_000;
+    private int statementCacheSize = 64;
+
+    public static PoolConfig fromSystemProperties() {
+        PoolConfig config = new PoolConfig();
+        config.setMinSize(Integer.getInteger(PROPERTY_PREFIX + "minSize", config.minSize));
+        config.setMaxSize(Integer.getInteger(PROPERTY_PREFIX + "maxSize", config.maxSize));
+        config.setConnectionTimeoutMillis(Long.getLong(PROPERTY_PREFIX + "connectionTimeoutMillis", config.connectionTimeoutMillis));
+        config.setIdleTimeoutMillis(Long.getLong(PROPERTY_PREFIX + "idleTimeoutMillis", config.idleTimeoutMillis));
+        config.setValidationIntervalMillis(Long.getLong(PROPERTY_PREFIX + "validationIntervalMillis", config.validationIntervalMillis));
+        config.setValidationTimeoutSeconds(Integer.getInteger(PROPERTY_PREFIX + "validationTimeoutSeconds", config.validationTimeoutSeconds));
+        config.setLeakDetectionThresholdMillis(Long.getLong(PROPERTY_PREFIX + "leakDetectionThresholdMillis", config.leakDetectionThresholdMillis));
+        config.setHousekeepingIntervalMillis(Long.getLong(PROPERTY_PREFIX + "housekeepingIntervalMillis", config.housekeepingIntervalMillis));
+        config.setStatementCacheSize(Integer.getInteger(PROPERTY_PREFIX + "statementCacheSize", config.statementCacheSize));
+        config.validate();
+        return config;
+    }
+
+    public void validate() {
+        if (minSize < 0) {
+            throw new IllegalArgumentException("Pool minSize cannot be negative");
+        }
+        if (maxSize <= 0 || maxSize < minSize) {
+            throw new IllegalArgumentException("Pool maxSize must be positive and >= minSize");
+        }
+        if (connectionTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("Pool connectionTimeoutMillis must be positive");
+        }
+        if (housekeepingIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Pool housekeepingIntervalMillis must be positive");
+        }
+        if (statementCacheSize < 0) {
+            throw new IllegalArgumentException("Pool statementCacheSize cannot be negative");
+        }
+    }
+
+    // Getters and Setters
+    public int getMinSize() {
+        return minSize;
+    }
+
+    public void setMinSize(int minSize) {
+        this.minSize = minSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public long getConnectionTimeoutMillis() {
+        return connectionTimeoutMillis;
+    }
+
+    public void setConnectionTimeoutMillis(long connectionTimeoutMillis) {
+        this.connectionTimeoutMillis = connectionTimeoutMillis;
+    }
+
+    public long getIdleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    public void setIdleTimeoutMillis(long idleTimeoutMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    /**
+     * Connections idle for less than this are handed out without a validity check.
+     */
+    public long getValidationIntervalMillis() {
+        return validationIntervalMillis;
+    }
+
+    public void setValidationIntervalMillis(long validationIntervalMillis) {
+        this.validationIntervalMillis = validationIntervalMillis;
+    }
+
+    public int getValidationTimeoutSeconds() {
+        return validationTimeoutSeconds;
+    }
+
+    public void setValidationTimeoutSeconds(int validationTimeoutSeconds) {
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+    }
+
+    /**
+     * A borrowed connection held longer than this is reported as a possible leak (0 disables).
+     */
+    public long getLeakDetectionThresholdMillis() {
+        return leakDetectionThresholdMillis;
+    }
+
+    public void setLeakDetectionThresholdMillis(long leakDetectionThresholdMillis) {
+        this.leakDetectionThresholdMillis = leakDetectionThresholdMillis;
+    }
+
+    public long getHousekeepingIntervalMillis() {
+        return housekeepingIntervalMillis;
+    }
+
+    public void setHousekeepingIntervalMillis(long housekeepingIntervalMillis) {
+        this.housekeepingIntervalMillis = housekeepingIntervalMillis;
+    }
+
+    /**
+     * Maximum number of prepared statements cached per connection (0 disables the cache).
+     */
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    public void setStatementCacheSize(int statementCacheSize) {
+        this.statementCacheSize = statementCacheSize;
+    }
+}
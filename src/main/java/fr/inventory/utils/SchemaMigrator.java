@@ -0,0 +1,198 @@
+package fr.inventory.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies the versioned SQL scripts under {@code db/migration} in order.
+ * Applied versions are recorded in {@code schema_version} together with a SHA-256
+ * checksum of the script; a script edited after it was applied aborts startup.
+ */
+public class SchemaMigrator {
+    private static final Logger logger = LoggerFactory.getLogger(SchemaMigrator.class);
+
+    private static final String MIGRATION_PATH = "/db/migration/";
+
+    /**
+     * Migration scripts in application order. New scripts are appended, never reordered or edited.
+     */
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "create tables", "V1__create_tables.sql"),
+            new Migration(2, "add query indexes", "V2__add_query_indexes.sql"),
+            new Migration(3, "create stats counters", "V3__create_stats_counters.sql"),
+            new Migration(4, "add transactions updated_at", "V4__add_transactions_updated_at.sql")
+    );
+
+    private final Connection conn;
+
+    public SchemaMigrator(Connection conn) {
+        this.conn = conn;
+    }
+
+    /**
+     * Apply every pending migration.
+     * @return number of migrations applied
+     */
+    public int migrate() throws SQLException {
+        createVersionTable();
+        Map<Integer, String> applied = findAppliedChecksums();
+
+        int count = 0;
+        for (Migration migration : MIGRATIONS) {
+            String script = migration.load();
+            String checksum = checksum(script);
+            String appliedChecksum = applied.get(migration.version());
+
+            if (appliedChecksum != null) {
+                if (!appliedChecksum.equals(checksum)) {
+                    throw new SQLException("Checksum mismatch for migration V" + migration.version()
+                            + " (" + migration.script() + "): script was modified after being applied");
+                }
+                continue;
+            }
+
+            apply(migration, script, checksum);
+            count++;
+        }
+
+        if (count > 0) {
+            logger.info("Applied {} schema migration(s), schema is at version {}", count, currentVersion());
+        }
+        return count;
+    }
+
+    /**
+     * @return latest version declared by the application
+     */
+    public static int latestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version();
+    }
+
+    private void createVersionTable() throws SQLException {
+        String sql = """
+            CREATE TABLE IF NOT EXISTS schema_version (
+                version INT PRIMARY KEY,
+                description VARCHAR(255) NOT NULL,
+                script VARCHAR(255) NOT NULL,
+                checksum VARCHAR(64) NOT NULL,
+                execution_time_ms BIGINT NOT NULL,
+                installed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+            )
+        """;
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    private Map<Integer, String> findAppliedChecksums() throws SQLException {
+        Map<Integer, String> applied = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (rs.next()) {
+                applied.put(rs.getInt("version"), rs.getString("checksum"));
+            }
+        }
+        return applied;
+    }
+
+    private int currentVersion() throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MAX(version) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private void apply(Migration migration, String script, String checksum) throws SQLException {
+        logger.info("Applying schema migration V{}: {}", migration.version(), migration.description());
+        long start = System.currentTimeMillis();
+
+        // DDL commits implicitly on MySQL, so statements run one by one and the
+        // version row is only written once all of them have succeeded
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : splitStatements(script)) {
+                stmt.execute(sql);
+            }
+        } catch (SQLException e) {
+            throw new SQLException("Migration V" + migration.version() + " failed: " + e.getMessage(),
+                    e.getSQLState(), e.getErrorCode(), e);
+        }
+
+        String insert = """
+            INSERT INTO schema_version (version, description, script, checksum, execution_time_ms)
+            VALUES (?, ?, ?, ?, ?)
+        """;
+
+        try (PreparedStatement stmt = conn.prepareStatement(insert)) {
+            stmt.setInt(1, migration.version());
+            stmt.setString(2, migration.description());
+            stmt.setString(3, migration.script());
+            stmt.setString(4, checksum);
+            stmt.setLong(5, System.currentTimeMillis() - start);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Split a script into statements on {@code ;} at the end of a line, dropping {@code --} comment lines.
+     */
+    static List<String> splitStatements(String script) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+
+        for (String line : script.split("\n")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                continue;
+            }
+            if (trimmed.endsWith(";")) {
+                current.append(trimmed, 0, trimmed.length() - 1);
+                statements.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(trimmed).append('\n');
+            }
+        }
+
+        if (!current.toString().isBlank()) {
+            statements.add(current.toString().trim());
+        }
+        return statements;
+    }
+
+    private static String checksum(String script) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(script.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record Migration(int version, String description, String script) {
+
+        private String load() throws SQLException {
+            try (InputStream in = SchemaMigrator.class.getResourceAsStream(MIGRATION_PATH + script)) {
+                if (in == null) {
+                    throw new SQLException("Migration script not found: " + MIGRATION_PATH + script);
+                }
+                // Normalize line endings so a checkout with CRLF yields the same checksum
+                return new String(in.readAllBytes(), StandardCharsets.UTF_8).replace("\r\n", "\n");
+            } catch (IOException e) {
+                throw new SQLException("Unable to read migration script " + script + ": " + e.getMessage(), e);
+            }
+        }
+    }
+}
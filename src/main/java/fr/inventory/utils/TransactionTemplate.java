@@ -0,0 +1,230 @@
+package fr.inventory.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit of work spanning several DAO calls.
+ * While {@link #execute(TransactionCallback)} runs, every {@link DatabaseUtils#getConnection()}
+ * call on the same thread returns the same connection with auto-commit disabled, so all
+ * statements commit (or roll back) together. Deadlocks and serialization failures are retried.
+ */
+public class TransactionTemplate {
+    private static final Logger logger = LoggerFactory.getLogger(TransactionTemplate.class);
+
+    private static final String SQLSTATE_SERIALIZATION_FAILURE = "40001";
+    private static final String SQLSTATE_DEADLOCK_DETECTED = "40P01";
+    private static final int MYSQL_ER_LOCK_DEADLOCK = 1213;
+
+    private static final ThreadLocal<Connection> boundConnection = new ThreadLocal<>();
+    private static final ThreadLocal<List<Runnable>> afterCommitActions = new ThreadLocal<>();
+
+    private final int isolationLevel;
+    private final int maxRetries;
+    private final long retryBackoffMillis;
+
+    @FunctionalInterface
+    public interface TransactionCallback<T> {
+        T doInTransaction();
+    }
+
+    public TransactionTemplate() {
+        this(Connection.TRANSACTION_READ_COMMITTED, 3, 50);
+    }
+
+    /**
+     * @param isolationLevel one of the {@code Connection.TRANSACTION_*} constants
+     * @param maxRetries how many times a deadlocked unit of work is retried
+     * @param retryBackoffMillis base delay between retries, multiplied by the attempt number
+     */
+    public TransactionTemplate(int isolationLevel, int maxRetries, long retryBackoffMillis) {
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("maxRetries cannot be negative");
+        }
+        this.isolationLevel = isolationLevel;
+        this.maxRetries = maxRetries;
+        this.retryBackoffMillis = retryBackoffMillis;
+    }
+
+    /**
+     * Run the callback in a single JDBC transaction.
+     * If a unit of work is already active on this thread, the callback joins it.
+     */
+    public <T> T execute(TransactionCallback<T> callback) {
+        if (boundConnection.get() != null) {
+            return callback.doInTransaction();
+        }
+
+        int attempt = 0;
+        while (true) {
+            try {
+                return executeOnce(callback);
+            } catch (RuntimeException e) {
+                if (attempt >= maxRetries || !isDeadlock(e)) {
+                    throw e;
+                }
+                attempt++;
+                logger.warn("Deadlock detected, retrying unit of work (attempt {}/{})", attempt, maxRetries);
+                sleepBeforeRetry(attempt);
+            }
+        }
+    }
+
+    public int getIsolationLevel() {
+        return isolationLevel;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * @return true if a unit of work is active on the calling thread
+     */
+    public static boolean isActive() {
+        return boundConnection.get() != null;
+    }
+
+    /**
+     * Run an action once the unit of work active on this thread has committed.
+     * Actions are dropped if it rolls back. Without an active unit of work the action runs immediately,
+     * since the caller's statements have already been auto-committed.
+     */
+    public static void afterCommit(Runnable action) {
+        List<Runnable> actions = afterCommitActions.get();
+        if (actions == null) {
+            action.run();
+        } else {
+            actions.add(action);
+        }
+    }
+
+    /**
+     * Connection bound to the calling thread by an active unit of work, or null.
+     * The returned handle ignores {@code close()}; the template releases the connection.
+     */
+    static Connection currentConnection() {
+        return boundConnection.get();
+    }
+
+    private <T> T executeOnce(TransactionCallback<T> callback) {
+        Connection conn;
+        try {
+            conn = DatabaseUtils.getConnection();
+        } catch (SQLException e) {
+            throw new RuntimeException("Unable to start transaction: " + e.getMessage(), e);
+        }
+
+        int previousIsolation = Connection.TRANSACTION_NONE;
+        List<Runnable> actions = new ArrayList<>();
+        T result;
+        try {
+            previousIsolation = conn.getTransactionIsolation();
+            if (previousIsolation != isolationLevel) {
+                conn.setTransactionIsolation(isolationLevel);
+            }
+            conn.setAutoCommit(false);
+            boundConnection.set(nonClosing(conn));
+            afterCommitActions.set(actions);
+
+            result = callback.doInTransaction();
+            conn.commit();
+        } catch (SQLException e) {
+            rollbackQuietly(conn);
+            throw new RuntimeException("Transaction failed: " + e.getMessage(), e);
+        } catch (RuntimeException | Error e) {
+            rollbackQuietly(conn);
+            throw e;
+        } finally {
+            boundConnection.remove();
+            afterCommitActions.remove();
+            try {
+                conn.setAutoCommit(true);
+                if (previousIsolation != Connection.TRANSACTION_NONE && previousIsolation != isolationLevel) {
+                    conn.setTransactionIsolation(previousIsolation);
+                }
+            } catch (SQLException e) {
+                logger.debug("Error resetting connection after transaction: {}", e.getMessage());
+            }
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                logger.debug("Error returning connection after transaction: {}", e.getMessage());
+            }
+        }
+
+        // Run once the connection is released so actions that touch the database use their own
+        runAfterCommitActions(actions);
+        return result;
+    }
+
+    private static void runAfterCommitActions(List<Runnable> actions) {
+        for (Runnable action : actions) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                logger.warn("After-commit action failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void rollbackQuietly(Connection conn) {
+        try {
+            conn.rollback();
+        } catch (SQLException e) {
+            logger.warn("Rollback failed: {}", e.getMessage());
+        }
+    }
+
+    private void sleepBeforeRetry(int attempt) {
+        try {
+            Thread.sleep(retryBackoffMillis * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while retrying transaction", e);
+        }
+    }
+
+    private static boolean isDeadlock(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException) {
+                String sqlState = sqlException.getSQLState();
+                if (SQLSTATE_SERIALIZATION_FAILURE.equals(sqlState)
+                        || SQLSTATE_DEADLOCK_DETECTED.equals(sqlState)
+                        || sqlException.getErrorCode() == MYSQL_ER_LOCK_DEADLOCK) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static Connection nonClosing(Connection conn) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            return null;
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            try {
+                                return method.invoke(conn, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                    }
+                });
+    }
+}
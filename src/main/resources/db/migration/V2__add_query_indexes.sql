@@ -0,0 +1,25 @@
+-- Secondary indexes matched to the DAO queries.
+-- Every transaction listing orders by (timestamp DESC, id DESC), so each filter
+-- column is followed by timestamp and id to serve the filter and the sort from one index.
+
+-- findAll, findRecent, findByDateRange, keyset pages without a filter
+CREATE INDEX idx_transactions_timestamp_id ON transactions (timestamp, id);
+
+-- findByProductId, findPageByProductId (also backs the product_id foreign key)
+CREATE INDEX idx_transactions_product_timestamp ON transactions (product_id, timestamp, id);
+
+-- findByType, findPageByType, countByType
+CREATE INDEX idx_transactions_type_timestamp ON transactions (transaction_type, timestamp, id);
+
+-- findByUser, findPageByUser
+CREATE INDEX idx_transactions_user_timestamp ON transactions (user_name, timestamp, id);
+
+-- findPending, findSynced, findPendingPage, countPending
+CREATE INDEX idx_transactions_synced_timestamp ON transactions (synced_to_blockchain, timestamp, id);
+
+-- findAll, searchByName ordering
+CREATE INDEX idx_products_name ON products (name);
+
+-- findActive, countActive; the trailing stock columns let the low-stock
+-- predicate (current_stock <= min_stock) be evaluated from the index alone
+CREATE INDEX idx_products_active_name ON products (is_active, name, current_stock, min_stock);
@@ -0,0 +1,8 @@
+-- Last change of each transaction, maintained by the server.
+-- The search index stores the latest value with its segment and, at startup, re-indexes
+-- only the transactions inserted or updated since.
+
+ALTER TABLE transactions
+    ADD COLUMN updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP;
+
+CREATE INDEX idx_transactions_updated_at ON transactions (updated_at);
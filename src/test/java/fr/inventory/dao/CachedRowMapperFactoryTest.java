@@ -0,0 +1,71 @@
+package fr.inventory.dao;
+
+import fr.inventory.utils.DatabaseUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CachedRowMapperFactoryTest {
+
+    private final AtomicInteger bindings = new AtomicInteger();
+    private final CachedRowMapperFactory<Long> factory = new CachedRowMapperFactory<>(columns -> {
+        bindings.incrementAndGet();
+        int id = columns.require("id");
+        return rs -> rs.getLong(id);
+    }, 2);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TestDatabase.reset();
+        TestDatabase.insertProduct("Vis", 10, 2, true);
+    }
+
+    @Test
+    void eachStatementIsBoundOnce() throws SQLException {
+        String sql = "SELECT id, name FROM products";
+        query(sql);
+        query(sql);
+
+        assertEquals(1, bindings.get());
+    }
+
+    @Test
+    void leastRecentlyUsedStatementsAreEvicted() throws SQLException {
+        // IN-list variants, as built by the chunked queries
+        String one = "SELECT id FROM products WHERE id IN (?)";
+        String two = "SELECT id FROM products WHERE id IN (?, ?)";
+        String three = "SELECT id FROM products WHERE id IN (?, ?, ?)";
+        query(one);
+        query(two);
+        query(one);
+        query(three);
+
+        assertEquals(2, factory.size());
+        query(one);
+        assertEquals(3, bindings.get());
+        query(two);
+        assertEquals(4, bindings.get());
+    }
+
+    private void query(String sql) throws SQLException {
+        try (Connection conn = DatabaseUtils.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 1; i <= stmt.getParameterMetaData().getParameterCount(); i++) {
+                stmt.setLong(i, 0);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper<Long> mapper = factory.bind(sql, rs);
+                while (rs.next()) {
+                    mapper.mapRow(rs);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package fr.inventory.dao;
+
+import fr.inventory.model.Transaction;
+import fr.inventory.utils.DatabaseUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of one page of 50 transactions at a given depth, over 100,000 rows in the migrated
+ * H2 schema: the full ordered listing the DAOs returned before {@link Page} (the page is then
+ * cut from the list), LIMIT with OFFSET, and the seek on the (timestamp, id) cursor that
+ * {@link TransactionDAOImpl} uses.
+ * Not run by the test phase: after {@code mvn test-compile}, run {@link #main(String[])} from the
+ * IDE, or {@code org.openjdk.jmh.Main KeysetPaginationBenchmark} with the test classpath.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeysetPaginationBenchmark {
+    private static final int ROWS = 100_000;
+    private static final int PAGE_SIZE = 50;
+
+    private static final String FULL_SQL = "SELECT t.* FROM transactions t ORDER BY t.timestamp DESC, t.id DESC";
+    private static final String FIRST_PAGE_SQL = FULL_SQL + " LIMIT ?";
+    private static final String OFFSET_SQL = FULL_SQL + " LIMIT ? OFFSET ?";
+    private static final String KEYSET_SQL = "SELECT t.* FROM transactions t WHERE 1 = 1"
+            + " AND t.timestamp <= ? AND (t.timestamp < ? OR t.id < ?) ORDER BY t.timestamp DESC, t.id DESC LIMIT ?";
+
+    // Rows skipped before the page: the first page, and two deep ones
+    @Param({"0", "10000", "90000"})
+    public int depth;
+
+    private Connection conn;
+    private Timestamp cursorTimestamp;
+    private long cursorId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        TestDatabase.reset();
+        // Otherwise H2 hands a re-executed statement its previous result when the table is unchanged
+        TestDatabase.execute("SET OPTIMIZE_REUSE_RESULTS 0");
+        // MySQL reads idx_transactions_timestamp_id backwards for the DESC order, H2 only sorts
+        // along an index declared in that direction
+        TestDatabase.execute("CREATE INDEX IF NOT EXISTS idx_benchmark_timestamp_id_desc ON transactions (timestamp DESC, id DESC)");
+        long productId = TestDatabase.insertProduct("Palette", 10, 2, true);
+        conn = DatabaseUtils.getConnection();
+        try (PreparedStatement insert = conn.prepareStatement("INSERT INTO transactions "
+                + "(product_id, quantity, transaction_type, description, user_name, timestamp) VALUES (?, 1, 'IN', ?, ?, ?)")) {
+            LocalDateTime start = LocalDateTime.now().minusYears(1);
+            for (int i = 0; i < ROWS; i++) {
+                insert.setLong(1, productId);
+                insert.setString(2, "Mouvement " + i);
+                insert.setString(3, "user" + i % 10);
+                // Several rows per second, so the cursor has to break timestamp ties by id
+                insert.setTimestamp(4, Timestamp.valueOf(start.plusSeconds(i / 4)));
+                insert.addBatch();
+                if (i % 1000 == 999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+
+        // Cursor of the row just before the page, as the previous page would have returned it
+        if (depth > 0) {
+            try (PreparedStatement stmt = conn.prepareStatement(OFFSET_SQL)) {
+                stmt.setInt(1, 1);
+                stmt.setInt(2, depth - 1);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    rs.next();
+                    cursorTimestamp = rs.getTimestamp("timestamp");
+                    cursorId = rs.getLong("id");
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        conn.close();
+    }
+
+    @Benchmark
+    public List<Transaction> fullScan() throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(FULL_SQL)) {
+            List<Transaction> all = read(FULL_SQL, stmt);
+            return all.subList(depth, depth + PAGE_SIZE);
+        }
+    }
+
+    @Benchmark
+    public List<Transaction> offset() throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(OFFSET_SQL)) {
+            stmt.setInt(1, PAGE_SIZE);
+            stmt.setInt(2, depth);
+            return read(OFFSET_SQL, stmt);
+        }
+    }
+
+    @Benchmark
+    public List<Transaction> keyset() throws SQLException {
+        if (depth == 0) {
+            try (PreparedStatement stmt = conn.prepareStatement(FIRST_PAGE_SQL)) {
+                stmt.setInt(1, PAGE_SIZE + 1);
+                return read(FIRST_PAGE_SQL, stmt);
+            }
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(KEYSET_SQL)) {
+            stmt.setTimestamp(1, cursorTimestamp);
+            stmt.setTimestamp(2, cursorTimestamp);
+            stmt.setLong(3, cursorId);
+            stmt.setInt(4, PAGE_SIZE + 1);
+            return read(KEYSET_SQL, stmt);
+        }
+    }
+
+    private static List<Transaction> read(String sql, PreparedStatement stmt) throws SQLException {
+        List<Transaction> transactions = new ArrayList<>();
+        try (ResultSet rs = stmt.executeQuery()) {
+            RowMapper<Transaction> mapper = RowMappers.TRANSACTION.bind(sql, rs);
+            while (rs.next()) {
+                transactions.add(mapper.mapRow(rs));
+            }
+        }
+        return transactions;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(KeysetPaginationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,118 @@
+package fr.inventory.dao;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LowStockMonitorTest {
+
+    private long screws;
+    private long nails;
+    private long glue;
+    private LowStockMonitor monitor;
+    private final List<String> crossings = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TestDatabase.reset();
+        screws = TestDatabase.insertProduct("Vis", 2, 10, true);
+        nails = TestDatabase.insertProduct("Clou", 20, 10, true);
+        glue = TestDatabase.insertProduct("Colle", 0, 10, false);
+
+        monitor = new LowStockMonitor();
+        monitor.addListener((crossing, level) -> crossings.add(crossing + " " + level.getProductName()));
+    }
+
+    @Test
+    void loadsTheActiveLowProductsFromTheTable() {
+        assertEquals(List.of(screws), monitor.lowStockIds());
+        assertEquals(1, monitor.lowStockCount());
+    }
+
+    @Test
+    void lowestMarginComesFirstThenName() {
+        monitor.ensureLoaded();
+        monitor.updateStock(nails, 2, monitor.nextSequence());
+        assertEquals(List.of(nails, screws), monitor.lowStockIds());
+
+        monitor.updateStock(screws, 0, monitor.nextSequence());
+        assertEquals(List.of(screws, nails), monitor.lowStockIds());
+        assertEquals(2, monitor.lowStockCount());
+    }
+
+    @Test
+    void listenersSeeEveryCrossing() {
+        monitor.ensureLoaded();
+        monitor.updateStock(nails, 10, monitor.nextSequence());
+        monitor.updateStock(nails, 5, monitor.nextSequence());
+        monitor.updateStock(screws, 50, monitor.nextSequence());
+        monitor.updateStock(screws, 60, monitor.nextSequence());
+        monitor.put(nails, "Clou acier", 5, 10, true, monitor.nextSequence());
+
+        assertEquals(List.of("ENTERED Clou", "CHANGED Clou", "LEFT Vis", "CHANGED Clou acier"), crossings);
+    }
+
+    @Test
+    void changesReportedOutOfOrderKeepTheLatestCommit() {
+        monitor.ensureLoaded();
+        long first = monitor.nextSequence();
+        long second = monitor.nextSequence();
+
+        // The first writer's after-commit action runs last
+        monitor.updateStock(nails, 50, second);
+        monitor.updateStock(nails, 5, first);
+
+        assertEquals(List.of(screws), monitor.lowStockIds());
+        assertEquals(50, monitor.levels(List.of(nails)).get(0).getCurrentStock());
+        assertEquals(List.of(), crossings);
+    }
+
+    @Test
+    void activationAndRemovalMoveProducts() {
+        monitor.ensureLoaded();
+        monitor.setActive(glue, true, monitor.nextSequence());
+        assertEquals(List.of(glue, screws), monitor.lowStockIds());
+
+        monitor.setActive(List.of(glue, screws), false, monitor.nextSequence());
+        assertEquals(List.of(), monitor.lowStockIds());
+
+        monitor.setActive(screws, true, monitor.nextSequence());
+        monitor.remove(screws, monitor.nextSequence());
+        assertEquals(List.of(), monitor.lowStockIds());
+        assertEquals(0, monitor.lowStockCount());
+        assertEquals(List.of("ENTERED Colle", "LEFT Colle", "LEFT Vis", "ENTERED Vis", "LEFT Vis"), crossings);
+    }
+
+    @Test
+    void resyncCorrectsRowsWrittenBehindItsBack() throws Exception {
+        monitor.ensureLoaded();
+        TestDatabase.execute("UPDATE products SET current_stock = 1 WHERE id = " + nails);
+        TestDatabase.execute("DELETE FROM products WHERE id = " + screws);
+        long bolts = TestDatabase.insertProduct("Boulon", 0, 5, true);
+
+        assertEquals(3, monitor.resync());
+        assertEquals(List.of(nails, bolts), monitor.lowStockIds());
+        assertEquals(0, monitor.resync());
+    }
+
+    @Test
+    void levelsAreReturnedInTheRequestedOrder() {
+        List<StockLevel> levels = monitor.levels(List.of(nails, 999L, screws));
+
+        assertEquals(2, levels.size());
+        assertEquals(20, levels.get(0).getCurrentStock());
+        assertEquals(2, levels.get(1).getCurrentStock());
+    }
+
+    @Test
+    void changesBeforeTheLoadAreReadFromTheTable() {
+        monitor.updateStock(nails, 1, monitor.nextSequence());
+
+        assertEquals(List.of(screws), monitor.lowStockIds());
+        assertEquals(List.of(), crossings);
+    }
+}
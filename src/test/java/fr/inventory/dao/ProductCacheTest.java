@@ -0,0 +1,68 @@
+package fr.inventory.dao;
+
+import fr.inventory.utils.TransactionTemplate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProductCacheTest {
+
+    private long screws;
+    private ProductCache cache;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TestDatabase.reset();
+        screws = TestDatabase.insertProduct("Vis", 10, 2, true);
+        cache = new ProductCache(new ProductDAOImpl(), 100, 60_000);
+    }
+
+    @Test
+    void repeatedReadsHitTheCache() {
+        cache.findById(screws);
+        cache.findById(screws);
+
+        assertEquals(1, cache.getStats().getHits());
+        assertEquals(1, cache.getStats().getLoads());
+    }
+
+    @Test
+    void unitsOfWorkReadTheirOwnWrites() {
+        cache.findById(screws);
+
+        long stock = new TransactionTemplate().execute(() -> {
+            setStock(screws, 3);
+            return cache.findById(screws).orElseThrow().getCurrentStock();
+        });
+
+        assertEquals(3, stock);
+    }
+
+    @Test
+    void readsOfARolledBackUnitOfWorkAreNotKept() {
+        assertThrows(IllegalStateException.class, () -> new TransactionTemplate().execute(() -> {
+            setStock(screws, 3);
+            cache.findById(screws);
+            cache.findAll();
+            throw new IllegalStateException("rollback");
+        }));
+
+        assertEquals(10, cache.findById(screws).orElseThrow().getCurrentStock());
+        assertEquals(0, cache.getStats().getHits());
+    }
+
+    /**
+     * Write on the unit of work's connection, behind the cache's back
+     */
+    private static void setStock(long productId, long stock) {
+        try {
+            TestDatabase.execute("UPDATE products SET current_stock = " + stock + " WHERE id = " + productId);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package fr.inventory.dao;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProductCompletionIndexTest {
+
+    private long screw;
+    private long screwdriver;
+    private long brace;
+    private long nail;
+    private ProductCompletionIndex index;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TestDatabase.reset();
+        screw = TestDatabase.insertProduct("Vis", 10, 2, true);
+        screwdriver = TestDatabase.insertProduct("Visseuse", 10, 2, true);
+        brace = TestDatabase.insertProduct("Vilebrequin", 10, 2, true);
+        nail = TestDatabase.insertProduct("Clou", 10, 2, true);
+        TestDatabase.insertProduct("Vitre", 10, 2, false);
+
+        LocalDateTime now = LocalDateTime.now();
+        TestDatabase.insertTransaction(screwdriver, "Sortie", "alice", now);
+        TestDatabase.insertTransaction(screwdriver, "Sortie", "alice", now.minusDays(3));
+        TestDatabase.insertTransaction(brace, "Sortie", "alice", now.minusDays(10));
+        // Outside the 30 day window
+        for (int i = 0; i < 3; i++) {
+            TestDatabase.insertTransaction(screw, "Sortie", "alice", now.minusDays(40));
+        }
+
+        index = new ProductCompletionIndex(30);
+    }
+
+    @Test
+    void mostUsedProductsInTheWindowRankFirst() {
+        assertEquals(List.of(screwdriver, brace, screw), index.complete("vi", 10));
+        assertEquals(List.of(screwdriver, screw), index.complete("VIS", 10));
+        assertEquals(List.of(screwdriver, brace, nail, screw), index.complete("", 10));
+        assertEquals(List.of(), index.complete("x", 10));
+    }
+
+    @Test
+    void resultsAreCappedAtTheLimit() {
+        assertEquals(List.of(screwdriver), index.complete("vi", 1));
+        assertEquals(List.of(), index.complete("vi", 0));
+    }
+
+    @Test
+    void recordedUsesChangeTheRanking() {
+        index.ensureLoaded();
+        for (int i = 0; i < 3; i++) {
+            index.recordUse(screw);
+        }
+
+        assertEquals(List.of(screw, screwdriver, brace), index.complete("vi", 10));
+    }
+
+    @Test
+    void inactiveProductsAreSkipped() {
+        index.ensureLoaded();
+        index.setActive(screwdriver, false);
+
+        assertEquals(List.of(brace, screw), index.complete("vi", 10));
+
+        index.setActive(screwdriver, true);
+        assertEquals(List.of(screwdriver, brace, screw), index.complete("vi", 10));
+    }
+
+    @Test
+    void removedAndRenamedProductsMove() {
+        index.ensureLoaded();
+        index.remove(brace);
+        index.put(screw, "Boulon", true);
+
+        assertEquals(List.of(screwdriver), index.complete("vi", 10));
+        assertEquals(List.of(screw), index.complete("bou", 10));
+    }
+}
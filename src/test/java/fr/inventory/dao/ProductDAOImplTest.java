@@ -0,0 +1,65 @@
+package fr.inventory.dao;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductDAOImplTest {
+
+    private final ProductDAOImpl dao = new ProductDAOImpl();
+    private long screws;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TestDatabase.reset();
+        screws = TestDatabase.insertProduct("Vis", 7, 2, true);
+    }
+
+    @Test
+    void adjustStockReturnsTheNewStock() throws Exception {
+        assertEquals(Optional.of(10L), dao.adjustStock(screws, 3));
+        assertEquals(Optional.of(6L), dao.adjustStock(screws, -4));
+        assertEquals(6, TestDatabase.currentStock(screws));
+    }
+
+    @Test
+    void adjustStockCanEmptyTheStock() throws Exception {
+        assertEquals(Optional.of(0L), dao.adjustStock(screws, -7));
+        assertEquals(0, TestDatabase.currentStock(screws));
+    }
+
+    @Test
+    void adjustStockRejectsANegativeResult() throws Exception {
+        assertEquals(Optional.empty(), dao.adjustStock(screws, -8));
+        assertEquals(7, TestDatabase.currentStock(screws));
+    }
+
+    @Test
+    void adjustStockRejectsInactiveAndMissingProducts() throws Exception {
+        long glue = TestDatabase.insertProduct("Colle", 5, 2, false);
+
+        assertEquals(Optional.empty(), dao.adjustStock(glue, 1));
+        assertEquals(Optional.empty(), dao.adjustStock(999_999L, 1));
+        assertEquals(5, TestDatabase.currentStock(glue));
+    }
+
+    @Test
+    void stockWritesReachTheLowStockMonitor() {
+        LowStockMonitor monitor = LowStockMonitor.shared();
+        // Loads the monitor, or catches it up with the rows reset by setUp
+        monitor.resync();
+
+        dao.adjustStock(screws, -6);
+        assertTrue(monitor.lowStockIds().contains(screws));
+
+        dao.updateStock(screws, 40L);
+        assertFalse(monitor.lowStockIds().contains(screws));
+        assertEquals(40, monitor.levels(List.of(screws)).get(0).getCurrentStock());
+    }
+}
@@ -0,0 +1,125 @@
+package fr.inventory.dao;
+
+import fr.inventory.model.Transaction;
+import fr.inventory.utils.DatabaseUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full scan of the transactions table with product names, in the migrated H2 schema with
+ * 1,000 products: the LEFT JOIN on products the finders used before {@link ProductNameDictionary},
+ * and the join-free query named from a loaded dictionary.
+ * Not run by the test phase: after {@code mvn test-compile}, run {@link #main(String[])} from the
+ * IDE, or {@code org.openjdk.jmh.Main ProductNameBenchmark} with the test classpath.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductNameBenchmark {
+    private static final int PRODUCTS = 1000;
+
+    private static final String JOINED_SQL = "SELECT t.*, p.name as product_name FROM transactions t "
+            + "LEFT JOIN products p ON t.product_id = p.id ORDER BY t.id";
+    private static final String JOIN_FREE_SQL = "SELECT t.* FROM transactions t ORDER BY t.id";
+
+    @Param({"10000", "200000"})
+    public int rows;
+
+    private Connection conn;
+    private ProductNameDictionary productNames;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        TestDatabase.reset();
+        // Otherwise H2 hands a re-executed statement its previous result when the table is unchanged
+        TestDatabase.execute("SET OPTIMIZE_REUSE_RESULTS 0");
+        long[] productIds = new long[PRODUCTS];
+        for (int i = 0; i < PRODUCTS; i++) {
+            productIds[i] = TestDatabase.insertProduct("Produit " + i, 10, 2, true);
+        }
+        conn = DatabaseUtils.getConnection();
+        try (PreparedStatement insert = conn.prepareStatement("INSERT INTO transactions "
+                + "(product_id, quantity, transaction_type, description, user_name, timestamp) VALUES (?, 1, 'IN', ?, ?, ?)")) {
+            Timestamp timestamp = Timestamp.valueOf(LocalDateTime.now());
+            for (int i = 0; i < rows; i++) {
+                insert.setLong(1, productIds[i % PRODUCTS]);
+                insert.setString(2, "Mouvement " + i);
+                insert.setString(3, "user" + i % 10);
+                insert.setTimestamp(4, timestamp);
+                insert.addBatch();
+                if (i % 1000 == 999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+
+        productNames = new ProductNameDictionary();
+        productNames.ensureLoaded();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        conn.close();
+    }
+
+    @Benchmark
+    public List<Transaction> joined() throws SQLException {
+        List<Transaction> transactions = new ArrayList<>(rows);
+        try (PreparedStatement stmt = conn.prepareStatement(JOINED_SQL);
+             ResultSet rs = stmt.executeQuery()) {
+            RowMapper<Transaction> mapper = RowMappers.TRANSACTION.bind(JOINED_SQL, rs);
+            int productName = rs.findColumn("product_name");
+            while (rs.next()) {
+                Transaction transaction = mapper.mapRow(rs);
+                transaction.setProductName(rs.getString(productName));
+                transactions.add(transaction);
+            }
+        }
+        return transactions;
+    }
+
+    @Benchmark
+    public List<Transaction> dictionary() throws SQLException {
+        List<Transaction> transactions = new ArrayList<>(rows);
+        try (PreparedStatement stmt = conn.prepareStatement(JOIN_FREE_SQL);
+             ResultSet rs = stmt.executeQuery()) {
+            RowMapper<Transaction> mapper = RowMappers.TRANSACTION.bind(JOIN_FREE_SQL, rs);
+            while (rs.next()) {
+                transactions.add(mapper.mapRow(rs));
+            }
+        }
+        return productNames.fillNames(transactions);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ProductNameBenchmark.class.getSimpleName()).build()).run();
+    }
+}
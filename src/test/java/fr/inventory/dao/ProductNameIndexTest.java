@@ -0,0 +1,72 @@
+package fr.inventory.dao;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProductNameIndexTest {
+
+    private final Map<Long, String> names = new ConcurrentHashMap<>();
+    private final ProductNameIndex index = new ProductNameIndex(names);
+
+    @BeforeEach
+    void setUp() {
+        put(1L, "Visseuse sans fil");
+        put(2L, "Vis à bois");
+        put(3L, "Vis");
+        put(4L, "Clou");
+    }
+
+    @Test
+    void closestNamesRankFirst() {
+        assertEquals(List.of(3L, 2L, 1L), index.search("vis", 10));
+        assertEquals(List.of(3L, 2L, 1L), index.search("VIS", 10));
+        assertEquals(List.of(2L), index.search("à bois", 10));
+    }
+
+    @Test
+    void matchesAreExactSubstrings() {
+        // "sans" and "fil" are both in "Visseuse sans fil", "sans vis" is not
+        assertEquals(List.of(), index.search("sans vis", 10));
+        assertEquals(List.of(), index.search("inconnu", 10));
+    }
+
+    @Test
+    void shortQueriesScanTheNames() {
+        assertEquals(List.of(4L), index.search("cl", 10));
+        assertEquals(List.of(3L, 2L, 1L), index.search("vi", 10));
+    }
+
+    @Test
+    void resultsAreCappedAtTheLimit() {
+        assertEquals(List.of(3L, 2L), index.search("vis", 2));
+        assertEquals(List.of(), index.search("vis", 0));
+    }
+
+    @Test
+    void renameReplacesTheOldTrigrams() {
+        put(3L, "Boulon");
+
+        assertEquals(List.of(2L, 1L), index.search("vis", 10));
+        assertEquals(List.of(3L), index.search("boulon", 10));
+    }
+
+    @Test
+    void removedProductsAreNoLongerFound() {
+        String previous = names.remove(2L);
+        index.remove(2L, previous);
+
+        assertEquals(List.of(3L, 1L), index.search("vis", 10));
+        assertEquals(List.of(), index.search("bois", 10));
+    }
+
+    private void put(Long id, String name) {
+        String previous = names.put(id, name);
+        index.put(id, previous, name);
+    }
+}
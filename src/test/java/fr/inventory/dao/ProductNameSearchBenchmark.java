@@ -0,0 +1,111 @@
+package fr.inventory.dao;
+
+import fr.inventory.utils.DatabaseUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "Name contains" search over the products table of the migrated H2 schema: the
+ * {@code LOWER(name) LIKE} scan the DAO ran before {@link ProductNameIndex}, and the trigram
+ * index of a loaded {@link ProductNameDictionary}. Both return the matching product IDs, capped
+ * like the DAO's search; loading the matched rows by primary key is left out.
+ * Not run by the test phase: after {@code mvn test-compile}, run {@link #main(String[])} from the
+ * IDE, or {@code org.openjdk.jmh.Main ProductNameSearchBenchmark} with the test classpath.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductNameSearchBenchmark {
+    private static final int LIMIT = 100;
+    private static final String LIKE_SQL = "SELECT id FROM products WHERE LOWER(name) LIKE LOWER(?) ORDER BY name LIMIT ?";
+
+    private static final String[] KINDS = {"Vis", "Clou", "Boulon", "Cheville", "Rondelle", "Ecrou", "Tige", "Equerre"};
+    private static final String[] MATERIALS = {"acier", "inox", "laiton", "zinc", "nylon"};
+
+    @Param({"10000", "100000"})
+    public int products;
+
+    // A word shared by a fifth of the names, and a reference matched by a handful
+    @Param({"inox", "ref 4242"})
+    public String query;
+
+    private Connection conn;
+    private ProductNameDictionary productNames;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        TestDatabase.reset();
+        // Otherwise H2 hands a re-executed statement its previous result when the table is unchanged
+        TestDatabase.execute("SET OPTIMIZE_REUSE_RESULTS 0");
+        conn = DatabaseUtils.getConnection();
+        try (PreparedStatement insert = conn.prepareStatement(
+                "INSERT INTO products (name, current_stock, min_stock, price) VALUES (?, 10, 2, 1.00)")) {
+            for (int i = 0; i < products; i++) {
+                insert.setString(1, KINDS[i % KINDS.length] + " " + MATERIALS[i / KINDS.length % MATERIALS.length]
+                        + " " + (i % 12 + 3) + "x" + (i % 9 * 10 + 20) + " ref " + i);
+                insert.addBatch();
+                if (i % 1000 == 999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+
+        productNames = new ProductNameDictionary();
+        productNames.ensureLoaded();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        conn.close();
+    }
+
+    @Benchmark
+    public List<Long> like() throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(LIKE_SQL)) {
+            stmt.setString(1, "%" + query + "%");
+            stmt.setInt(2, LIMIT);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getLong(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    @Benchmark
+    public List<Long> trigramIndex() {
+        return productNames.search(query, LIMIT);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ProductNameSearchBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,139 @@
+package fr.inventory.dao;
+
+import fr.inventory.utils.TransactionTemplate;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+class QueryCacheTest {
+
+    private static final Set<QueryCache.Table> PRODUCTS = Set.of(QueryCache.Table.PRODUCTS);
+
+    private final QueryCache cache = new QueryCache(10);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void repeatedQueriesHitTheCache() {
+        assertEquals(42, cache.get("count", PRODUCTS, counting(() -> 42)));
+        assertEquals(42, cache.get("count", PRODUCTS, counting(() -> 42)));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void parametersArePartOfTheKey() {
+        cache.get("byId", PRODUCTS, counting(() -> "a"), 1L);
+        cache.get("byId", PRODUCTS, counting(() -> "b"), 2L);
+        cache.get("byId", PRODUCTS, counting(() -> "a"), 1L);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidatingATableReloadsOnlyItsQueries() {
+        cache.get("products", PRODUCTS, counting(() -> 1));
+        cache.get("transactions", Set.of(QueryCache.Table.TRANSACTIONS), counting(() -> 2));
+
+        cache.invalidate(QueryCache.Table.PRODUCTS);
+        cache.get("products", PRODUCTS, counting(() -> 1));
+        cache.get("transactions", Set.of(QueryCache.Table.TRANSACTIONS), counting(() -> 2));
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void resultLoadedDuringAWriteIsNotKept() {
+        cache.get("products", PRODUCTS, counting(() -> {
+            cache.invalidate(QueryCache.Table.PRODUCTS);
+            return 1;
+        }));
+        cache.get("products", PRODUCTS, counting(() -> 1));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void copiedResultsAreNeverShared() {
+        List<String> first = cache.getCopied("names", PRODUCTS, counting(() -> new ArrayList<>(List.of("Vis"))), ArrayList::new);
+        first.add("Clou");
+        List<String> second = cache.getCopied("names", PRODUCTS, counting(() -> new ArrayList<>(List.of("Vis"))), ArrayList::new);
+
+        assertEquals(List.of("Vis"), second);
+        assertNotSame(first, second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void leastRecentlyUsedEntriesAreEvicted() {
+        QueryCache small = new QueryCache(2);
+        small.get("a", PRODUCTS, counting(() -> 1));
+        small.get("b", PRODUCTS, counting(() -> 2));
+        small.get("a", PRODUCTS, counting(() -> 1));
+        small.get("c", PRODUCTS, counting(() -> 3));
+
+        small.get("a", PRODUCTS, counting(() -> 1));
+        assertEquals(3, loads.get());
+        small.get("b", PRODUCTS, counting(() -> 2));
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void listsWeighTheirRows() {
+        QueryCache small = new QueryCache(8);
+        small.get("a", PRODUCTS, counting(() -> List.of(1, 2)));
+        small.get("b", PRODUCTS, counting(() -> List.of(1, 2)));
+        small.get("c", PRODUCTS, counting(() -> List.of(1, 2)));
+        assertEquals(6, small.getCachedRows());
+
+        // Two more rows than the budget: the least recently used list goes
+        small.get("d", PRODUCTS, counting(() -> List.of(1, 2)));
+        small.get("e", PRODUCTS, counting(() -> List.of(1, 2)));
+        assertEquals(8, small.getCachedRows());
+        small.get("a", PRODUCTS, counting(() -> List.of(1, 2)));
+        assertEquals(6, loads.get());
+    }
+
+    @Test
+    void resultsOverAQuarterOfTheBudgetAreNotCached() {
+        QueryCache small = new QueryCache(8);
+        small.get("table", PRODUCTS, counting(() -> List.of(1, 2, 3)));
+        small.get("table", PRODUCTS, counting(() -> List.of(1, 2, 3)));
+
+        assertEquals(2, loads.get());
+        assertEquals(0, small.getCachedRows());
+    }
+
+    @Test
+    void unitsOfWorkBypassTheCache() throws Exception {
+        TestDatabase.reset();
+        cache.get("count", PRODUCTS, counting(() -> 1));
+
+        new TransactionTemplate().execute(() -> {
+            cache.get("count", PRODUCTS, counting(() -> 1));
+            cache.invalidate(QueryCache.Table.PRODUCTS);
+            return null;
+        });
+        assertEquals(2, loads.get());
+
+        // Bumped again once committed, so nothing cached meanwhile survives the commit
+        cache.get("count", PRODUCTS, counting(() -> 1));
+        cache.get("count", PRODUCTS, counting(() -> 1));
+        assertEquals(3, loads.get());
+    }
+
+    private <T> Supplier<T> counting(Supplier<T> loader) {
+        return () -> {
+            loads.incrementAndGet();
+            return loader.get();
+        };
+    }
+}
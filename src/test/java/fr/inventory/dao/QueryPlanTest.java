@@ -0,0 +1,115 @@
+package fr.inventory.dao;
+
+import fr.inventory.utils.DatabaseUtils;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks with EXPLAIN that the filtered DAO queries read the V2 indexes instead of the whole table.
+ * The plans are H2's, not MySQL's: H2 only avoids a sort along an index declared in the same
+ * direction, so it cannot show MySQL reading idx_transactions_timestamp_id backwards for the
+ * DESC order, and for product_id it settles for the foreign key's own index. Those plans are
+ * only checked for the index condition they seek with.
+ */
+class QueryPlanTest {
+
+    private static final String TRANSACTION_PAGE = "SELECT t.* FROM transactions t WHERE 1 = 1 AND %s "
+            + "AND t.timestamp <= ? AND (t.timestamp < ? OR t.id < ?) ORDER BY t.timestamp DESC, t.id DESC LIMIT ?";
+
+    private static final Timestamp CURSOR = Timestamp.valueOf(LocalDateTime.now().minusDays(100));
+
+    @BeforeAll
+    static void seed() throws Exception {
+        TestDatabase.reset();
+        long[] products = new long[20];
+        for (int i = 0; i < products.length; i++) {
+            products[i] = TestDatabase.insertProduct("Produit " + i, i, 10, i % 4 != 0);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        String[] users = {"alice", "bob", "carol", "dave", "eve"};
+        for (int i = 0; i < 500; i++) {
+            TestDatabase.insertTransaction(products[i % products.length], "Mouvement " + i,
+                    users[i % users.length], now.minusHours(i));
+        }
+        TestDatabase.execute("UPDATE transactions SET transaction_type = 'OUT' WHERE MOD(id, 3) = 1");
+        TestDatabase.execute("UPDATE transactions SET transaction_type = 'TRANSFER' WHERE MOD(id, 3) = 2");
+        TestDatabase.execute("UPDATE transactions SET synced_to_blockchain = true WHERE MOD(id, 10) <> 0");
+    }
+
+    @Test
+    void transactionFiltersUseTheirTimestampIndexes() throws SQLException {
+        assertUses("IDX_TRANSACTIONS_TYPE_TIMESTAMP",
+                "SELECT t.* FROM transactions t WHERE t.transaction_type = ? ORDER BY t.timestamp DESC", "OUT");
+        assertUses("IDX_TRANSACTIONS_USER_TIMESTAMP",
+                "SELECT t.* FROM transactions t WHERE t.user_name = ? ORDER BY t.timestamp DESC", "bob");
+        assertUses("IDX_TRANSACTIONS_SYNCED_TIMESTAMP",
+                "SELECT t.* FROM transactions t WHERE t.synced_to_blockchain = false ORDER BY t.timestamp DESC");
+        assertUses("IDX_TRANSACTIONS_TIMESTAMP_ID",
+                "SELECT t.* FROM transactions t WHERE t.timestamp BETWEEN ? AND ? ORDER BY t.timestamp DESC",
+                Timestamp.valueOf(LocalDateTime.now().minusDays(2)), Timestamp.valueOf(LocalDateTime.now()));
+        assertIndexed("PRODUCT_ID",
+                "SELECT t.* FROM transactions t WHERE t.product_id = ? ORDER BY t.timestamp DESC", 3L);
+    }
+
+    @Test
+    void keysetPagesSeekInsteadOfScanning() throws SQLException {
+        assertUses("IDX_TRANSACTIONS_TYPE_TIMESTAMP",
+                String.format(TRANSACTION_PAGE, "t.transaction_type = ?"), "OUT", CURSOR, CURSOR, 100L, 21);
+        assertUses("IDX_TRANSACTIONS_USER_TIMESTAMP",
+                String.format(TRANSACTION_PAGE, "t.user_name = ?"), "bob", CURSOR, CURSOR, 100L, 21);
+        assertUses("IDX_TRANSACTIONS_SYNCED_TIMESTAMP",
+                String.format(TRANSACTION_PAGE, "t.synced_to_blockchain = false"), CURSOR, CURSOR, 100L, 21);
+        assertIndexed("PRODUCT_ID",
+                String.format(TRANSACTION_PAGE, "t.product_id = ?"), 3L, CURSOR, CURSOR, 100L, 21);
+        assertUses("IDX_TRANSACTIONS_USER_TIMESTAMP: USER_NAME = ?1 AND TIMESTAMP <= ?2",
+                String.format(TRANSACTION_PAGE, "t.user_name = ?"), "bob", CURSOR, CURSOR, 100L, 21);
+        assertUses("IDX_TRANSACTIONS_TIMESTAMP_ID: TIMESTAMP <= ?1",
+                String.format(TRANSACTION_PAGE, "1 = 1"), CURSOR, CURSOR, 100L, 21);
+    }
+
+    @Test
+    void productListingsUseTheNameIndexes() throws SQLException {
+        assertUses("IDX_PRODUCTS_ACTIVE_NAME", "SELECT * FROM products WHERE is_active = true ORDER BY name");
+        assertUses("IDX_PRODUCTS_ACTIVE_NAME",
+                "SELECT COUNT(*) FROM products WHERE is_active = true AND current_stock <= min_stock");
+        assertUses("IDX_PRODUCTS_NAME", "SELECT * FROM products ORDER BY name");
+    }
+
+    private static void assertUses(String index, String sql, Object... params) throws SQLException {
+        String plan = explain(sql, params);
+        assertTrue(plan.contains("/* PUBLIC." + index), () -> "Expected " + index + " in " + plan);
+    }
+
+    /**
+     * Some index on the column is read, whichever one H2 prefers
+     */
+    private static void assertIndexed(String column, String sql, Object... params) throws SQLException {
+        String plan = explain(sql, params);
+        assertFalse(plan.contains("tableScan"), () -> "Table scanned: " + plan);
+        assertTrue(plan.matches("(?s).*/\\* PUBLIC\\.\\w+: " + column + " = .*"),
+                () -> "Expected an index on " + column + " in " + plan);
+    }
+
+    private static String explain(String sql, Object... params) throws SQLException {
+        try (Connection conn = DatabaseUtils.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < params.length; i++) {
+                stmt.setObject(i + 1, params[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getString(1).replaceAll("\\s+", " ");
+            }
+        }
+    }
+}
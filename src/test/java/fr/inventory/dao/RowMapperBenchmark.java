@@ -0,0 +1,137 @@
+package fr.inventory.dao;
+
+import fr.inventory.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Row mapping cost over an in-memory H2 products table: label lookups on every row (the
+ * mapping the DAOs used before {@link RowMappers}), column indexes resolved per result set,
+ * and indexes resolved once per SQL statement.
+ * Not run by the test phase: after {@code mvn test-compile}, run {@link #main(String[])} from the
+ * IDE, or {@code org.openjdk.jmh.Main RowMapperBenchmark} with the test classpath.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowMapperBenchmark {
+    private static final String SQL = "SELECT * FROM products WHERE id <= ?";
+
+    // 1 is the findById shape, where binding dominates; 1000 is a full listing
+    @Param({"1", "1000"})
+    public int rows;
+
+    private Connection conn;
+    private PreparedStatement stmt;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:h2:mem:row-mapper-benchmark;DB_CLOSE_DELAY=-1");
+        try (Statement ddl = conn.createStatement()) {
+            ddl.execute("""
+                CREATE TABLE IF NOT EXISTS products (
+                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    name VARCHAR(255) NOT NULL,
+                    description TEXT,
+                    current_stock BIGINT NOT NULL DEFAULT 0,
+                    min_stock BIGINT NOT NULL DEFAULT 0,
+                    price DECIMAL(10,2) NOT NULL DEFAULT 0.00,
+                    is_active BOOLEAN NOT NULL DEFAULT TRUE,
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                )
+            """);
+            ddl.execute("DELETE FROM products");
+        }
+        try (PreparedStatement insert = conn.prepareStatement(
+                "INSERT INTO products (id, name, description, current_stock, min_stock, price) VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int i = 1; i <= 1000; i++) {
+                insert.setLong(1, i);
+                insert.setString(2, "Produit " + i);
+                insert.setString(3, "Description du produit " + i);
+                insert.setLong(4, i % 50);
+                insert.setLong(5, 10);
+                insert.setBigDecimal(6, java.math.BigDecimal.valueOf(i, 2));
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        stmt = conn.prepareStatement(SQL);
+        stmt.setLong(1, rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        stmt.close();
+        conn.close();
+    }
+
+    @Benchmark
+    public void byLabel(Blackhole blackhole) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                blackhole.consume(new Product(
+                    rs.getLong("id"),
+                    rs.getString("name"),
+                    rs.getString("description"),
+                    rs.getLong("current_stock"),
+                    rs.getLong("min_stock"),
+                    rs.getBigDecimal("price"),
+                    rs.getBoolean("is_active"),
+                    rs.getTimestamp("created_at").toLocalDateTime(),
+                    rs.getTimestamp("updated_at").toLocalDateTime()
+                ));
+            }
+        }
+    }
+
+    @Benchmark
+    public void boundPerResultSet(Blackhole blackhole) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery()) {
+            RowMapper<Product> mapper = RowMappers.PRODUCT.bind(rs);
+            while (rs.next()) {
+                blackhole.consume(mapper.mapRow(rs));
+            }
+        }
+    }
+
+    @Benchmark
+    public void boundPerStatement(Blackhole blackhole) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery()) {
+            RowMapper<Product> mapper = RowMappers.PRODUCT.bind(SQL, rs);
+            while (rs.next()) {
+                blackhole.consume(mapper.mapRow(rs));
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RowMapperBenchmark.class.getSimpleName()).build()).run();
+    }
+}
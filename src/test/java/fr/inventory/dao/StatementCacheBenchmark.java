@@ -0,0 +1,127 @@
+package fr.inventory.dao;
+
+import fr.inventory.utils.ConnectionPool;
+import fr.inventory.utils.PoolConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call cost of a findById-shaped lookup over an in-memory H2 products table: a fresh
+ * connection per call (what the DAOs did before {@link ConnectionPool}), a pooled connection
+ * with the statement cache disabled, and a pooled connection reusing its cached statement.
+ * H2 connects and parses far faster than MySQL over a socket, so the gaps measured here are
+ * lower bounds of the production ones.
+ * Not run by the test phase: after {@code mvn test-compile}, run {@link #main(String[])} from the
+ * IDE, or {@code org.openjdk.jmh.Main StatementCacheBenchmark} with the test classpath.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatementCacheBenchmark {
+    private static final String URL = "jdbc:h2:mem:statement-cache-benchmark;DB_CLOSE_DELAY=-1";
+    private static final String SQL = "SELECT * FROM products WHERE id = ?";
+
+    // 0 disables the statement cache, 64 is the default size
+    @Param({"0", "64"})
+    public int statementCacheSize;
+
+    private Connection keepAlive;
+    private ConnectionPool pool;
+    private long nextId = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        keepAlive = DriverManager.getConnection(URL);
+        try (Statement ddl = keepAlive.createStatement()) {
+            ddl.execute("""
+                CREATE TABLE IF NOT EXISTS products (
+                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    name VARCHAR(255) NOT NULL,
+                    description TEXT,
+                    current_stock BIGINT NOT NULL DEFAULT 0,
+                    min_stock BIGINT NOT NULL DEFAULT 0,
+                    price DECIMAL(10,2) NOT NULL DEFAULT 0.00,
+                    is_active BOOLEAN NOT NULL DEFAULT TRUE,
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                )
+            """);
+            ddl.execute("DELETE FROM products");
+        }
+        try (PreparedStatement insert = keepAlive.prepareStatement(
+                "INSERT INTO products (id, name, current_stock, min_stock) VALUES (?, ?, ?, ?)")) {
+            for (int i = 1; i <= 1000; i++) {
+                insert.setLong(1, i);
+                insert.setString(2, "Produit " + i);
+                insert.setLong(3, i % 50);
+                insert.setLong(4, 10);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+
+        PoolConfig config = new PoolConfig();
+        config.setMinSize(1);
+        config.setMaxSize(2);
+        config.setStatementCacheSize(statementCacheSize);
+        pool = new ConnectionPool(URL, "", "", config);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        pool.close();
+        keepAlive.close();
+    }
+
+    @Benchmark
+    public String connectionPerCall() throws SQLException {
+        try (Connection conn = DriverManager.getConnection(URL)) {
+            return findName(conn);
+        }
+    }
+
+    @Benchmark
+    public String pooled() throws SQLException {
+        try (Connection conn = pool.getConnection()) {
+            return findName(conn);
+        }
+    }
+
+    private String findName(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SQL)) {
+            stmt.setLong(1, nextId++ % 1000 + 1);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString("name") : null;
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(StatementCacheBenchmark.class.getSimpleName()).build()).run();
+    }
+}
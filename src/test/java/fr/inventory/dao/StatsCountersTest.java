@@ -0,0 +1,103 @@
+package fr.inventory.dao;
+
+import fr.inventory.model.Product;
+import fr.inventory.model.Transaction;
+import fr.inventory.model.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatsCountersTest {
+
+    private final StatsCounters statsCounters = new StatsCounters();
+    private long screws;
+    private long nails;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TestDatabase.reset();
+        // Written behind the DAOs' back, so no counter follows them
+        screws = TestDatabase.insertProduct("Vis", 10, 2, true);
+        nails = TestDatabase.insertProduct("Clou", 10, 2, false);
+        TestDatabase.insertTransaction(screws, "Entrée", "alice", LocalDateTime.now());
+    }
+
+    @Test
+    void driftedCountersAreCorrected() {
+        assertEquals(5, statsCounters.verify());
+
+        Map<StatsCounters.Counter, Long> values = statsCounters.readAll();
+        assertEquals(2, values.get(StatsCounters.Counter.PRODUCTS_TOTAL));
+        assertEquals(1, values.get(StatsCounters.Counter.PRODUCTS_ACTIVE));
+        assertEquals(1, values.get(StatsCounters.Counter.TRANSACTIONS_TOTAL));
+        assertEquals(1, values.get(StatsCounters.Counter.TRANSACTIONS_PENDING));
+        assertEquals(1, values.get(StatsCounters.Counter.TRANSACTIONS_IN));
+        assertEquals(0, values.get(StatsCounters.Counter.TRANSACTIONS_OUT));
+
+        assertEquals(0, statsCounters.verify());
+    }
+
+    @Test
+    void missingCountersAreRecreated() throws Exception {
+        statsCounters.verify();
+        TestDatabase.execute("DELETE FROM stats_counters WHERE counter_name = 'products.total'");
+
+        assertEquals(1, statsCounters.verify());
+        assertEquals(2, statsCounters.readAll().get(StatsCounters.Counter.PRODUCTS_TOTAL));
+    }
+
+    @Test
+    void productWritesMoveTheCounters() {
+        statsCounters.verify();
+        ProductDAOImpl productDAO = new ProductDAOImpl();
+
+        Product bolts = productDAO.create(new Product("Boulon", null, 5L, 1L, BigDecimal.ONE));
+        assertCounters(3, 2, StatsCounters.Counter.PRODUCTS_TOTAL, StatsCounters.Counter.PRODUCTS_ACTIVE);
+
+        // The nails are already inactive: only two products flip
+        productDAO.deactivateAll(List.of(screws, nails, bolts.getId()));
+        assertCounters(3, 0, StatsCounters.Counter.PRODUCTS_TOTAL, StatsCounters.Counter.PRODUCTS_ACTIVE);
+
+        productDAO.activateAll(List.of(screws, nails));
+        assertTrue(productDAO.delete(nails));
+        assertCounters(2, 1, StatsCounters.Counter.PRODUCTS_TOTAL, StatsCounters.Counter.PRODUCTS_ACTIVE);
+
+        assertEquals(0, statsCounters.verify());
+    }
+
+    @Test
+    void transactionWritesMoveTheCounters() {
+        statsCounters.verify();
+        TransactionDAOImpl transactionDAO = new TransactionDAOImpl();
+
+        Transaction out = transactionDAO.create(new Transaction(screws, 2L, TransactionType.OUT, "Sortie", "bob"));
+        assertCounters(2, 2, StatsCounters.Counter.TRANSACTIONS_TOTAL, StatsCounters.Counter.TRANSACTIONS_PENDING);
+        assertEquals(1, statsCounters.readAll().get(StatsCounters.Counter.TRANSACTIONS_OUT));
+
+        assertTrue(transactionDAO.markAsSynced(out.getId()));
+        // Already synced: the pending count must not drop twice
+        assertFalse(transactionDAO.markAsSynced(out.getId()));
+        assertCounters(2, 1, StatsCounters.Counter.TRANSACTIONS_TOTAL, StatsCounters.Counter.TRANSACTIONS_PENDING);
+
+        assertTrue(transactionDAO.delete(out.getId()));
+        assertCounters(1, 1, StatsCounters.Counter.TRANSACTIONS_TOTAL, StatsCounters.Counter.TRANSACTIONS_PENDING);
+        assertEquals(0, statsCounters.readAll().get(StatsCounters.Counter.TRANSACTIONS_OUT));
+
+        assertEquals(0, statsCounters.verify());
+    }
+
+    private void assertCounters(long first, long second, StatsCounters.Counter firstCounter,
+                                StatsCounters.Counter secondCounter) {
+        Map<StatsCounters.Counter, Long> values = statsCounters.readAll();
+        assertEquals(first, values.get(firstCounter), firstCounter.name());
+        assertEquals(second, values.get(secondCounter), secondCounter.name());
+    }
+}
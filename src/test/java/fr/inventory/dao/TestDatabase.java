@@ -0,0 +1,115 @@
+package fr.inventory.dao;
+
+import fr.inventory.utils.DatabaseUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * In-memory H2 database (MySQL mode) shared by the DAO tests, migrated like the real one.
+ */
+final class TestDatabase {
+
+    private TestDatabase() {
+    }
+
+    /**
+     * Initialize the database once, empty its tables and zero the stats counters
+     */
+    static void reset() throws SQLException {
+        System.setProperty("inventory.db.url", "jdbc:h2:mem:inventory-test;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        System.setProperty("inventory.db.user", "sa");
+        System.setProperty("inventory.db.password", "");
+        DatabaseUtils.initialize((fraction, message) -> { });
+
+        try (Connection conn = DatabaseUtils.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM transactions");
+            stmt.executeUpdate("DELETE FROM products");
+            stmt.executeUpdate("UPDATE stats_counters SET counter_value = 0");
+        }
+    }
+
+    static long insertProduct(String name, long currentStock, long minStock, boolean active) throws SQLException {
+        String sql = "INSERT INTO products (name, current_stock, min_stock, price, is_active) VALUES (?, ?, ?, 1.00, ?)";
+        try (Connection conn = DatabaseUtils.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setString(1, name);
+            stmt.setLong(2, currentStock);
+            stmt.setLong(3, minStock);
+            stmt.setBoolean(4, active);
+            stmt.executeUpdate();
+            try (var keys = stmt.getGeneratedKeys()) {
+                keys.next();
+                return keys.getLong(1);
+            }
+        }
+    }
+
+    static long insertTransaction(long productId, String description, String user, LocalDateTime timestamp)
+            throws SQLException {
+        String sql = "INSERT INTO transactions (product_id, quantity, transaction_type, description, user_name, timestamp) "
+                + "VALUES (?, 1, 'IN', ?, ?, ?)";
+        try (Connection conn = DatabaseUtils.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setLong(1, productId);
+            stmt.setString(2, description);
+            stmt.setString(3, user);
+            stmt.setTimestamp(4, Timestamp.valueOf(timestamp));
+            stmt.executeUpdate();
+            try (var keys = stmt.getGeneratedKeys()) {
+                keys.next();
+                return keys.getLong(1);
+            }
+        }
+    }
+
+    /**
+     * Change a description behind the index's back, keeping an old updated_at
+     */
+    static void rewriteDescriptionSilently(long transactionId, String description) throws SQLException {
+        String sql = "UPDATE transactions SET description = ?, updated_at = ? WHERE id = ?";
+        try (Connection conn = DatabaseUtils.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, description);
+            stmt.setTimestamp(2, Timestamp.valueOf(LocalDateTime.of(2000, 1, 1, 0, 0)));
+            stmt.setLong(3, transactionId);
+            stmt.executeUpdate();
+        }
+    }
+
+    static void deleteTransaction(long transactionId) throws SQLException {
+        try (Connection conn = DatabaseUtils.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("DELETE FROM transactions WHERE id = ?")) {
+            stmt.setLong(1, transactionId);
+            stmt.executeUpdate();
+        }
+    }
+
+    static void execute(String sql) throws SQLException {
+        try (Connection conn = DatabaseUtils.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate(sql);
+        }
+    }
+
+    /**
+     * Single number returned by a query, such as a COUNT or one column of one row
+     */
+    static long queryLong(String sql) throws SQLException {
+        try (Connection conn = DatabaseUtils.getConnection();
+             Statement stmt = conn.createStatement();
+             var rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    static long currentStock(long productId) throws SQLException {
+        return queryLong("SELECT current_stock FROM products WHERE id = " + productId);
+    }
+}
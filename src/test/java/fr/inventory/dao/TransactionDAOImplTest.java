@@ -0,0 +1,110 @@
+package fr.inventory.dao;
+
+import fr.inventory.model.Transaction;
+import fr.inventory.model.TransactionType;
+import fr.inventory.utils.TransactionTemplate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TransactionDAOImplTest {
+
+    private final ProductDAOImpl productDAO = new ProductDAOImpl();
+    private final TransactionDAOImpl transactionDAO = new TransactionDAOImpl();
+    private final TransactionTemplate transactionTemplate = new TransactionTemplate();
+    private long screws;
+    private long nails;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TestDatabase.reset();
+        screws = TestDatabase.insertProduct("Vis", 10, 2, true);
+        nails = TestDatabase.insertProduct("Clou", 1, 2, true);
+    }
+
+    @Test
+    void stockChangeAndRowCommitTogether() throws Exception {
+        Transaction saved = transactionTemplate.execute(() -> {
+            productDAO.adjustStock(screws, -4).orElseThrow(IllegalStateException::new);
+            return transactionDAO.create(new Transaction(screws, 4L, TransactionType.OUT, "Sortie", "alice"));
+        });
+
+        assertEquals(6, TestDatabase.currentStock(screws));
+        assertEquals(1, TestDatabase.queryLong("SELECT COUNT(*) FROM transactions WHERE id = " + saved.getId()));
+    }
+
+    @Test
+    void rejectedStockRollsBackTheWholeUnitOfWork() throws Exception {
+        // The nails cannot cover their quantity, as when TransactionService gets an empty adjustStock
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.execute(() -> {
+            productDAO.adjustStock(screws, -4).orElseThrow(IllegalStateException::new);
+            transactionDAO.create(new Transaction(screws, 4L, TransactionType.OUT, "Sortie", "alice"));
+            productDAO.adjustStock(nails, -5).orElseThrow(IllegalStateException::new);
+            return null;
+        }));
+
+        assertEquals(10, TestDatabase.currentStock(screws));
+        assertEquals(1, TestDatabase.currentStock(nails));
+        assertEquals(0, TestDatabase.queryLong("SELECT COUNT(*) FROM transactions"));
+        assertEquals(0, TestDatabase.queryLong(
+                "SELECT counter_value FROM stats_counters WHERE counter_name = 'transactions.total'"));
+    }
+
+    @Test
+    void failedInsertRollsBackTheStockChange() throws Exception {
+        assertThrows(RuntimeException.class, () -> transactionTemplate.execute(() -> {
+            productDAO.adjustStock(screws, -4).orElseThrow(IllegalStateException::new);
+            // No such product: the foreign key rejects the row
+            return transactionDAO.create(new Transaction(999_999L, 4L, TransactionType.OUT, "Sortie", "alice"));
+        }));
+
+        assertEquals(10, TestDatabase.currentStock(screws));
+        assertEquals(0, TestDatabase.queryLong("SELECT COUNT(*) FROM transactions"));
+    }
+
+    @Test
+    void createAllSetsTheGeneratedKeyOfEveryRow() throws Exception {
+        // Five rows in chunks of two: the last chunk is partial
+        List<Transaction> lines = lines(5);
+        List<Transaction> saved = new TransactionDAOImpl(2).createAll(lines);
+
+        assertEquals(lines, saved);
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < saved.size(); i++) {
+            Long id = saved.get(i).getId();
+            assertNotNull(id);
+            ids.add(id);
+            assertEquals(1, TestDatabase.queryLong("SELECT COUNT(*) FROM transactions WHERE id = " + id
+                    + " AND description = 'Ligne " + i + "'"));
+        }
+        assertEquals(5, ids.size());
+        assertEquals(5, TestDatabase.queryLong(
+                "SELECT counter_value FROM stats_counters WHERE counter_name = 'transactions.total'"));
+    }
+
+    @Test
+    void createAllJoinsTheCallersUnitOfWork() throws Exception {
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.execute(() -> {
+            new TransactionDAOImpl(2).createAll(lines(3));
+            throw new IllegalStateException("rollback");
+        }));
+
+        assertEquals(0, TestDatabase.queryLong("SELECT COUNT(*) FROM transactions"));
+    }
+
+    private List<Transaction> lines(int count) {
+        List<Transaction> lines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            lines.add(new Transaction(i % 2 == 0 ? screws : nails, 1L, TransactionType.IN, "Ligne " + i, "alice"));
+        }
+        return lines;
+    }
+}
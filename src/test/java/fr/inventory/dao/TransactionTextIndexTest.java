@@ -0,0 +1,251 @@
+package fr.inventory.dao;
+
+import fr.inventory.model.Transaction;
+import fr.inventory.model.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionTextIndexTest {
+
+    @TempDir
+    Path directory;
+
+    private long productId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TestDatabase.reset();
+        productId = TestDatabase.insertProduct("Palette", 10, 2, true);
+    }
+
+    @Test
+    void searchMatchesEveryTermIgnoringAccentsAndCase() {
+        TransactionTextIndex index = loadedIndex();
+        index.add(List.of(transaction(1, "Livraison café fournisseur", "alice"),
+                transaction(2, "Retour café", "bob"),
+                transaction(3, "Inventaire", "alice")));
+
+        assertEquals(List.of(2L, 1L), ids(index, "CAFE"));
+        assertEquals(List.of(1L), ids(index, "café alice"));
+        assertEquals(List.of(), ids(index, "café inconnu"));
+        assertEquals(List.of(), ids(index, "  "));
+    }
+
+    @Test
+    void searchPagesFromTheNewestMatch() {
+        TransactionTextIndex index = loadedIndex();
+        for (long id = 1; id <= 5; id++) {
+            index.add(List.of(transaction(id, "Palette " + id, "alice")));
+        }
+
+        SearchPage first = index.search("palette", null, 2);
+        assertEquals(List.of(5L, 4L), first.getIds());
+        assertEquals(5, first.getTotalHits());
+        assertEquals(4L, first.getNextAfterId());
+
+        SearchPage second = index.search("palette", first.getNextAfterId(), 2);
+        assertEquals(List.of(3L, 2L), second.getIds());
+        assertTrue(second.hasNext());
+
+        SearchPage last = index.search("palette", second.getNextAfterId(), 2);
+        assertEquals(List.of(1L), last.getIds());
+        assertFalse(last.hasNext());
+        assertNull(last.getNextAfterId());
+    }
+
+    @Test
+    void replaceAndRemoveDropTheOldTerms() {
+        TransactionTextIndex index = loadedIndex();
+        index.add(List.of(transaction(1, "Livraison", "alice"), transaction(2, "Livraison", "bob")));
+
+        index.replace(transaction(1, "Retour", "alice"));
+        index.remove(2L);
+
+        assertEquals(List.of(), ids(index, "livraison"));
+        assertEquals(List.of(1L), ids(index, "retour"));
+        assertEquals(List.of(), ids(index, "bob"));
+    }
+
+    @Test
+    void varLongRoundTrip() throws IOException {
+        long[] values = {0, 1, 127, 128, 300, 16_383, 16_384, Integer.MAX_VALUE, Long.MAX_VALUE, -1};
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (long value : values) {
+            TransactionTextIndex.writeVarLong(out, value);
+        }
+        out.flush();
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        for (long value : values) {
+            assertEquals(value, TransactionTextIndex.readVarLong(in));
+        }
+        assertEquals(0, in.available());
+    }
+
+    @Test
+    void varLongRejectsMoreThanTenBytes() {
+        byte[] bytes = new byte[11];
+        Arrays.fill(bytes, (byte) 0x80);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+
+        assertThrows(IOException.class, () -> TransactionTextIndex.readVarLong(in));
+    }
+
+    @Test
+    void segmentIsReadBackInsteadOfTheTable() throws Exception {
+        long[] ids = insertRows();
+        loadedIndex();
+
+        // Only the segment still knows the old description
+        TestDatabase.rewriteDescriptionSilently(ids[0], "Inventaire annuel");
+        TransactionTextIndex reopened = loadedIndex();
+
+        assertEquals(List.of(ids[0]), ids(reopened, "livraison"));
+        assertEquals(List.of(), ids(reopened, "inventaire"));
+        assertEquals(List.of(ids[2]), ids(reopened, "recente"));
+    }
+
+    @Test
+    void segmentWithABadChecksumIsRebuiltFromTheTable() throws Exception {
+        long[] ids = insertRows();
+        loadedIndex();
+
+        TestDatabase.rewriteDescriptionSilently(ids[0], "Inventaire annuel");
+        Path segment = directory.resolve("transactions.seg");
+        byte[] bytes = Files.readAllBytes(segment);
+        bytes[bytes.length / 2] ^= 0x5A;
+        Files.write(segment, bytes);
+        TransactionTextIndex reopened = loadedIndex();
+
+        assertEquals(List.of(), ids(reopened, "livraison"));
+        assertEquals(List.of(ids[0]), ids(reopened, "inventaire"));
+        assertEquals(List.of(ids[1]), ids(reopened, "retour"));
+    }
+
+    @Test
+    void logIsReplayedOverTheSegment() throws Exception {
+        long[] ids = insertRows();
+        TransactionTextIndex index = loadedIndex();
+
+        // Logged only: the table keeps the old description with an old updated_at
+        index.replace(transaction(ids[0], "Zèbre", "alice"));
+        index.flush();
+        TransactionTextIndex reopened = loadedIndex();
+
+        assertEquals(List.of(ids[0]), ids(reopened, "zebre"));
+        assertEquals(List.of(), ids(reopened, "livraison"));
+    }
+
+    @Test
+    void truncatedLogKeepsTheCompleteRecords() throws Exception {
+        long[] ids = insertRows();
+        TransactionTextIndex index = loadedIndex();
+
+        index.replace(transaction(ids[0], "Zèbre", "alice"));
+        index.replace(transaction(ids[1], "Yack", "bob"));
+        index.flush();
+        Path log = directory.resolve("transactions.log");
+        byte[] bytes = Files.readAllBytes(log);
+        Files.write(log, Arrays.copyOf(bytes, bytes.length - 3));
+        TransactionTextIndex reopened = loadedIndex();
+
+        assertEquals(List.of(ids[0]), ids(reopened, "zebre"));
+        assertEquals(List.of(), ids(reopened, "yack"));
+        assertEquals(List.of(ids[1]), ids(reopened, "retour"));
+    }
+
+    @Test
+    void longLogIsCompactedInTheBackground() throws Exception {
+        long[] ids = insertRows();
+        TransactionTextIndex index = new TransactionTextIndex(directory, 2, 60_000);
+        index.ensureLoaded();
+
+        index.replace(transaction(ids[0], "Zèbre", "alice"));
+        index.replace(transaction(ids[1], "Yack", "bob"));
+        index.awaitBackgroundWork();
+
+        assertFalse(Files.exists(directory.resolve("transactions.log")));
+        assertFalse(Files.exists(directory.resolve("transactions.log.old")));
+        // Only the new segment knows these terms
+        TransactionTextIndex reopened = loadedIndex();
+        assertEquals(List.of(ids[0]), ids(reopened, "zebre"));
+        assertEquals(List.of(ids[1]), ids(reopened, "yack"));
+    }
+
+    @Test
+    void logSetAsideByAnInterruptedCompactionIsReplayedFirst() throws Exception {
+        long[] ids = insertRows();
+        TransactionTextIndex index = loadedIndex();
+
+        index.replace(transaction(ids[0], "Zèbre", "alice"));
+        index.flush();
+        Files.move(directory.resolve("transactions.log"), directory.resolve("transactions.log.old"));
+        index.replace(transaction(ids[0], "Yack", "alice"));
+        index.flush();
+        TransactionTextIndex reopened = loadedIndex();
+
+        assertEquals(List.of(), ids(reopened, "zebre"));
+        assertEquals(List.of(ids[0]), ids(reopened, "yack"));
+    }
+
+    @Test
+    void deletedRowsTriggerARebuild() throws Exception {
+        long[] ids = insertRows();
+        loadedIndex();
+
+        TestDatabase.deleteTransaction(ids[1]);
+        TransactionTextIndex reopened = loadedIndex();
+
+        assertEquals(List.of(), ids(reopened, "retour"));
+        assertEquals(List.of(ids[0]), ids(reopened, "livraison"));
+    }
+
+    private TransactionTextIndex loadedIndex() {
+        TransactionTextIndex index = new TransactionTextIndex(directory, 10_000, 60_000);
+        index.ensureLoaded();
+        return index;
+    }
+
+    /**
+     * Two rows with an old updated_at, so only the segment or the log can change what is
+     * indexed for them, and one recent row that sets the watermark
+     */
+    private long[] insertRows() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        long delivery = TestDatabase.insertTransaction(productId, "Livraison café", "alice", now);
+        long refund = TestDatabase.insertTransaction(productId, "Retour palette", "bob", now);
+        long recent = TestDatabase.insertTransaction(productId, "Entrée récente", "carol", now);
+        TestDatabase.rewriteDescriptionSilently(delivery, "Livraison café");
+        TestDatabase.rewriteDescriptionSilently(refund, "Retour palette");
+        return new long[]{delivery, refund, recent};
+    }
+
+    private static Transaction transaction(long id, String description, String user) {
+        Transaction transaction = new Transaction(1L, 1L, TransactionType.IN, description, user);
+        transaction.setId(id);
+        return transaction;
+    }
+
+    private static List<Long> ids(TransactionTextIndex index, String query) {
+        return index.search(query, null, 100).getIds();
+    }
+}